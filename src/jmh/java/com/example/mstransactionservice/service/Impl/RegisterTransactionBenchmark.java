@@ -0,0 +1,78 @@
+package com.example.mstransactionservice.service.Impl;
+
+import com.example.mstransactionservice.config.TransactionConfig;
+import com.example.mstransactionservice.dto.TransactionRequest;
+import com.example.mstransactionservice.model.Transaction;
+import com.example.mstransactionservice.model.enums.TransactionType;
+import com.example.mstransactionservice.repository.MonthlyTransactionCounterRepository;
+import com.example.mstransactionservice.repository.TransactionRepository;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.test.util.ReflectionTestUtils;
+import reactor.core.publisher.Mono;
+
+import java.lang.reflect.Proxy;
+import java.math.BigDecimal;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+
+/**
+ * Cálculo de la comisión en registerTransaction con el contador mensual y el repositorio en memoria.
+ * previousCount fija los movimientos previos del mes: por debajo (5) o por encima (25) del límite gratuito (20).
+ * mvn -P benchmark test-compile exec:exec -Djmh.args="RegisterTransaction -prof gc"
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class RegisterTransactionBenchmark {
+
+    @Param({"5", "25"})
+    private long previousCount;
+
+    private TransactionServiceImpl transactionService;
+    private TransactionRequest request;
+
+    @Setup
+    public void setUp() {
+        TransactionConfig config = new TransactionConfig();
+        ReflectionTestUtils.setField(config, "freeTransactionLimit", 20);
+        ReflectionTestUtils.setField(config, "commissionFee", new BigDecimal("2.5"));
+        Mono<Long> count = Mono.just(previousCount);
+        transactionService = new TransactionServiceImpl(
+                stub(TransactionRepository.class, "save", args -> Mono.just((Transaction) args[0])),
+                config,
+                null,
+                stub(MonthlyTransactionCounterRepository.class, "getAndIncrement", args -> count));
+        request = new TransactionRequest("acc-1", null, TransactionType.DEPOSIT, new BigDecimal("100"));
+    }
+
+    @Benchmark
+    public Transaction registerTransaction() {
+        return transactionService.registerTransaction(request).block();
+    }
+
+    /**
+     * Implementación en memoria de una interfaz: el método indicado responde con answer y los demás fallan.
+     */
+    @SuppressWarnings("unchecked")
+    private static <T> T stub(Class<T> type, String method, Function<Object[], Object> answer) {
+        return (T) Proxy.newProxyInstance(type.getClassLoader(), new Class<?>[]{type}, (proxy, invoked, args) -> {
+            if (invoked.getName().equals(method)) {
+                return answer.apply(args);
+            }
+            throw new UnsupportedOperationException(invoked.getName());
+        });
+    }
+}
@@ -0,0 +1,66 @@
+package com.nttdata.bankapp.transaction.client;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.web.reactive.function.client.ClientResponse;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Mono;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compara la verificación de existencia anterior (cuerpo completo a Object.class) con ExistenceProbe.
+ * El servicio remoto se simula en memoria con la respuesta JSON típica de un cliente, así la medida
+ * recoge solo el coste del lado del cliente. Con -prof gc se obtiene gc.alloc.rate.norm (bytes por check).
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ExistenceCheckBenchmark {
+
+    private static final String BODY = "{\"id\":\"64b7f0c2a1e4b35d2c9f0a11\",\"firstName\":\"Ana\",\"lastName\":\"Pérez\","
+            + "\"documentType\":\"DNI\",\"documentNumber\":\"45879632\",\"email\":\"ana.perez@example.com\","
+            + "\"phone\":\"+51987654321\",\"address\":\"Av. Arequipa 1234, Lima\",\"customerType\":\"PERSONAL\","
+            + "\"profile\":\"VIP\",\"createdAt\":\"2024-03-01T10:15:30\",\"updatedAt\":\"2024-05-20T08:00:00\"}";
+
+    private WebClient webClient;
+
+    @Setup
+    public void setUp() {
+        webClient = WebClient.builder()
+                .exchangeFunction(request -> Mono.just(ClientResponse.create(HttpStatus.OK)
+                        .header(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_JSON_VALUE)
+                        .body(BODY)
+                        .build()))
+                .build();
+    }
+
+    @Benchmark
+    public Boolean deserializeBody() {
+        return webClient.get()
+                .uri("/customers/{id}", "c1")
+                .retrieve()
+                .bodyToMono(Object.class)
+                .map(response -> true)
+                .block();
+    }
+
+    @Benchmark
+    public Boolean statusOnly() {
+        return ExistenceProbe.exists(webClient, "/customers/{id}", "c1").block();
+    }
+}
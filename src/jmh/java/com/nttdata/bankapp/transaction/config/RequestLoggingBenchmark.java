@@ -0,0 +1,146 @@
+package com.nttdata.bankapp.transaction.config;
+
+import ch.qos.logback.classic.AsyncAppender;
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.LoggerContext;
+import ch.qos.logback.classic.encoder.PatternLayoutEncoder;
+import ch.qos.logback.classic.spi.ILoggingEvent;
+import ch.qos.logback.core.Appender;
+import ch.qos.logback.core.OutputStreamAppender;
+import ch.qos.logback.core.encoder.Encoder;
+import com.nttdata.bankapp.transaction.dto.DepositRequest;
+import net.logstash.logback.encoder.LogstashEncoder;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.OutputStream;
+import java.math.BigDecimal;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Coste del log de un depósito en el hilo que atiende la solicitud, con la configuración anterior y la actual.
+ * legacy: paquete en DEBUG, CONSOLE y FILE síncronos con patrón de texto y los cinco log.info del depósito,
+ * dos de ellos con el request completo (toString de Lombok).
+ * current: paquete en INFO, AsyncAppender con cola acotada y neverBlock delante de un LogstashEncoder,
+ * las mismas llamadas en DEBUG y el log de acceso muestreado al 1%.
+ * Los appenders escriben a un OutputStream nulo: se mide formateo y asignación, no el disco, que en el
+ * modo síncrono se sumaría además a la latencia. Con -prof gc, gc.alloc.rate.norm da bytes por solicitud.
+ * mvn -P benchmark test-compile exec:exec -Djmh.args="RequestLogging -prof gc"
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class RequestLoggingBenchmark {
+
+    private static final String PACKAGE = "com.nttdata.bankapp.transaction";
+    private static final String TEXT_PATTERN = "%d{yyyy-MM-dd HH:mm:ss} [%thread] %-5level %logger{36} - %msg%n";
+    private static final double SAMPLE_RATE = 0.01;
+
+    private final DepositRequest request = DepositRequest.builder()
+            .accountId("64b7f0c2a1e4b35d2c9f0a12")
+            .customerId("64b7f0c2a1e4b35d2c9f0a11")
+            .amount(new BigDecimal("150.00"))
+            .description("Depósito en ventanilla")
+            .build();
+
+    private LoggerContext legacyContext;
+    private LoggerContext currentContext;
+    private Logger legacy;
+    private Logger current;
+
+    @Setup
+    public void setUp() {
+        legacyContext = new LoggerContext();
+        legacyContext.getLogger(PACKAGE).setLevel(Level.DEBUG);
+        Logger legacyRoot = legacyContext.getLogger(Logger.ROOT_LOGGER_NAME);
+        legacyRoot.setLevel(Level.INFO);
+        legacyRoot.addAppender(nullAppender(legacyContext, textEncoder(legacyContext)));
+        legacyRoot.addAppender(nullAppender(legacyContext, textEncoder(legacyContext)));
+        legacy = legacyContext.getLogger(PACKAGE + ".service.impl.TransactionServiceImpl");
+
+        currentContext = new LoggerContext();
+        currentContext.getLogger(PACKAGE).setLevel(Level.INFO);
+        Logger currentRoot = currentContext.getLogger(Logger.ROOT_LOGGER_NAME);
+        currentRoot.setLevel(Level.INFO);
+        currentRoot.addAppender(async(currentContext, nullAppender(currentContext, jsonEncoder(currentContext))));
+        current = currentContext.getLogger(PACKAGE + ".service.impl.TransactionServiceImpl");
+    }
+
+    @TearDown
+    public void tearDown() {
+        legacyContext.stop();
+        currentContext.stop();
+    }
+
+    @Benchmark
+    public void legacy() {
+        legacy.info("POST /transactions/deposit with request: {}", request);
+        legacy.info("Processing deposit request: {}", request);
+        legacy.info("Checking if customer exists with id: {}", request.getCustomerId());
+        legacy.info("Checking if account exists with id: {}", request.getAccountId());
+        legacy.info("Updating balance for account id: {} with amount: {}", request.getAccountId(), request.getAmount());
+    }
+
+    @Benchmark
+    public void current() {
+        boolean sampled = ThreadLocalRandom.current().nextDouble() < SAMPLE_RATE;
+        current.debug("POST /transactions/deposit");
+        current.debug("Processing deposit to account {}", request.getAccountId());
+        current.debug("Checking if customer exists with id: {}", request.getCustomerId());
+        current.debug("Checking if account exists with id: {}", request.getAccountId());
+        current.debug("Updating balance for account id: {} with amount: {}", request.getAccountId(), request.getAmount());
+        if (sampled) {
+            current.info("{} {} -> {} in {} ms", "POST", "/transactions/deposit", 201, 12L);
+        }
+    }
+
+    private static Encoder<ILoggingEvent> textEncoder(LoggerContext context) {
+        PatternLayoutEncoder encoder = new PatternLayoutEncoder();
+        encoder.setContext(context);
+        encoder.setPattern(TEXT_PATTERN);
+        encoder.start();
+        return encoder;
+    }
+
+    private static Encoder<ILoggingEvent> jsonEncoder(LoggerContext context) {
+        LogstashEncoder encoder = new LogstashEncoder();
+        encoder.setContext(context);
+        encoder.setCustomFields("{\"service\":\"ms-transaction\"}");
+        encoder.start();
+        return encoder;
+    }
+
+    private static Appender<ILoggingEvent> nullAppender(LoggerContext context, Encoder<ILoggingEvent> encoder) {
+        OutputStreamAppender<ILoggingEvent> appender = new OutputStreamAppender<>();
+        appender.setContext(context);
+        appender.setEncoder(encoder);
+        appender.setOutputStream(OutputStream.nullOutputStream());
+        appender.start();
+        return appender;
+    }
+
+    private static Appender<ILoggingEvent> async(LoggerContext context, Appender<ILoggingEvent> delegate) {
+        AsyncAppender appender = new AsyncAppender();
+        appender.setContext(context);
+        appender.setQueueSize(1024);
+        appender.setNeverBlock(true);
+        appender.setIncludeCallerData(false);
+        appender.addAppender(delegate);
+        appender.start();
+        return appender;
+    }
+}
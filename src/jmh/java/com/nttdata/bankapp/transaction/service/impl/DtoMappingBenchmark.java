@@ -0,0 +1,103 @@
+package com.nttdata.bankapp.transaction.service.impl;
+
+import com.nttdata.bankapp.transaction.model.Transaction;
+import com.nttdata.bankapp.transaction.model.TransactionStatus;
+import com.nttdata.bankapp.transaction.model.TransactionType;
+import com.nttdata.bankapp.transaction.repository.TransactionDtoReadConverter;
+import org.bson.Document;
+import org.bson.types.ObjectId;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.springframework.data.mongodb.core.convert.MappingMongoConverter;
+import org.springframework.data.mongodb.core.convert.MongoCustomConversions;
+import org.springframework.data.mongodb.core.convert.NoOpDbRefResolver;
+import org.springframework.data.mongodb.core.mapping.MongoMappingContext;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.Collections;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compara la lectura de transacciones de los listados: documento -> Transaction (MappingMongoConverter) ->
+ * builder -> TransactionDto (mapToDto) frente a la lectura directa documento -> TransactionDto con
+ * TransactionDtoReadConverter, como hace ahora el repositorio.
+ * Cada invocación lee ROWS filas recorriendo un conjunto de documentos ya decodificados del driver, así la
+ * medida recoge solo el mapeo. Los resultados son por fila; con -prof gc, gc.alloc.rate.norm da bytes por fila.
+ * mvn -P benchmark test-compile exec:exec -Djmh.args="DtoMapping -prof gc"
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+public class DtoMappingBenchmark {
+
+    private static final int ROWS = 1_000_000;
+    private static final int DISTINCT = 4096;
+
+    private final TransactionDtoReadConverter reader = new TransactionDtoReadConverter();
+    private MappingMongoConverter converter;
+    private Document[] documents;
+
+    @Setup
+    public void setUp() {
+        MongoCustomConversions conversions = new MongoCustomConversions(Collections.emptyList());
+        MongoMappingContext mappingContext = new MongoMappingContext();
+        mappingContext.setSimpleTypeHolder(conversions.getSimpleTypeHolder());
+        mappingContext.afterPropertiesSet();
+        converter = new MappingMongoConverter(NoOpDbRefResolver.INSTANCE, mappingContext);
+        converter.setCustomConversions(conversions);
+        converter.afterPropertiesSet();
+
+        TransactionType[] types = TransactionType.values();
+        LocalDateTime start = LocalDateTime.of(2024, 1, 1, 0, 0);
+        documents = new Document[DISTINCT];
+        for (int i = 0; i < DISTINCT; i++) {
+            Transaction transaction = Transaction.builder()
+                    .id(new ObjectId().toHexString())
+                    .accountId("acc-" + (i % 97))
+                    .customerId("cus-" + (i % 31))
+                    .type(types[i % types.length])
+                    .amount(BigDecimal.valueOf(1000 + i, 2))
+                    .description("Movimiento " + i)
+                    .transactionDate(start.plusMinutes(i))
+                    .referenceNumber("TX-" + Integer.toHexString(0x10000000 + i).toUpperCase())
+                    .status(TransactionStatus.COMPLETED)
+                    .build();
+            Document document = new Document();
+            converter.write(transaction, document);
+            // Las lecturas de listado solo traen los campos de TransactionDto
+            document.remove("_class");
+            documents[i] = document;
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(ROWS)
+    public void entityThenMapToDto(Blackhole blackhole) {
+        for (int i = 0; i < ROWS; i++) {
+            Transaction transaction = converter.read(Transaction.class, documents[i & (DISTINCT - 1)]);
+            blackhole.consume(TransactionServiceImpl.mapToDto(transaction));
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(ROWS)
+    public void directToDto(Blackhole blackhole) {
+        for (int i = 0; i < ROWS; i++) {
+            blackhole.consume(reader.convert(documents[i & (DISTINCT - 1)]));
+        }
+    }
+}
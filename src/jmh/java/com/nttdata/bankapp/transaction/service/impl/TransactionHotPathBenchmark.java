@@ -0,0 +1,156 @@
+package com.nttdata.bankapp.transaction.service.impl;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.LoggerContext;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.nttdata.bankapp.transaction.client.AccountService;
+import com.nttdata.bankapp.transaction.client.CustomerService;
+import com.nttdata.bankapp.transaction.client.ExistenceCacheFactory;
+import com.nttdata.bankapp.transaction.client.MicroBatcherFactory;
+import com.nttdata.bankapp.transaction.config.ExistenceCacheProperties;
+import com.nttdata.bankapp.transaction.config.MicroBatchProperties;
+import com.nttdata.bankapp.transaction.dto.DepositRequest;
+import com.nttdata.bankapp.transaction.dto.TransactionDto;
+import com.nttdata.bankapp.transaction.model.Transaction;
+import com.nttdata.bankapp.transaction.model.TransactionStatus;
+import com.nttdata.bankapp.transaction.model.TransactionType;
+import com.nttdata.bankapp.transaction.repository.TransactionRepository;
+import com.nttdata.bankapp.transaction.service.BalanceProjectionService;
+import com.nttdata.bankapp.transaction.service.KeyedSequencer;
+import com.nttdata.bankapp.transaction.service.TransactionRejections;
+import com.nttdata.bankapp.transaction.service.TransactionRollupService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Mono;
+
+import java.lang.reflect.Proxy;
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+
+/**
+ * Rutas calientes de la creación y lectura de transacciones: mapToDto, el número de referencia,
+ * la serialización JSON de TransactionDto (ObjectMapper con la configuración de Spring Boot) y la cadena
+ * reactiva completa de deposit contra clientes y repositorio en memoria, sin red ni Mongo.
+ * Throughput da ops/us y SampleTime los percentiles (p99 incluido); -prof gc añade bytes por operación.
+ * mvn -P benchmark test-compile exec:exec -Djmh.args="TransactionHotPath -prof gc"
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class TransactionHotPathBenchmark {
+
+    private Transaction transaction;
+    private TransactionDto dto;
+    private ObjectMapper objectMapper;
+    private TransactionServiceImpl transactionService;
+    private DepositRequest depositRequest;
+
+    @Setup
+    public void setUp() {
+        // El logback.xml de la aplicación escribe en consola y fichero; aquí solo se mide la lógica
+        ((LoggerContext) LoggerFactory.getILoggerFactory()).getLoggerList().forEach(logger -> logger.setLevel(Level.WARN));
+
+        transaction = Transaction.builder()
+                .id("64b7f0c2a1e4b35d2c9f0a11")
+                .accountId("acc-1")
+                .customerId("cus-1")
+                .type(TransactionType.DEPOSIT)
+                .amount(new BigDecimal("1250.75"))
+                .description("Depósito en ventanilla")
+                .transactionDate(LocalDateTime.of(2024, 5, 1, 10, 15, 30))
+                .referenceNumber("TX-1A2B3C4D5E")
+                .status(TransactionStatus.COMPLETED)
+                .build();
+        dto = TransactionServiceImpl.mapToDto(transaction);
+        objectMapper = Jackson2ObjectMapperBuilder.json().build();
+
+        ExistenceCacheFactory existenceCacheFactory =
+                new ExistenceCacheFactory(new ExistenceCacheProperties(), new SimpleMeterRegistry());
+        MicroBatcherFactory microBatcherFactory = new MicroBatcherFactory(new MicroBatchProperties());
+        AccountService accountService = new AccountService("http://accounts", WebClient.builder(),
+                existenceCacheFactory, microBatcherFactory, null) {
+            @Override
+            public Mono<Boolean> accountExists(String accountId) {
+                return Mono.just(true);
+            }
+
+            @Override
+            public Mono<AccountDto> updateBalance(String accountId, BigDecimal amount, String idempotencyKey) {
+                return Mono.just(new AccountDto());
+            }
+        };
+        CustomerService customerService = new CustomerService("http://customers", WebClient.builder(),
+                existenceCacheFactory, microBatcherFactory, null) {
+            @Override
+            public Mono<Boolean> customerExists(String customerId) {
+                return Mono.just(true);
+            }
+        };
+        TransactionRepository repository = stub(TransactionRepository.class, "save", args -> Mono.just(args[0]));
+        transactionService = new TransactionServiceImpl(repository, accountService, null, null, customerService,
+                new KeyedSequencer(),
+                stub(BalanceProjectionService.class, "record", args -> Mono.empty()),
+                stub(TransactionRollupService.class, "record", args -> Mono.empty()),
+                new TransactionRejections(new SimpleMeterRegistry()));
+        depositRequest = DepositRequest.builder()
+                .accountId("acc-1")
+                .customerId("cus-1")
+                .amount(new BigDecimal("100.00"))
+                .description("Depósito")
+                .build();
+    }
+
+    @Benchmark
+    public TransactionDto mapToDto() {
+        return TransactionServiceImpl.mapToDto(transaction);
+    }
+
+    @Benchmark
+    public String referenceNumber() {
+        return TransactionServiceImpl.generateReferenceNumber();
+    }
+
+    @Benchmark
+    public byte[] serializeDto() throws Exception {
+        return objectMapper.writeValueAsBytes(dto);
+    }
+
+    @Benchmark
+    public TransactionDto deposit() {
+        return transactionService.deposit(depositRequest).block();
+    }
+
+    /**
+     * Implementación en memoria de una interfaz: el método indicado responde con answer y los demás
+     * métodos reactivos completan vacíos.
+     */
+    @SuppressWarnings("unchecked")
+    private static <T> T stub(Class<T> type, String method, Function<Object[], Object> answer) {
+        return (T) Proxy.newProxyInstance(type.getClassLoader(), new Class<?>[]{type}, (proxy, invoked, args) -> {
+            if (invoked.getName().equals(method)) {
+                return answer.apply(args);
+            }
+            if (invoked.getReturnType() == Mono.class) {
+                return Mono.empty();
+            }
+            throw new UnsupportedOperationException(invoked.getName());
+        });
+    }
+}
@@ -0,0 +1,114 @@
+package com.nttdata.bankapp.transaction.loadtest;
+
+import com.github.tomakehurst.wiremock.WireMockServer;
+import com.github.tomakehurst.wiremock.client.ResponseDefinitionBuilder;
+import com.github.tomakehurst.wiremock.common.FileSource;
+import com.github.tomakehurst.wiremock.extension.Parameters;
+import com.github.tomakehurst.wiremock.extension.ResponseTransformer;
+import com.github.tomakehurst.wiremock.http.Request;
+import com.github.tomakehurst.wiremock.http.Response;
+
+import java.time.Duration;
+import java.util.concurrent.ThreadLocalRandom;
+
+import static com.github.tomakehurst.wiremock.client.WireMock.aResponse;
+import static com.github.tomakehurst.wiremock.client.WireMock.any;
+import static com.github.tomakehurst.wiremock.client.WireMock.get;
+import static com.github.tomakehurst.wiremock.client.WireMock.urlPathMatching;
+import static com.github.tomakehurst.wiremock.core.WireMockConfiguration.options;
+
+/**
+ * Stubs WireMock de ms-customer, ms-account, ms-credit y ms-credit-card en un único servidor.
+ * Cualquier ID existe y tiene saldo de sobra, de modo que toda escritura válida llega a Mongo;
+ * la latencia (log-normal con la mediana indicada) y la tasa de errores 503 son configurables.
+ */
+public class DownstreamStubs implements AutoCloseable {
+
+    /** Cuerpo común a todos los servicios: cubre los campos de cada DTO de cliente y los demás se ignoran */
+    private static final String ENTITY_BODY = "{\"id\":\"stub\",\"customerId\":\"stub\","
+            + "\"balance\":1000000000,\"availableBalance\":1000000000,\"creditLimit\":1000000000,"
+            + "\"usedBalance\":0,\"amount\":1000000000,\"totalAmount\":1000000000,"
+            + "\"remainingAmount\":1000000000,\"paidAmount\":0,\"remainingMonthlyMovements\":1000000}";
+
+    private final WireMockServer server;
+
+    private DownstreamStubs(WireMockServer server) {
+        this.server = server;
+    }
+
+    /**
+     * Arranca los stubs en un puerto libre.
+     * @param latency Mediana de la latencia; cero para responder sin espera
+     * @param errorRate Proporción de respuestas 503
+     * @return DownstreamStubs
+     */
+    public static DownstreamStubs start(Duration latency, double errorRate) {
+        WireMockServer server = new WireMockServer(options()
+                .dynamicPort()
+                .containerThreads(64)
+                // Las esperas simuladas no ocupan hilos de Jetty
+                .asynchronousResponseEnabled(true)
+                .asynchronousResponseThreads(16)
+                .disableRequestJournal()
+                .extensions(new RandomFailure(errorRate)));
+        server.start();
+
+        for (String path : new String[]{"/customers/.*", "/accounts/.*", "/credits/.*", "/credit-cards/.*"}) {
+            server.stubFor(any(urlPathMatching(path)).atPriority(10)
+                    .willReturn(delayed(json(ENTITY_BODY), latency)));
+        }
+        server.stubFor(get(urlPathMatching("/accounts/[^/]+/validate-transfer")).atPriority(1)
+                .willReturn(delayed(json("true"), latency)));
+        server.stubFor(get(urlPathMatching("/accounts/[^/]+/transaction-fee")).atPriority(1)
+                .willReturn(delayed(json("0"), latency)));
+        return new DownstreamStubs(server);
+    }
+
+    /**
+     * @return URL base de los stubs, común a los cuatro servicios
+     */
+    public String baseUrl() {
+        return server.baseUrl();
+    }
+
+    @Override
+    public void close() {
+        server.stop();
+    }
+
+    private static ResponseDefinitionBuilder json(String body) {
+        return aResponse().withStatus(200).withHeader("Content-Type", "application/json").withBody(body);
+    }
+
+    private static ResponseDefinitionBuilder delayed(ResponseDefinitionBuilder response, Duration latency) {
+        return latency.isZero() ? response : response.withLogNormalRandomDelay(latency.toMillis(), 0.4);
+    }
+
+    /**
+     * Sustituye una fracción de las respuestas por 503, conservando su latencia.
+     */
+    private static class RandomFailure extends ResponseTransformer {
+
+        private final double errorRate;
+
+        RandomFailure(double errorRate) {
+            this.errorRate = errorRate;
+        }
+
+        @Override
+        public Response transform(Request request, Response response, FileSource files, Parameters parameters) {
+            if (errorRate <= 0 || ThreadLocalRandom.current().nextDouble() >= errorRate) {
+                return response;
+            }
+            return Response.Builder.like(response).but()
+                    .status(503)
+                    .body("{\"error\":\"stub failure\"}")
+                    .build();
+        }
+
+        @Override
+        public String getName() {
+            return "random-failure";
+        }
+    }
+}
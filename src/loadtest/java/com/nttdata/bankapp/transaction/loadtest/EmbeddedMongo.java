@@ -0,0 +1,59 @@
+package com.nttdata.bankapp.transaction.loadtest;
+
+import de.flapdoodle.embed.mongo.MongodExecutable;
+import de.flapdoodle.embed.mongo.MongodProcess;
+import de.flapdoodle.embed.mongo.MongodStarter;
+import de.flapdoodle.embed.mongo.config.MongodConfig;
+import de.flapdoodle.embed.mongo.config.Net;
+import de.flapdoodle.embed.mongo.distribution.Version;
+import de.flapdoodle.embed.process.runtime.Network;
+
+import java.io.IOException;
+
+/**
+ * Mongo para la prueba de carga: el indicado en loadtest.mongo-uri o, si no hay ninguno, un mongod
+ * embebido en un puerto libre (la primera vez se descarga la distribución).
+ */
+public class EmbeddedMongo implements AutoCloseable {
+
+    private static final String DATABASE = "bankapp-loadtest";
+
+    private final String uri;
+    private final MongodExecutable executable;
+    private final MongodProcess process;
+
+    private EmbeddedMongo(String uri, MongodExecutable executable, MongodProcess process) {
+        this.uri = uri;
+        this.executable = executable;
+        this.process = process;
+    }
+
+    /**
+     * @param externalUri URI de un Mongo existente; vacío para arrancar uno embebido
+     * @return EmbeddedMongo
+     */
+    public static EmbeddedMongo start(String externalUri) throws IOException {
+        if (!externalUri.isEmpty()) {
+            return new EmbeddedMongo(externalUri, null, null);
+        }
+        int port = Network.getFreeServerPort();
+        MongodExecutable executable = MongodStarter.getDefaultInstance().prepare(MongodConfig.builder()
+                .version(Version.Main.V4_4)
+                .net(new Net(port, Network.localhostIsIPv6()))
+                .build());
+        MongodProcess process = executable.start();
+        return new EmbeddedMongo("mongodb://localhost:" + port + "/" + DATABASE, executable, process);
+    }
+
+    public String uri() {
+        return uri;
+    }
+
+    @Override
+    public void close() {
+        if (process != null) {
+            process.stop();
+            executable.stop();
+        }
+    }
+}
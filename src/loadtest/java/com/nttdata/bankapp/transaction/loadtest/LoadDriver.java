@@ -0,0 +1,156 @@
+package com.nttdata.bankapp.transaction.loadtest;
+
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import org.HdrHistogram.ConcurrentHistogram;
+import org.HdrHistogram.Histogram;
+import org.springframework.http.client.reactive.ReactorClientHttpConnector;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.netty.http.client.HttpClient;
+import reactor.netty.resources.ConnectionProvider;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Generador de carga de bucle abierto: lanza las solicitudes a tasa fija, sin esperar a que terminen las
+ * anteriores. La latencia se mide desde el instante en que la solicitud debía salir según el calendario,
+ * no desde que salió, para no ocultar las esperas cuando el servicio se satura (omisión coordinada).
+ */
+public class LoadDriver implements AutoCloseable {
+
+    private static final Duration TICK = Duration.ofMillis(1);
+    private static final Duration REQUEST_TIMEOUT = Duration.ofSeconds(30);
+
+    private final WebClient client;
+    private final ConnectionProvider connections;
+    private final LoadTestSettings settings;
+
+    public LoadDriver(String baseUrl, LoadTestSettings settings) {
+        this.settings = settings;
+        this.connections = ConnectionProvider.builder("load-driver")
+                .maxConnections(settings.getMaxInFlight())
+                .pendingAcquireMaxCount(-1)
+                .build();
+        this.client = WebClient.builder()
+                .baseUrl(baseUrl)
+                .clientConnector(new ReactorClientHttpConnector(HttpClient.create(connections)))
+                .build();
+    }
+
+    public WebClient client() {
+        return client;
+    }
+
+    /**
+     * Ejecuta un escenario a la tasa configurada durante el tiempo indicado.
+     * @param scenario Escenario
+     * @param duration Duración
+     * @return Resultado con el histograma de latencias
+     */
+    public Result run(LoadScenario scenario, Duration duration) {
+        int rps = settings.getRps();
+        long total = Math.max(1, duration.toMillis() * rps / 1000);
+        double periodNanos = 1_000_000_000d / rps;
+        Result result = new Result(scenario.getName(), new ConcurrentHistogram(3));
+
+        long start = System.nanoTime();
+        long[] scheduled = {0};
+        Flux.interval(TICK)
+                // Un tick perdido no retrasa el calendario: el siguiente emite todas las solicitudes vencidas
+                .onBackpressureDrop()
+                .concatMapIterable(tick -> {
+                    long due = Math.min(total, (long) ((System.nanoTime() - start) / periodNanos) + 1);
+                    List<Long> intended = new ArrayList<>();
+                    for (; scheduled[0] < due; scheduled[0]++) {
+                        intended.add(start + (long) (scheduled[0] * periodNanos));
+                    }
+                    return intended;
+                })
+                .take(total)
+                .flatMap(intended -> call(scenario, intended, result), settings.getMaxInFlight())
+                .blockLast(duration.plus(REQUEST_TIMEOUT).multipliedBy(2));
+        result.elapsedNanos = System.nanoTime() - start;
+        return result;
+    }
+
+    private Mono<Void> call(LoadScenario scenario, long intendedNanos, Result result) {
+        return Mono.defer(() -> scenario.getRequest().apply(client)
+                        // El cuerpo se consume entero (exportaciones incluidas) y se descarta
+                        .exchangeToMono(response -> response.releaseBody().thenReturn(response.rawStatusCode())))
+                .timeout(REQUEST_TIMEOUT)
+                .doOnNext(status -> (status >= 200 && status < 300 ? result.ok : result.failed).increment())
+                .doOnError(e -> result.errors.increment())
+                .onErrorResume(e -> Mono.empty())
+                // Antes de propagar la señal final: así blockLast no vuelve con registros pendientes
+                .doOnTerminate(() -> result.histogram.recordValue((System.nanoTime() - intendedNanos) / 1000))
+                .then();
+    }
+
+    @Override
+    public void close() {
+        connections.dispose();
+    }
+
+    /**
+     * Resultado de un escenario; latencias en microsegundos.
+     */
+    @Getter
+    @RequiredArgsConstructor
+    public static class Result {
+
+        private final String scenario;
+        private final Histogram histogram;
+        private final LongAdder ok = new LongAdder();
+        private final LongAdder failed = new LongAdder();
+        private final LongAdder errors = new LongAdder();
+        private long elapsedNanos;
+
+        public long requests() {
+            return histogram.getTotalCount();
+        }
+
+        public double throughput() {
+            return requests() * 1_000_000_000d / Math.max(elapsedNanos, 1);
+        }
+
+        /**
+         * Línea de resumen: solicitudes, respuestas 2xx, otras respuestas, errores de red o timeout,
+         * solicitudes por segundo alcanzadas y percentiles en milisegundos.
+         */
+        public String summary() {
+            return String.format("%-26s %8d %8d %8d %8d %9.1f %9.2f %9.2f %9.2f %9.2f %9.2f",
+                    scenario, requests(), ok.sum(), failed.sum(), errors.sum(), throughput(),
+                    millis(50), millis(90), millis(99), millis(99.9), histogram.getMaxValue() / 1000d);
+        }
+
+        public static String header() {
+            return String.format("%-26s %8s %8s %8s %8s %9s %9s %9s %9s %9s %9s",
+                    "scenario", "requests", "2xx", "non-2xx", "errors", "req/s",
+                    "p50 ms", "p90 ms", "p99 ms", "p99.9 ms", "max ms");
+        }
+
+        /**
+         * Guarda la distribución completa en formato .hgrm (valores en milisegundos).
+         * @param directory Carpeta de salida
+         */
+        public void write(Path directory) throws IOException {
+            Files.createDirectories(directory);
+            try (PrintStream out = new PrintStream(Files.newOutputStream(directory.resolve(scenario + ".hgrm")))) {
+                histogram.outputPercentileDistribution(out, 1000.0);
+            }
+        }
+
+        private double millis(double percentile) {
+            return histogram.getValueAtPercentile(percentile) / 1000d;
+        }
+    }
+}
@@ -0,0 +1,18 @@
+package com.nttdata.bankapp.transaction.loadtest;
+
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import org.springframework.web.reactive.function.client.WebClient;
+
+import java.util.function.Function;
+
+/**
+ * Un endpoint bajo carga: cada invocación de request construye una solicitud nueva (IDs y cuerpo aleatorios).
+ */
+@Getter
+@RequiredArgsConstructor
+public class LoadScenario {
+
+    private final String name;
+    private final Function<WebClient, WebClient.RequestHeadersSpec<?>> request;
+}
@@ -0,0 +1,176 @@
+package com.nttdata.bankapp.transaction.loadtest;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import org.springframework.http.MediaType;
+import org.springframework.web.reactive.function.client.WebClient;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+/**
+ * Escenarios de carga para cada endpoint de TransactionController: primero las escrituras, que dejan datos
+ * para las lecturas, y después las lecturas. Los IDs salen de conjuntos pequeños para que las lecturas
+ * por cuenta, cliente o tarjeta devuelvan páginas con contenido.
+ */
+public class LoadScenarios {
+
+    private static final int BULK_LINES = 50;
+    private static final String PAGE_SIZE = "20";
+
+    private final int poolSize;
+    private final List<String> transactionIds = new CopyOnWriteArrayList<>();
+
+    public LoadScenarios(int poolSize) {
+        this.poolSize = poolSize;
+    }
+
+    /**
+     * @return Escenarios en orden de ejecución
+     */
+    public List<LoadScenario> all() {
+        List<LoadScenario> scenarios = new ArrayList<>();
+        scenarios.add(post("deposit", () -> body(
+                "accountId", pick("acc"), "amount", amount(), "description", "load test", "customerId", pick("cus"))));
+        scenarios.add(post("withdrawal", () -> body(
+                "accountId", pick("acc"), "amount", amount(), "description", "load test", "customerId", pick("cus"))));
+        scenarios.add(post("payment", () -> body(
+                "creditId", pick("cre"), "amount", amount(), "description", "load test", "customerId", pick("cus"))));
+        scenarios.add(post("consumption", () -> body(
+                "creditCardId", pick("card"), "amount", amount(), "description", "load test",
+                "customerId", pick("cus"))));
+        scenarios.add(post("transfer", () -> {
+            int source = ThreadLocalRandom.current().nextInt(poolSize);
+            int destination = (source + 1 + ThreadLocalRandom.current().nextInt(Math.max(poolSize - 1, 1))) % poolSize;
+            return body("sourceAccountId", "lt-acc-" + source, "destinationAccountId", "lt-acc-" + destination,
+                    "amount", amount(), "description", "load test", "customerId", pick("cus"));
+        }));
+        scenarios.add(new LoadScenario("bulk", client -> client.post()
+                .uri("/transactions/bulk")
+                .contentType(MediaType.APPLICATION_NDJSON)
+                .accept(MediaType.APPLICATION_NDJSON)
+                .bodyValue(bulkBody())));
+
+        scenarios.add(get("find-all", "/transactions?size=" + PAGE_SIZE));
+        scenarios.add(new LoadScenario("find-by-id", client -> client.get()
+                .uri("/transactions/{id}", transactionId())));
+        scenarios.add(get("account", "/transactions/account/{id}?size=" + PAGE_SIZE, "acc"));
+        scenarios.add(get("account-lines", "/transactions/account/{id}/lines?size=" + PAGE_SIZE, "acc"));
+        scenarios.add(get("account-balance", "/transactions/account/{id}/balance", "acc"));
+        scenarios.add(get("account-date-range", "/transactions/account/{id}/date-range?startDate={start}&endDate={end}"
+                + "&size=" + PAGE_SIZE, "acc"));
+        scenarios.add(get("summary-account", "/transactions/summary/account/{id}?from={from}&to={to}", "acc"));
+        scenarios.add(get("summary-credit-card", "/transactions/summary/credit-card/{id}?from={from}&to={to}", "card"));
+        scenarios.add(get("summary-customer", "/transactions/summary/customer/{id}?from={from}&to={to}", "cus"));
+        scenarios.add(get("credit", "/transactions/credit/{id}?size=" + PAGE_SIZE, "cre"));
+        scenarios.add(get("credit-card", "/transactions/credit-card/{id}?size=" + PAGE_SIZE, "card"));
+        scenarios.add(get("credit-card-lines", "/transactions/credit-card/{id}/lines?size=" + PAGE_SIZE, "card"));
+        scenarios.add(get("customer", "/transactions/customer/{id}?size=" + PAGE_SIZE, "cus"));
+        scenarios.add(get("customer-lines", "/transactions/customer/{id}/lines?size=" + PAGE_SIZE, "cus"));
+        scenarios.add(get("date-range", "/transactions/date-range?startDate={start}&endDate={end}&size=" + PAGE_SIZE));
+        scenarios.add(stream("export-ndjson", MediaType.APPLICATION_NDJSON, "/transactions/export", null));
+        scenarios.add(stream("export-sse", MediaType.TEXT_EVENT_STREAM, "/transactions/export", null));
+        scenarios.add(stream("export-date-range-ndjson", MediaType.APPLICATION_NDJSON,
+                "/transactions/export/date-range?startDate={start}&endDate={end}", null));
+        scenarios.add(stream("export-date-range-sse", MediaType.TEXT_EVENT_STREAM,
+                "/transactions/export/date-range?startDate={start}&endDate={end}", null));
+        scenarios.add(stream("export-customer-ndjson", MediaType.APPLICATION_NDJSON,
+                "/transactions/export/customer/{id}", "cus"));
+        scenarios.add(stream("export-customer-sse", MediaType.TEXT_EVENT_STREAM,
+                "/transactions/export/customer/{id}", "cus"));
+        return scenarios;
+    }
+
+    /**
+     * Guarda IDs de transacciones existentes para el escenario find-by-id.
+     * @param client WebClient apuntando a la aplicación
+     */
+    public void collectTransactionIds(WebClient client) {
+        JsonNode page = client.get()
+                .uri("/transactions?size=100")
+                .retrieve()
+                .bodyToMono(JsonNode.class)
+                .block(Duration.ofSeconds(30));
+        if (page != null) {
+            page.path("content").forEach(transaction -> transactionIds.add(transaction.path("id").asText()));
+        }
+    }
+
+    private LoadScenario post(String name, Supplier<Map<String, Object>> body) {
+        return new LoadScenario(name, client -> client.post()
+                .uri("/transactions/" + name)
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue(body.get()));
+    }
+
+    private LoadScenario get(String name, String uri) {
+        return get(name, uri, null);
+    }
+
+    private LoadScenario get(String name, String uri, String pool) {
+        return stream(name, MediaType.APPLICATION_JSON, uri, pool);
+    }
+
+    private LoadScenario stream(String name, MediaType mediaType, String uri, String pool) {
+        return new LoadScenario(name, client -> client.get()
+                .uri(uri, variables(pool))
+                .accept(mediaType));
+    }
+
+    /**
+     * Variables de URI: ID del conjunto indicado, ventana de un día alrededor de ahora y último mes para resúmenes.
+     */
+    private Map<String, Object> variables(String pool) {
+        LocalDateTime now = LocalDateTime.now();
+        LocalDate today = now.toLocalDate();
+        Map<String, Object> variables = new LinkedHashMap<>();
+        variables.put("id", pool != null ? pick(pool) : "");
+        variables.put("start", now.minusDays(1).toString());
+        variables.put("end", now.plusDays(1).toString());
+        variables.put("from", today.minusMonths(1).toString());
+        variables.put("to", today.toString());
+        return variables;
+    }
+
+    private String bulkBody() {
+        return IntStream.range(0, BULK_LINES)
+                .mapToObj(i -> i % 2 == 0
+                        ? "{\"type\":\"DEPOSIT\",\"accountId\":\"" + pick("acc") + "\",\"customerId\":\""
+                        + pick("cus") + "\",\"amount\":" + amount() + ",\"description\":\"load test\"}"
+                        : "{\"type\":\"PAYMENT\",\"creditId\":\"" + pick("cre") + "\",\"customerId\":\""
+                        + pick("cus") + "\",\"amount\":" + amount() + ",\"description\":\"load test\"}")
+                .collect(Collectors.joining("\n", "", "\n"));
+    }
+
+    private String transactionId() {
+        return transactionIds.isEmpty()
+                ? "000000000000000000000000"
+                : transactionIds.get(ThreadLocalRandom.current().nextInt(transactionIds.size()));
+    }
+
+    private String pick(String pool) {
+        return "lt-" + pool + "-" + ThreadLocalRandom.current().nextInt(poolSize);
+    }
+
+    private static BigDecimal amount() {
+        return BigDecimal.valueOf(ThreadLocalRandom.current().nextInt(100, 100_000), 2);
+    }
+
+    private static Map<String, Object> body(Object... keyValues) {
+        Map<String, Object> body = new LinkedHashMap<>();
+        for (int i = 0; i < keyValues.length; i += 2) {
+            body.put((String) keyValues[i], keyValues[i + 1]);
+        }
+        return body;
+    }
+}
@@ -0,0 +1,110 @@
+package com.nttdata.bankapp.transaction.loadtest;
+
+import com.nttdata.bankapp.transaction.MsTransactionServiceApplication;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+/**
+ * Prueba de carga de extremo a extremo: arranca Mongo (embebido o externo), los stubs de los servicios
+ * remotos y la aplicación con el perfil docker en un puerto libre, y recorre los escenarios a tasa fija.
+ * Cada escenario tiene un calentamiento que no se mide; al final imprime la tabla de resultados y deja
+ * el histograma completo de cada escenario en la carpeta de salida.
+ */
+public class LoadTestRunner {
+
+    private static final String EMBEDDED_MONGO_AUTOCONFIGURATION =
+            "org.springframework.boot.autoconfigure.mongo.embedded.EmbeddedMongoAutoConfiguration";
+
+    public static void main(String[] args) throws Exception {
+        LoadTestSettings settings = LoadTestSettings.parse(args);
+        LoadScenarios data = new LoadScenarios(settings.getIdPoolSize());
+        List<LoadScenario> scenarios = data.all().stream()
+                .filter(scenario -> settings.getScenarios().matcher(scenario.getName()).matches())
+                .collect(Collectors.toList());
+        if (scenarios.isEmpty()) {
+            throw new IllegalArgumentException("No scenario matches " + settings.getScenarios());
+        }
+
+        try (EmbeddedMongo mongo = EmbeddedMongo.start(settings.getMongoUri());
+             DownstreamStubs stubs = DownstreamStubs.start(settings.getStubLatency(), settings.getStubErrorRate());
+             ConfigurableApplicationContext application = new SpringApplicationBuilder(
+                     MsTransactionServiceApplication.class)
+                     .profiles("docker")
+                     .run(applicationArgs(settings, mongo.uri(), stubs.baseUrl()))) {
+
+            String port = application.getEnvironment().getProperty("local.server.port");
+            System.out.printf("Load test: %d req/s, %s per scenario (warm-up %s), stubs %s median and %.1f%% errors%n",
+                    settings.getRps(), settings.getDuration(), settings.getWarmup(), settings.getStubLatency(),
+                    settings.getStubErrorRate() * 100);
+
+            List<LoadDriver.Result> results = new ArrayList<>();
+            try (LoadDriver driver = new LoadDriver("http://localhost:" + port, settings)) {
+                for (LoadScenario scenario : scenarios) {
+                    // Las lecturas por ID necesitan transacciones ya escritas
+                    if (scenario.getName().equals("find-by-id")) {
+                        data.collectTransactionIds(driver.client());
+                    }
+                    if (!settings.getWarmup().isZero()) {
+                        driver.run(scenario, settings.getWarmup());
+                    }
+                    LoadDriver.Result result = driver.run(scenario, settings.getDuration());
+                    result.write(settings.getOutputDir());
+                    results.add(result);
+                    System.out.println(LoadDriver.Result.header());
+                    System.out.println(result.summary());
+                }
+            }
+
+            System.out.println();
+            System.out.println(LoadDriver.Result.header());
+            results.forEach(result -> System.out.println(result.summary()));
+            System.out.println("Histograms: " + settings.getOutputDir().toAbsolutePath());
+        }
+        System.exit(0);
+    }
+
+    /**
+     * Redirige la aplicación a los stubs y al Mongo de la prueba y apaga lo que no está disponible fuera
+     * del entorno docker (config server, Eureka). Van como argumentos porque tienen más prioridad que los
+     * ficheros de configuración; los argumentos del usuario sustituyen a estos valores.
+     */
+    private static String[] applicationArgs(LoadTestSettings settings, String mongoUri, String stubsUrl) {
+        Map<String, String> properties = new LinkedHashMap<>();
+        properties.put("server.port", "0");
+        properties.put("spring.data.mongodb.uri", mongoUri);
+        properties.put("spring.autoconfigure.exclude", EMBEDDED_MONGO_AUTOCONFIGURATION);
+        properties.put("spring.cloud.config.enabled", "false");
+        properties.put("spring.cloud.config.import-check.enabled", "false");
+        properties.put("spring.cloud.discovery.enabled", "false");
+        properties.put("eureka.client.enabled", "false");
+        properties.put("app.customer-service-url", stubsUrl);
+        properties.put("app.account-service-url", stubsUrl);
+        properties.put("app.credit-service-url", stubsUrl);
+        properties.put("app.credit-card-service-url", stubsUrl);
+        properties.put("app.mongo.explain-on-startup", "false");
+        // Necesario para el escenario account-balance
+        properties.put("app.balance-projection.enabled", "true");
+        // El log por solicitud de los controladores distorsiona la medición
+        properties.put("logging.level.root", "WARN");
+        properties.put("logging.level.com.nttdata.bankapp.transaction", "WARN");
+        properties.put("logging.level.org.springframework.data.mongodb", "WARN");
+
+        List<String> args = new ArrayList<>();
+        for (String arg : settings.getApplicationArgs()) {
+            int separator = arg.indexOf('=');
+            if (separator > 2) {
+                properties.put(arg.substring(2, separator), arg.substring(separator + 1));
+            } else {
+                args.add(arg);
+            }
+        }
+        properties.forEach((key, value) -> args.add("--" + key + "=" + value));
+        return args.toArray(new String[0]);
+    }
+}
@@ -0,0 +1,86 @@
+package com.nttdata.bankapp.transaction.loadtest;
+
+import lombok.Getter;
+
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.regex.Pattern;
+
+/**
+ * Parámetros de la prueba de carga. Los argumentos loadtest.clave=valor (con o sin "--") configuran la prueba;
+ * el resto se reenvía tal cual a la aplicación como propiedades de Spring.
+ */
+@Getter
+public class LoadTestSettings {
+
+    private static final String PREFIX = "loadtest.";
+
+    /** Solicitudes por segundo de cada escenario (tasa fija, bucle abierto) */
+    private final int rps;
+    /** Duración de la medición de cada escenario */
+    private final Duration duration;
+    /** Calentamiento previo de cada escenario, fuera del histograma */
+    private final Duration warmup;
+    /** Solicitudes en curso como máximo; las que excedan esperan y su espera cuenta como latencia */
+    private final int maxInFlight;
+    /** Expresión regular sobre el nombre de los escenarios a ejecutar */
+    private final Pattern scenarios;
+    /** Mongo externo; vacío para arrancar uno embebido */
+    private final String mongoUri;
+    /** Mediana de la latencia de los stubs (distribución log-normal); cero para responder sin espera */
+    private final Duration stubLatency;
+    /** Proporción de respuestas 503 de los stubs, entre 0 y 1 */
+    private final double stubErrorRate;
+    /** Tamaño de los conjuntos de cuentas, clientes, créditos y tarjetas usados por los escenarios */
+    private final int idPoolSize;
+    /** Carpeta de los histogramas */
+    private final Path outputDir;
+    /** Argumentos para la aplicación */
+    private final List<String> applicationArgs;
+
+    private LoadTestSettings(Map<String, String> values, List<String> applicationArgs) {
+        this.rps = Integer.parseInt(values.getOrDefault("rps", "100"));
+        this.duration = Duration.parse(values.getOrDefault("duration", "PT20S"));
+        this.warmup = Duration.parse(values.getOrDefault("warmup", "PT5S"));
+        this.maxInFlight = Integer.parseInt(values.getOrDefault("max-in-flight", "512"));
+        this.scenarios = Pattern.compile(values.getOrDefault("scenarios", ".*"));
+        this.mongoUri = values.getOrDefault("mongo-uri", "");
+        this.stubLatency = Duration.parse(values.getOrDefault("stub.latency", "PT0.02S"));
+        this.stubErrorRate = Double.parseDouble(values.getOrDefault("stub.error-rate", "0"));
+        this.idPoolSize = Integer.parseInt(values.getOrDefault("id-pool-size", "50"));
+        this.outputDir = Paths.get(values.getOrDefault("output-dir", "target/loadtest"));
+        this.applicationArgs = applicationArgs;
+
+        if (rps < 1 || maxInFlight < 1 || idPoolSize < 1) {
+            throw new IllegalArgumentException("rps, max-in-flight and id-pool-size must be positive");
+        }
+        if (stubErrorRate < 0 || stubErrorRate > 1) {
+            throw new IllegalArgumentException("stub.error-rate must be between 0 and 1");
+        }
+    }
+
+    /**
+     * Separa los argumentos de la prueba de los de la aplicación.
+     * @param args Argumentos de línea de comandos
+     * @return LoadTestSettings
+     */
+    public static LoadTestSettings parse(String[] args) {
+        Map<String, String> values = new HashMap<>();
+        List<String> applicationArgs = new ArrayList<>();
+        for (String arg : args) {
+            String option = arg.startsWith("--") ? arg.substring(2) : arg;
+            int separator = option.indexOf('=');
+            if (option.startsWith(PREFIX) && separator > 0) {
+                values.put(option.substring(PREFIX.length(), separator), option.substring(separator + 1));
+            } else if (!option.isEmpty()) {
+                applicationArgs.add("--" + option);
+            }
+        }
+        return new LoadTestSettings(values, applicationArgs);
+    }
+}
@@ -0,0 +1,10 @@
+package com.example.mstransactionservice.config;
+
+import com.nttdata.bankapp.common.mongo.MongoIndexProvisioner;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Import;
+
+@Configuration
+@Import(MongoIndexProvisioner.class) // Índices en segundo plano y comprobación con explain al arrancar
+public class MongoIndexConfig {
+}
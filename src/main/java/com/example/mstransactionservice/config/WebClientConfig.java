@@ -1,15 +1,52 @@
 package com.example.mstransactionservice.config;
 
-import lombok.Value;
+import io.netty.channel.ChannelOption;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.http.client.reactive.ReactorClientHttpConnector;
 import org.springframework.web.reactive.function.client.WebClient;
+import reactor.netty.http.client.HttpClient;
+import reactor.netty.resources.ConnectionProvider;
 
+import java.time.Duration;
+
+/**
+ * Pool de conexiones propio del servicio: acotado, con expulsión de conexiones ociosas y timeouts
+ * de conexión y respuesta. Al exponer el ClientHttpConnector, Spring Boot lo aplica al
+ * WebClient.Builder autoconfigurado.
+ */
 @Configuration
 public class WebClientConfig {
 
+    @Bean(destroyMethod = "dispose")
+    public ConnectionProvider accountServiceConnectionProvider(
+            @Value("${transaction.http-client.max-connections:50}") int maxConnections,
+            @Value("${transaction.http-client.pending-acquire-timeout:2s}") Duration pendingAcquireTimeout,
+            @Value("${transaction.http-client.max-idle-time:30s}") Duration maxIdleTime) {
+        return ConnectionProvider.builder("account-service")
+                .maxConnections(maxConnections)
+                .pendingAcquireTimeout(pendingAcquireTimeout)
+                .maxIdleTime(maxIdleTime)
+                .evictInBackground(maxIdleTime)
+                // Publica reactor.netty.connection.provider.* (conexiones activas, ociosas y pendientes)
+                .metrics(true)
+                .build();
+    }
+
+    @Bean
+    public ReactorClientHttpConnector accountServiceClientHttpConnector(
+            ConnectionProvider accountServiceConnectionProvider,
+            @Value("${transaction.http-client.connect-timeout:2s}") Duration connectTimeout,
+            @Value("${transaction.http-client.response-timeout:5s}") Duration responseTimeout) {
+        HttpClient httpClient = HttpClient.create(accountServiceConnectionProvider)
+                .option(ChannelOption.CONNECT_TIMEOUT_MILLIS, (int) connectTimeout.toMillis())
+                .responseTimeout(responseTimeout);
+        return new ReactorClientHttpConnector(httpClient);
+    }
+
     @Bean
-    public WebClient accountServiceWebClient() {
-        return WebClient.create("http://ms-account-service-url");
+    public WebClient accountServiceWebClient(WebClient.Builder webClientBuilder) {
+        return webClientBuilder.baseUrl("http://ms-account-service-url").build();
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,29 @@
+package com.example.mstransactionservice.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+import java.time.YearMonth;
+
+/**
+ * Contador materializado de transacciones por cuenta y mes.
+ * Se incrementa con $inc en cada registro para decidir la comisión sin recorrer el histórico.
+ */
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@Document(collection = "monthly_transaction_counters")
+public class MonthlyTransactionCounter {
+    @Id
+    private String id; // accountId:yyyy-MM
+    private String accountId;
+    private String yearMonth;
+    private long count;
+
+    public static String idOf(String accountId, YearMonth yearMonth) {
+        return accountId + ":" + yearMonth;
+    }
+}
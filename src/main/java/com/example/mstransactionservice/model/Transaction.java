@@ -6,6 +6,8 @@ import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.CompoundIndex;
+import org.springframework.data.mongodb.core.index.CompoundIndexes;
 import org.springframework.data.mongodb.core.mapping.Document;
 
 import java.math.BigDecimal;
@@ -15,6 +17,12 @@ import java.time.LocalDateTime;
 @AllArgsConstructor
 @NoArgsConstructor
 @Document(collection = "transactions")
+@CompoundIndexes({
+        @CompoundIndex(name = "account_timestamp_idx", def = "{'accountId': 1, 'timestamp': -1}"),
+        @CompoundIndex(name = "account_related_timestamp_idx",
+                def = "{'accountId': 1, 'relatedEntityId': 1, 'timestamp': -1}"),
+        @CompoundIndex(name = "related_timestamp_idx", def = "{'relatedEntityId': 1, 'timestamp': -1}")
+})
 public class Transaction {
     @Id
     private String id;
@@ -0,0 +1,29 @@
+package com.example.mstransactionservice.repository;
+
+import reactor.core.publisher.Mono;
+
+import java.time.YearMonth;
+
+/**
+ * Operaciones atómicas sobre los contadores mensuales de transacciones.
+ */
+public interface MonthlyTransactionCounterOperations {
+
+    /**
+     * Incrementa el contador del mes y devuelve el valor previo al incremento.
+     * No crea el contador: si aún no existe el Mono se completa vacío y no se modifica nada.
+     */
+    Mono<Long> getAndIncrement(String accountId, YearMonth yearMonth);
+
+    /**
+     * Crea el contador con el histórico indicado y lo incrementa en un único findAndModify.
+     * Si otro registro concurrente ya lo creó, se conserva su valor y solo se incrementa.
+     * @return Valor previo al incremento
+     */
+    Mono<Long> seedAndIncrement(String accountId, YearMonth yearMonth, long history);
+
+    /**
+     * Suma una cantidad al contador del mes (negativa para liberar un movimiento que no llegó a guardarse).
+     */
+    Mono<Void> add(String accountId, YearMonth yearMonth, long delta);
+}
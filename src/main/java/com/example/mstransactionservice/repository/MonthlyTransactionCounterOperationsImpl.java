@@ -0,0 +1,66 @@
+package com.example.mstransactionservice.repository;
+
+import com.example.mstransactionservice.model.MonthlyTransactionCounter;
+import lombok.RequiredArgsConstructor;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
+import org.springframework.data.mongodb.core.ReactiveMongoTemplate;
+import org.springframework.data.mongodb.core.aggregation.AggregationUpdate;
+import org.springframework.data.mongodb.core.aggregation.ArithmeticOperators;
+import org.springframework.data.mongodb.core.aggregation.ConditionalOperators;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import reactor.core.publisher.Mono;
+import reactor.util.retry.Retry;
+
+import java.time.YearMonth;
+
+@RequiredArgsConstructor
+public class MonthlyTransactionCounterOperationsImpl implements MonthlyTransactionCounterOperations {
+
+    private final ReactiveMongoTemplate mongoTemplate;
+
+    @Override
+    public Mono<Long> getAndIncrement(String accountId, YearMonth yearMonth) {
+        // returnNew(false): devuelve el documento previo; vacío si el contador todavía no existe
+        return mongoTemplate.findAndModify(
+                        byId(accountId, yearMonth),
+                        new Update().inc("count", 1),
+                        FindAndModifyOptions.options().returnNew(false),
+                        MonthlyTransactionCounter.class)
+                .map(MonthlyTransactionCounter::getCount);
+    }
+
+    @Override
+    public Mono<Long> seedAndIncrement(String accountId, YearMonth yearMonth, long history) {
+        // Pipeline de actualización: count = ifNull(count, history) + 1. $inc y $setOnInsert no pueden
+        // tocar el mismo campo, así que la siembra y el incremento se expresan en una sola etapa $set.
+        AggregationUpdate update = AggregationUpdate.update()
+                .set("accountId").toValue(accountId)
+                .set("yearMonth").toValue(yearMonth.toString())
+                .set("count").toValue(ArithmeticOperators.Add
+                        .valueOf(ConditionalOperators.ifNull("count").then(history))
+                        .add(1));
+
+        return mongoTemplate.findAndModify(
+                        byId(accountId, yearMonth),
+                        update,
+                        FindAndModifyOptions.options().upsert(true).returnNew(true),
+                        MonthlyTransactionCounter.class)
+                .map(counter -> counter.getCount() - 1)
+                // Dos upserts simultáneos sobre el mismo _id: el perdedor reintenta y encuentra el documento
+                .retryWhen(Retry.max(1).filter(DuplicateKeyException.class::isInstance));
+    }
+
+    @Override
+    public Mono<Void> add(String accountId, YearMonth yearMonth, long delta) {
+        return mongoTemplate.updateFirst(byId(accountId, yearMonth), new Update().inc("count", delta),
+                        MonthlyTransactionCounter.class)
+                .then();
+    }
+
+    private Query byId(String accountId, YearMonth yearMonth) {
+        return Query.query(Criteria.where("_id").is(MonthlyTransactionCounter.idOf(accountId, yearMonth)));
+    }
+}
@@ -0,0 +1,10 @@
+package com.example.mstransactionservice.repository;
+
+import com.example.mstransactionservice.model.MonthlyTransactionCounter;
+import org.springframework.data.repository.reactive.ReactiveCrudRepository;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface MonthlyTransactionCounterRepository
+        extends ReactiveCrudRepository<MonthlyTransactionCounter, String>, MonthlyTransactionCounterOperations {
+}
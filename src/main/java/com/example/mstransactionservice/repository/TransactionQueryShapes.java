@@ -0,0 +1,37 @@
+package com.example.mstransactionservice.repository;
+
+import com.example.mstransactionservice.model.Transaction;
+import com.nttdata.bankapp.common.mongo.QueryShape;
+import com.nttdata.bankapp.common.mongo.QueryShapeProvider;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.List;
+
+// Formas de consulta de TransactionRepository, una por método, para la comprobación con explain
+@Component
+public class TransactionQueryShapes implements QueryShapeProvider {
+
+    private static final String SAMPLE_ID = "explain-sample";
+
+    @Override
+    public List<QueryShape> queryShapes() {
+        LocalDateTime end = LocalDateTime.now();
+        return Arrays.asList(
+                QueryShape.of("findByAccountId", Transaction.class,
+                        new Query(Criteria.where("accountId").is(SAMPLE_ID))),
+                QueryShape.of("findByRelatedEntityId", Transaction.class,
+                        new Query(Criteria.where("relatedEntityId").is(SAMPLE_ID))),
+                QueryShape.of("findByAccountIdAndRelatedEntityIdOrderByTimestampDesc", Transaction.class,
+                        new Query(Criteria.where("accountId").is(SAMPLE_ID).and("relatedEntityId").is(SAMPLE_ID))
+                                .with(Sort.by(Sort.Direction.DESC, "timestamp"))
+                                .limit(10)),
+                QueryShape.of("countByAccountIdAndTimestampBetween", Transaction.class,
+                        new Query(Criteria.where("accountId").is(SAMPLE_ID)
+                                .and("timestamp").gt(end.minusMonths(1)).lt(end))));
+    }
+}
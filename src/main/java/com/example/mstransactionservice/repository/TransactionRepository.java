@@ -5,6 +5,9 @@ import org.springframework.data.domain.Pageable;
 import org.springframework.data.repository.reactive.ReactiveCrudRepository;
 import org.springframework.stereotype.Repository;
 import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.LocalDateTime;
 
 @Repository
 public interface TransactionRepository extends ReactiveCrudRepository<Transaction, String> {
@@ -12,4 +15,5 @@ public interface TransactionRepository extends ReactiveCrudRepository<Transactio
     Flux<Transaction> findByRelatedEntityId(String relatedEntityId);
     Flux<Transaction> findByAccountIdAndRelatedEntityIdOrderByTimestampDesc(
             String accountId, String relatedEntityId, Pageable pageable);
+    Mono<Long> countByAccountIdAndTimestampBetween(String accountId, LocalDateTime start, LocalDateTime end);
 }
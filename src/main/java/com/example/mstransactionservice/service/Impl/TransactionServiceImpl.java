@@ -5,10 +5,12 @@ import com.example.mstransactionservice.Exception.BusinessException;
 import com.example.mstransactionservice.config.AccountCustomer;
 import com.example.mstransactionservice.config.TransactionConfig;
 import com.example.mstransactionservice.dto.ThirdPartyPaymentRequest;
+import com.example.mstransactionservice.model.MonthlyTransactionCounter;
 import com.example.mstransactionservice.model.Transaction;
 import com.example.mstransactionservice.dto.TransactionRequest;
 import com.example.mstransactionservice.dto.TransferRequest;
 import com.example.mstransactionservice.model.enums.TransactionType;
+import com.example.mstransactionservice.repository.MonthlyTransactionCounterRepository;
 import com.example.mstransactionservice.repository.TransactionRepository;
 import com.example.mstransactionservice.service.TransactionService;
 import lombok.RequiredArgsConstructor;
@@ -21,6 +23,7 @@ import java.math.BigDecimal;
 import java.time.LocalDateTime;
 import java.time.YearMonth;
 import java.util.UUID;
+import java.util.function.Function;
 
 
 @Service
@@ -29,29 +32,28 @@ public class TransactionServiceImpl implements TransactionService {
     private final TransactionRepository transactionRepository;
     private final TransactionConfig transactionConfig;
     private final AccountCustomer accountCustomer;
+    private final MonthlyTransactionCounterRepository counterRepository;
 
     @Override
     public Mono<Transaction> registerTransaction(TransactionRequest request) {
-        return getTransactionCountForMonth(request.getAccountId(), YearMonth.now())
-                .flatMap(count -> {
-                    // Verificar si se excedió el límite de transacciones gratuitas
-                    BigDecimal finalAmount = request.getAmount();
-                    if (count >= transactionConfig.getFreeTransactionLimit()) {
-                        // Aplicar comisión
-                        finalAmount = finalAmount.add(transactionConfig.getCommissionFee());
-                    }
-
-                    // Crear objeto Transaction y establecer sus propiedades
-                    Transaction transaction = new Transaction();
-                    transaction.setId(UUID.randomUUID().toString());
-                    transaction.setAccountId(request.getAccountId());
-                    transaction.setRelatedEntityId(request.getRelatedEntityId());
-                    transaction.setType(request.getType());
-                    transaction.setAmount(finalAmount);
-                    transaction.setTimestamp(LocalDateTime.now());
+        return saveCounted(request.getAccountId(), count -> {
+            // Verificar si se excedió el límite de transacciones gratuitas
+            BigDecimal finalAmount = request.getAmount();
+            if (count >= transactionConfig.getFreeTransactionLimit()) {
+                // Aplicar comisión
+                finalAmount = finalAmount.add(transactionConfig.getCommissionFee());
+            }
 
-                    return transactionRepository.save(transaction);
-                });
+            // Crear objeto Transaction y establecer sus propiedades
+            Transaction transaction = new Transaction();
+            transaction.setId(UUID.randomUUID().toString());
+            transaction.setAccountId(request.getAccountId());
+            transaction.setRelatedEntityId(request.getRelatedEntityId());
+            transaction.setType(request.getType());
+            transaction.setAmount(finalAmount);
+            transaction.setTimestamp(LocalDateTime.now());
+            return transaction;
+        });
     }
 
     @Override
@@ -66,13 +68,48 @@ public class TransactionServiceImpl implements TransactionService {
 
     @Override
     public Mono<Integer> getTransactionCountForMonth(String accountId, YearMonth yearMonth) {
+        return counterRepository.findById(MonthlyTransactionCounter.idOf(accountId, yearMonth))
+                .map(MonthlyTransactionCounter::getCount)
+                .switchIfEmpty(Mono.defer(() -> countFromHistory(accountId, yearMonth)))
+                .map(Long::intValue);
+    }
+
+    /**
+     * Reserva el siguiente movimiento del mes en curso y guarda la transacción construida con el
+     * número de movimientos previos. Si el guardado falla se libera la reserva, para que un error
+     * no consuma una de las transacciones gratuitas.
+     */
+    private Mono<Transaction> saveCounted(String accountId, Function<Long, Transaction> build) {
+        YearMonth yearMonth = YearMonth.now();
+        return nextMonthlyCount(accountId, yearMonth)
+                .flatMap(count -> transactionRepository.save(build.apply(count))
+                        .onErrorResume(e -> counterRepository.add(accountId, yearMonth, -1)
+                                .then(Mono.error(e))));
+    }
+
+    /**
+     * Reserva el siguiente movimiento del mes con un único findAndModify atómico.
+     * Devuelve cuántos movimientos había antes de este, de modo que dos escrituras
+     * concurrentes nunca ven el mismo valor al decidir la comisión.
+     */
+    private Mono<Long> nextMonthlyCount(String accountId, YearMonth yearMonth) {
+        return counterRepository.getAndIncrement(accountId, yearMonth)
+                .switchIfEmpty(Mono.defer(() -> seedCounter(accountId, yearMonth)));
+    }
+
+    // Primer movimiento contado en el mes: el contador se crea con lo ya registrado en la misma operación
+    // que lo incrementa, así dos primeras escrituras concurrentes no parten ambas de cero
+    private Mono<Long> seedCounter(String accountId, YearMonth yearMonth) {
+        return countFromHistory(accountId, yearMonth)
+                .flatMap(history -> counterRepository.seedAndIncrement(accountId, yearMonth, history));
+    }
+
+    private Mono<Long> countFromHistory(String accountId, YearMonth yearMonth) {
         LocalDateTime startOfMonth = yearMonth.atDay(1).atStartOfDay();
         LocalDateTime endOfMonth = yearMonth.atEndOfMonth().plusDays(1).atStartOfDay();
 
-        return transactionRepository.findByAccountId(accountId)
-                .filter(t -> t.getTimestamp().isAfter(startOfMonth) && t.getTimestamp().isBefore(endOfMonth))
-                .count()
-                .map(Long::intValue);
+        // El conteo se resuelve en Mongo sobre el índice (accountId, timestamp)
+        return transactionRepository.countByAccountIdAndTimestampBetween(accountId, startOfMonth, endOfMonth);
     }
 
     @Override
@@ -158,31 +195,29 @@ public class TransactionServiceImpl implements TransactionService {
                         return Mono.error(new BusinessException("El monto debe ser mayor a cero"));
                     }
 
-                    return getTransactionCountForMonth(request.getAccountId(), YearMonth.now())
-                            .flatMap(count -> {
-                                // Crear objeto Transaction para el pago a terceros
-                                Transaction transaction = new Transaction();
-                                transaction.setId(UUID.randomUUID().toString());
-                                transaction.setAccountId(request.getAccountId());
-                                transaction.setRelatedEntityId(request.getCreditProductId());
-                                transaction.setType(TransactionType.THIRD_PARTY_PAYMENT);
-
-                                // Verificar si se excedió el límite de transacciones gratuitas
-                                BigDecimal finalAmount = request.getAmount().negate(); // Negativo porque es un pago
-                                if (count >= transactionConfig.getFreeTransactionLimit()) {
-                                    // Aplicar comisión
-                                    finalAmount = finalAmount.subtract(transactionConfig.getCommissionFee());
-                                }
-
-                                transaction.setAmount(finalAmount);
-                                transaction.setTimestamp(LocalDateTime.now());
-                                transaction.setProviderName(request.getProviderName());
-                                transaction.setReferenceNumber(request.getReferenceNumber());
-                                transaction.setDescription("Pago a " + request.getProviderName() + " - " +
-                                        request.getCreditProductId());
-
-                                return transactionRepository.save(transaction);
-                            });
+                    return saveCounted(request.getAccountId(), count -> {
+                        // Crear objeto Transaction para el pago a terceros
+                        Transaction transaction = new Transaction();
+                        transaction.setId(UUID.randomUUID().toString());
+                        transaction.setAccountId(request.getAccountId());
+                        transaction.setRelatedEntityId(request.getCreditProductId());
+                        transaction.setType(TransactionType.THIRD_PARTY_PAYMENT);
+
+                        // Verificar si se excedió el límite de transacciones gratuitas
+                        BigDecimal finalAmount = request.getAmount().negate(); // Negativo porque es un pago
+                        if (count >= transactionConfig.getFreeTransactionLimit()) {
+                            // Aplicar comisión
+                            finalAmount = finalAmount.subtract(transactionConfig.getCommissionFee());
+                        }
+
+                        transaction.setAmount(finalAmount);
+                        transaction.setTimestamp(LocalDateTime.now());
+                        transaction.setProviderName(request.getProviderName());
+                        transaction.setReferenceNumber(request.getReferenceNumber());
+                        transaction.setDescription("Pago a " + request.getProviderName() + " - " +
+                                request.getCreditProductId());
+                        return transaction;
+                    });
                 });
     }
 
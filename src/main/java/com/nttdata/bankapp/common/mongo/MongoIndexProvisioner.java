@@ -0,0 +1,152 @@
+package com.nttdata.bankapp.common.mongo;
+
+import lombok.extern.slf4j.Slf4j;
+import org.bson.Document;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.mapping.context.MappingContext;
+import org.springframework.data.mongodb.core.ReactiveMongoTemplate;
+import org.springframework.data.mongodb.core.convert.QueryMapper;
+import org.springframework.data.mongodb.core.index.IndexDefinition;
+import org.springframework.data.mongodb.core.index.MongoPersistentEntityIndexResolver;
+import org.springframework.data.mongodb.core.mapping.MongoPersistentEntity;
+import org.springframework.data.mongodb.core.mapping.MongoPersistentProperty;
+import org.springframework.data.mongodb.core.query.Query;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * Crea al arrancar los índices declarados en los documentos (@Indexed, @CompoundIndex) y comprueba
+ * con explain que cada forma de consulta de los repositorios usa un índice.
+ * Todo corre en segundo plano tras ApplicationReadyEvent: el servicio empieza a atender peticiones
+ * sin esperar a Mongo, y ensureIndex no hace nada si el índice ya existe.
+ * Compartido por los dos servicios del repositorio: cada uno lo registra con @Import desde su MongoIndexConfig.
+ */
+@Slf4j
+public class MongoIndexProvisioner {
+
+    private final ReactiveMongoTemplate mongoTemplate;
+    private final MappingContext<? extends MongoPersistentEntity<?>, MongoPersistentProperty> mappingContext;
+    private final QueryMapper queryMapper;
+    private final List<QueryShape> queryShapes;
+
+    @Value("${app.mongo.explain-on-startup:true}")
+    private boolean explainOnStartup;
+
+    public MongoIndexProvisioner(ReactiveMongoTemplate mongoTemplate,
+                                 ObjectProvider<QueryShapeProvider> queryShapeProviders) {
+        this.mongoTemplate = mongoTemplate;
+        this.mappingContext = mongoTemplate.getConverter().getMappingContext();
+        this.queryMapper = new QueryMapper(mongoTemplate.getConverter());
+        this.queryShapes = queryShapeProviders.orderedStream()
+                .flatMap(provider -> provider.queryShapes().stream())
+                .collect(Collectors.toList());
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void onApplicationReady() {
+        ensureIndexes()
+                .then(explainOnStartup ? findCollectionScans().then() : Mono.empty())
+                .subscribe(
+                        unused -> { },
+                        e -> log.error("Error provisioning MongoDB indexes: {}", e.getMessage()));
+    }
+
+    /**
+     * Crea los índices declarados en todas las entidades @Document conocidas.
+     * @return Mono vacío al terminar
+     */
+    public Mono<Void> ensureIndexes() {
+        MongoPersistentEntityIndexResolver resolver = new MongoPersistentEntityIndexResolver(mappingContext);
+        return Flux.fromIterable(mappingContext.getPersistentEntities())
+                .filter(entity -> entity.isAnnotationPresent(
+                        org.springframework.data.mongodb.core.mapping.Document.class))
+                .concatMap(entity -> Flux.fromIterable(resolver.resolveIndexFor(entity.getTypeInformation()))
+                        .concatMap(index -> mongoTemplate.indexOps(entity.getType())
+                                .ensureIndex(inBackground(index))
+                                .doOnNext(name -> log.info("Ensured index {} on {}", name, entity.getCollection()))
+                                .onErrorResume(e -> {
+                                    log.warn("Could not create index {} on {}: {}",
+                                            index.getIndexKeys(), entity.getCollection(), e.getMessage());
+                                    return Mono.empty();
+                                })))
+                .then();
+    }
+
+    /**
+     * Ejecuta explain sobre cada forma de consulta registrada y avisa de las que recorren la colección.
+     * @return Flux con los nombres de las consultas que hacen COLLSCAN
+     */
+    public Flux<String> findCollectionScans() {
+        return Flux.fromIterable(queryShapes)
+                .concatMap(shape -> explain(shape)
+                        .filter(MongoIndexProvisioner::usesCollectionScan)
+                        .map(plan -> shape.getName())
+                        .doOnNext(name -> log.warn("Query {} does a COLLSCAN; add an index for its shape", name))
+                        .onErrorResume(e -> {
+                            log.warn("Could not explain query {}: {}", shape.getName(), e.getMessage());
+                            return Mono.empty();
+                        }));
+    }
+
+    private Mono<Document> explain(QueryShape shape) {
+        MongoPersistentEntity<?> entity = mappingContext.getRequiredPersistentEntity(shape.getEntityType());
+        Query query = shape.getQuery();
+        Document filter = queryMapper.getMappedObject(query.getQueryObject(), entity);
+        Document sort = queryMapper.getMappedSort(query.getSortObject(), entity);
+        return mongoTemplate.getCollection(entity.getCollection())
+                .flatMap(collection -> Mono.from(collection.find(filter)
+                        .sort(sort)
+                        .limit(query.getLimit())
+                        .explain()));
+    }
+
+    /**
+     * Indica si el plan ganador de un explain contiene una etapa COLLSCAN.
+     * @param explain Resultado de explain
+     * @return true si recorre la colección completa
+     */
+    static boolean usesCollectionScan(Document explain) {
+        Object queryPlanner = explain.get("queryPlanner");
+        Object winningPlan = queryPlanner instanceof Document ? ((Document) queryPlanner).get("winningPlan") : null;
+        return containsStage(winningPlan, "COLLSCAN");
+    }
+
+    private static boolean containsStage(Object node, String stage) {
+        if (node instanceof Document) {
+            Document document = (Document) node;
+            if (stage.equals(document.get("stage"))) {
+                return true;
+            }
+            return document.values().stream().anyMatch(value -> containsStage(value, stage));
+        }
+        if (node instanceof List) {
+            return ((List<?>) node).stream().anyMatch(value -> containsStage(value, stage));
+        }
+        return false;
+    }
+
+    /**
+     * Copia la definición pidiendo construcción en segundo plano (los servidores 4.2+ ignoran la opción).
+     */
+    static IndexDefinition inBackground(IndexDefinition definition) {
+        Document options = new Document(definition.getIndexOptions());
+        options.put("background", true);
+        return new IndexDefinition() {
+            @Override
+            public Document getIndexKeys() {
+                return definition.getIndexKeys();
+            }
+
+            @Override
+            public Document getIndexOptions() {
+                return options;
+            }
+        };
+    }
+}
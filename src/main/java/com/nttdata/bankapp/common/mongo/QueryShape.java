@@ -0,0 +1,17 @@
+package com.nttdata.bankapp.common.mongo;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import org.springframework.data.mongodb.core.query.Query;
+
+/**
+ * Forma de una consulta de repositorio (filtro, orden y límite con valores de ejemplo) para
+ * comprobar con explain que usa un índice.
+ */
+@Getter
+@AllArgsConstructor(staticName = "of")
+public class QueryShape {
+    private final String name;
+    private final Class<?> entityType;
+    private final Query query;
+}
@@ -0,0 +1,14 @@
+package com.nttdata.bankapp.common.mongo;
+
+import java.util.List;
+
+/**
+ * Declara las formas de consulta de un repositorio que MongoIndexProvisioner debe comprobar al arrancar.
+ */
+public interface QueryShapeProvider {
+
+    /**
+     * @return Formas de consulta del repositorio
+     */
+    List<QueryShape> queryShapes();
+}
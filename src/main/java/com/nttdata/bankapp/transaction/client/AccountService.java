@@ -1,5 +1,6 @@
 package com.nttdata.bankapp.transaction.client;
 
+import com.nttdata.bankapp.transaction.exception.DownstreamUnavailableException;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.http.MediaType;
@@ -13,12 +14,28 @@ import java.math.BigDecimal;
 @Slf4j
 public class AccountService {
 
+    private static final String DOWNSTREAM = "accounts";
+
     private final WebClient webClient;
+    private final DownstreamGuard guard;
+    private final ExistenceCache existenceCache;
+    private final SingleFlight<String, BalanceDto> balanceFlights = new SingleFlight<>();
+    private final MicroBatcher<String, Boolean> existenceBatcher;
+    private final MicroBatcher<String, BalanceDto> balanceBatcher;
 
-    public AccountService(@Value("${app.account-service-url}") String accountServiceUrl) {
-        this.webClient = WebClient.builder()
+    public AccountService(@Value("${app.account-service-url}") String accountServiceUrl,
+                          WebClient.Builder webClientBuilder,
+                          ExistenceCacheFactory existenceCacheFactory,
+                          MicroBatcherFactory microBatcherFactory,
+                          DownstreamGuard guard) {
+        this.webClient = webClientBuilder
                 .baseUrl(accountServiceUrl)
                 .build();
+        this.existenceCache = existenceCacheFactory.create("accounts");
+        this.guard = guard;
+        // El servicio de cuentas no tiene endpoints de lote: las consultas de cada ventana salen en paralelo
+        this.existenceBatcher = microBatcherFactory.parallel(this::fetchAccountExists);
+        this.balanceBatcher = microBatcherFactory.parallel(this::fetchBalance);
     }
 
     /**
@@ -28,19 +45,31 @@ public class AccountService {
      * @return Mono<AccountDto>
      */
     public Mono<AccountDto> updateBalance(String accountId, BigDecimal amount) {
-        log.info("Updating balance for account id: {} with amount: {}", accountId, amount);
-        return webClient.put()
+        return updateBalance(accountId, amount, null);
+    }
+
+    /**
+     * Actualiza el saldo de una cuenta enviando una clave de idempotencia.
+     * @param accountId ID de la cuenta
+     * @param amount Monto a actualizar (positivo para depósitos, negativo para retiros)
+     * @param idempotencyKey Clave de idempotencia (puede ser null)
+     * @return Mono<AccountDto>
+     */
+    public Mono<AccountDto> updateBalance(String accountId, BigDecimal amount, String idempotencyKey) {
+        log.debug("Updating balance for account id: {} with amount: {}", accountId, amount);
+        return guard.write(DOWNSTREAM, "update-balance", webClient.put()
                 .uri(uriBuilder -> uriBuilder
                         .path("/accounts/{id}/balance")
                         .queryParam("amount", amount)
                         .build(accountId))
+                .headers(IdempotencyKeys.header(idempotencyKey))
                 .accept(MediaType.APPLICATION_JSON)
                 .retrieve()
                 .bodyToMono(AccountDto.class)
                 .onErrorResume(e -> {
                     log.error("Error updating account balance: {}", e.getMessage());
-                    return Mono.error(new RuntimeException("Error updating account balance: " + e.getMessage()));
-                });
+                    return Mono.error(new RuntimeException("Error updating account balance: " + e.getMessage(), e));
+                }));
     }
 
     /**
@@ -49,16 +78,21 @@ public class AccountService {
      * @return Mono<BalanceDto>
      */
     public Mono<BalanceDto> getBalance(String accountId) {
-        log.info("Getting balance for account id: {}", accountId);
-        return webClient.get()
+        log.debug("Getting balance for account id: {}", accountId);
+        // Las consultas concurrentes del mismo saldo comparten una única llamada en curso
+        return balanceFlights.execute(accountId, () -> balanceBatcher.load(accountId));
+    }
+
+    private Mono<BalanceDto> fetchBalance(String accountId) {
+        return guard.read(DOWNSTREAM, "balance", webClient.get()
                 .uri("/accounts/{id}/balance", accountId)
                 .accept(MediaType.APPLICATION_JSON)
                 .retrieve()
                 .bodyToMono(BalanceDto.class)
                 .onErrorResume(e -> {
                     log.error("Error getting account balance: {}", e.getMessage());
-                    return Mono.error(new RuntimeException("Error getting account balance: " + e.getMessage()));
-                });
+                    return Mono.error(new RuntimeException("Error getting account balance: " + e.getMessage(), e));
+                }));
     }
     /**
      * Verifica si una cuenta existe.
@@ -66,18 +100,20 @@ public class AccountService {
      * @return Mono<Boolean> true si existe, false en caso contrario
      */
     public Mono<Boolean> accountExists(String accountId) {
-        log.info("Checking if account exists with id: {}", accountId);
-        return webClient.get()
-                .uri("/accounts/{id}", accountId)
-                .retrieve()
-                .bodyToMono(Object.class)
-                .map(response -> true)
-                .onErrorResume(e -> {
+        log.debug("Checking if account exists with id: {}", accountId);
+        // Los errores distintos de 404 no se guardan en caché; se informan como inexistente como hasta ahora,
+        // salvo el servicio no disponible, que falla rápido con 503
+        return existenceCache.get(accountId, existenceBatcher::load)
+                .onErrorResume(e -> !(e instanceof DownstreamUnavailableException), e -> {
                     log.error("Error checking account existence: {}", e.getMessage());
                     return Mono.just(false);
                 });
     }
 
+    private Mono<Boolean> fetchAccountExists(String accountId) {
+        return guard.read(DOWNSTREAM, "exists", ExistenceProbe.exists(webClient, "/accounts/{id}", accountId));
+    }
+
     /**
      * Valida una cuenta para realizar transferencia.
      * @param accountId ID de la cuenta
@@ -86,8 +122,11 @@ public class AccountService {
      * @return Mono<Boolean> true si es válida
      */
     public Mono<Boolean> validateAccountForTransfer(String accountId, String customerId, BigDecimal amount) {
-        log.info("Validating account for transfer: account={}, customer={}, amount={}", accountId, customerId, amount);
-        return webClient.get()
+        if (log.isDebugEnabled()) {
+            log.debug("Validating account for transfer: account={}, customer={}, amount={}",
+                    accountId, customerId, amount);
+        }
+        return guard.read(DOWNSTREAM, "validate-transfer", webClient.get()
                 .uri(uriBuilder -> uriBuilder
                         .path("/accounts/{id}/validate-transfer")
                         .queryParam("customerId", customerId)
@@ -97,8 +136,8 @@ public class AccountService {
                 .bodyToMono(Boolean.class)
                 .onErrorResume(e -> {
                     log.error("Error validating account for transfer: {}", e.getMessage());
-                    return Mono.error(new RuntimeException("Invalid account for transfer: " + e.getMessage()));
-                });
+                    return Mono.error(new RuntimeException("Invalid account for transfer: " + e.getMessage(), e));
+                }));
     }
 
     /**
@@ -107,12 +146,13 @@ public class AccountService {
      * @return Mono<BigDecimal> con el monto de la comisión
      */
     public Mono<BigDecimal> calculateTransactionFee(String accountId) {
-        log.info("Calculating transaction fee for account: {}", accountId);
-        return webClient.get()
-                .uri("/accounts/{id}/transaction-fee", accountId)
-                .accept(MediaType.APPLICATION_JSON)
-                .retrieve()
-                .bodyToMono(BigDecimal.class)
+        log.debug("Calculating transaction fee for account: {}", accountId);
+        // El respaldo va fuera de la protección: el circuito y los reintentos deben ver el fallo
+        return guard.read(DOWNSTREAM, "transaction-fee", webClient.get()
+                        .uri("/accounts/{id}/transaction-fee", accountId)
+                        .accept(MediaType.APPLICATION_JSON)
+                        .retrieve()
+                        .bodyToMono(BigDecimal.class))
                 .onErrorResume(e -> {
                     log.error("Error calculating transaction fee: {}", e.getMessage());
                     return Mono.just(BigDecimal.ZERO);
@@ -126,19 +166,31 @@ public class AccountService {
      * @return Mono<AccountDto>
      */
     public Mono<AccountDto> incrementTransactionCount(String accountId, BigDecimal fee) {
-        log.info("Incrementing transaction count for account: {}, fee: {}", accountId, fee);
-        return webClient.put()
+        return incrementTransactionCount(accountId, fee, null);
+    }
+
+    /**
+     * Incrementa el contador de transacciones de una cuenta enviando una clave de idempotencia.
+     * @param accountId ID de la cuenta
+     * @param fee Comisión a aplicar (puede ser null)
+     * @param idempotencyKey Clave de idempotencia (puede ser null)
+     * @return Mono<AccountDto>
+     */
+    public Mono<AccountDto> incrementTransactionCount(String accountId, BigDecimal fee, String idempotencyKey) {
+        log.debug("Incrementing transaction count for account: {}, fee: {}", accountId, fee);
+        return guard.write(DOWNSTREAM, "transaction-count", webClient.put()
                 .uri(uriBuilder -> uriBuilder
                         .path("/accounts/{id}/transaction-count")
                         .queryParam("fee", fee != null ? fee : 0)
                         .build(accountId))
+                .headers(IdempotencyKeys.header(idempotencyKey))
                 .accept(MediaType.APPLICATION_JSON)
                 .retrieve()
                 .bodyToMono(AccountDto.class)
                 .onErrorResume(e -> {
                     log.error("Error incrementing transaction count: {}", e.getMessage());
-                    return Mono.error(new RuntimeException("Error incrementing transaction count: " + e.getMessage()));
-                });
+                    return Mono.error(new RuntimeException("Error incrementing transaction count: " + e.getMessage(), e));
+                }));
     }
 
 
@@ -1,4 +1,5 @@
 package com.nttdata.bankapp.transaction.client;
+import com.nttdata.bankapp.transaction.exception.DownstreamUnavailableException;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.http.MediaType;
@@ -12,27 +13,45 @@ import java.math.BigDecimal;
 @Slf4j
 public class CreditCardService {
 
+    private static final String DOWNSTREAM = "credit-cards";
+
     private final WebClient webClient;
+    private final DownstreamGuard guard;
+    private final ExistenceCache existenceCache;
+    private final SingleFlight<String, CreditCardBalanceDto> balanceFlights = new SingleFlight<>();
+    private final MicroBatcher<String, Boolean> existenceBatcher;
+    private final MicroBatcher<String, CreditCardBalanceDto> balanceBatcher;
 
-    public CreditCardService(@Value("${app.credit-card-service-url}") String creditCardServiceUrl) {
-        this.webClient = WebClient.builder()
+    public CreditCardService(@Value("${app.credit-card-service-url}") String creditCardServiceUrl,
+                             WebClient.Builder webClientBuilder,
+                             ExistenceCacheFactory existenceCacheFactory,
+                             MicroBatcherFactory microBatcherFactory,
+                             DownstreamGuard guard) {
+        this.webClient = webClientBuilder
                 .baseUrl(creditCardServiceUrl)
                 .build();
+        this.existenceCache = existenceCacheFactory.create("credit-cards");
+        this.guard = guard;
+        // El servicio de tarjetas no tiene endpoints de lote: las consultas de cada ventana salen en paralelo
+        this.existenceBatcher = microBatcherFactory.parallel(this::fetchCreditCardExists);
+        this.balanceBatcher = microBatcherFactory.parallel(this::fetchBalance);
     }
 
     public Mono<Boolean> creditCardExists(String creditCardId) {
-        log.info("Checking if credit card exists with id: {}", creditCardId);
-        return webClient.get()
-                .uri("/credit-cards/{id}", creditCardId)
-                .retrieve()
-                .bodyToMono(Object.class)
-                .map(response -> true)
-                .onErrorResume(e -> {
+        log.debug("Checking if credit card exists with id: {}", creditCardId);
+        // Los errores distintos de 404 no se guardan en caché; se informan como inexistente como hasta ahora,
+        // salvo el servicio no disponible, que falla rápido con 503
+        return existenceCache.get(creditCardId, existenceBatcher::load)
+                .onErrorResume(e -> !(e instanceof DownstreamUnavailableException), e -> {
                     log.error("Error checking credit card existence: {}", e.getMessage());
                     return Mono.just(false);
                 });
     }
 
+    private Mono<Boolean> fetchCreditCardExists(String creditCardId) {
+        return guard.read(DOWNSTREAM, "exists", ExistenceProbe.exists(webClient, "/credit-cards/{id}", creditCardId));
+    }
+
     /**
      * Registra un consumo en una tarjeta de crédito.
      * @param creditCardId ID de la tarjeta de crédito
@@ -40,19 +59,31 @@ public class CreditCardService {
      * @return Mono<CreditCardDto>
      */
     public Mono<CreditCardDto> registerConsumption(String creditCardId, BigDecimal amount) {
-        log.info("Registering consumption for credit card id: {} with amount: {}", creditCardId, amount);
-        return webClient.put()
+        return registerConsumption(creditCardId, amount, null);
+    }
+
+    /**
+     * Registra un consumo en una tarjeta de crédito enviando una clave de idempotencia.
+     * @param creditCardId ID de la tarjeta de crédito
+     * @param amount Monto del consumo
+     * @param idempotencyKey Clave de idempotencia (puede ser null)
+     * @return Mono<CreditCardDto>
+     */
+    public Mono<CreditCardDto> registerConsumption(String creditCardId, BigDecimal amount, String idempotencyKey) {
+        log.debug("Registering consumption for credit card id: {} with amount: {}", creditCardId, amount);
+        return guard.write(DOWNSTREAM, "consumption", webClient.put()
                 .uri(uriBuilder -> uriBuilder
                         .path("/credit-cards/{id}/consumption")
                         .queryParam("amount", amount)
                         .build(creditCardId))
+                .headers(IdempotencyKeys.header(idempotencyKey))
                 .accept(MediaType.APPLICATION_JSON)
                 .retrieve()
                 .bodyToMono(CreditCardDto.class)
                 .onErrorResume(e -> {
                     log.error("Error registering credit card consumption: {}", e.getMessage());
-                    return Mono.error(new RuntimeException("Error registering credit card consumption: " + e.getMessage()));
-                });
+                    return Mono.error(new RuntimeException("Error registering credit card consumption: " + e.getMessage(), e));
+                }));
     }
 
     /**
@@ -61,16 +92,21 @@ public class CreditCardService {
      * @return Mono<CreditCardBalanceDto>
      */
     public Mono<CreditCardBalanceDto> getBalance(String creditCardId) {
-        log.info("Getting balance for credit card id: {}", creditCardId);
-        return webClient.get()
+        log.debug("Getting balance for credit card id: {}", creditCardId);
+        // Las consultas concurrentes del mismo saldo de tarjeta comparten una única llamada en curso
+        return balanceFlights.execute(creditCardId, () -> balanceBatcher.load(creditCardId));
+    }
+
+    private Mono<CreditCardBalanceDto> fetchBalance(String creditCardId) {
+        return guard.read(DOWNSTREAM, "balance", webClient.get()
                 .uri("/credit-cards/{id}/balance", creditCardId)
                 .accept(MediaType.APPLICATION_JSON)
                 .retrieve()
                 .bodyToMono(CreditCardBalanceDto.class)
                 .onErrorResume(e -> {
                     log.error("Error getting credit card balance: {}", e.getMessage());
-                    return Mono.error(new RuntimeException("Error getting credit card balance: " + e.getMessage()));
-                });
+                    return Mono.error(new RuntimeException("Error getting credit card balance: " + e.getMessage(), e));
+                }));
     }
 
     // DTOs internos para mapear las respuestas del servicio de tarjetas de crédito
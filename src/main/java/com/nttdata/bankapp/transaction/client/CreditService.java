@@ -1,5 +1,6 @@
 package com.nttdata.bankapp.transaction.client;
 
+import com.nttdata.bankapp.transaction.exception.DownstreamUnavailableException;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.http.MediaType;
@@ -16,12 +17,25 @@ import java.math.BigDecimal;
 @Slf4j
 public class CreditService {
 
+    private static final String DOWNSTREAM = "credits";
+
     private final WebClient webClient;
+    private final DownstreamGuard guard;
+    private final ExistenceCache existenceCache;
+    private final MicroBatcher<String, Boolean> existenceBatcher;
 
-    public CreditService(@Value("${app.credit-service-url}") String creditServiceUrl) {
-        this.webClient = WebClient.builder()
+    public CreditService(@Value("${app.credit-service-url}") String creditServiceUrl,
+                         WebClient.Builder webClientBuilder,
+                         ExistenceCacheFactory existenceCacheFactory,
+                         MicroBatcherFactory microBatcherFactory,
+                         DownstreamGuard guard) {
+        this.webClient = webClientBuilder
                 .baseUrl(creditServiceUrl)
                 .build();
+        this.existenceCache = existenceCacheFactory.create("credits");
+        this.guard = guard;
+        // El servicio de créditos no tiene endpoint de lote: las consultas de cada ventana salen en paralelo
+        this.existenceBatcher = microBatcherFactory.parallel(this::fetchCreditExists);
     }
 
     /**
@@ -30,18 +44,20 @@ public class CreditService {
      * @return Mono<Boolean> true si existe, false en caso contrario
      */
     public Mono<Boolean> creditExists(String creditId) {
-        log.info("Checking if credit exists with id: {}", creditId);
-        return webClient.get()
-                .uri("/credits/{id}", creditId)
-                .retrieve()
-                .bodyToMono(Object.class)
-                .map(response -> true)
-                .onErrorResume(e -> {
+        log.debug("Checking if credit exists with id: {}", creditId);
+        // Los errores distintos de 404 no se guardan en caché; se informan como inexistente como hasta ahora,
+        // salvo el servicio no disponible, que falla rápido con 503
+        return existenceCache.get(creditId, existenceBatcher::load)
+                .onErrorResume(e -> !(e instanceof DownstreamUnavailableException), e -> {
                     log.error("Error checking credit existence: {}", e.getMessage());
                     return Mono.just(false);
                 });
     }
 
+    private Mono<Boolean> fetchCreditExists(String creditId) {
+        return guard.read(DOWNSTREAM, "exists", ExistenceProbe.exists(webClient, "/credits/{id}", creditId));
+    }
+
     /**
      * Realiza un pago a un crédito.
      * @param creditId ID del crédito
@@ -49,19 +65,31 @@ public class CreditService {
      * @return Mono<CreditDto>
      */
     public Mono<CreditDto> makePayment(String creditId, BigDecimal amount) {
-        log.info("Making payment to credit id: {} with amount: {}", creditId, amount);
-        return webClient.put()
+        return makePayment(creditId, amount, null);
+    }
+
+    /**
+     * Realiza un pago a un crédito enviando una clave de idempotencia.
+     * @param creditId ID del crédito
+     * @param amount Monto del pago
+     * @param idempotencyKey Clave de idempotencia (puede ser null)
+     * @return Mono<CreditDto>
+     */
+    public Mono<CreditDto> makePayment(String creditId, BigDecimal amount, String idempotencyKey) {
+        log.debug("Making payment to credit id: {} with amount: {}", creditId, amount);
+        return guard.write(DOWNSTREAM, "payment", webClient.put()
                 .uri(uriBuilder -> uriBuilder
                         .path("/credits/{id}/payment")
                         .queryParam("amount", amount)
                         .build(creditId))
+                .headers(IdempotencyKeys.header(idempotencyKey))
                 .accept(MediaType.APPLICATION_JSON)
                 .retrieve()
                 .bodyToMono(CreditDto.class)
                 .onErrorResume(e -> {
                     log.error("Error making credit payment: {}", e.getMessage());
-                    return Mono.error(new RuntimeException("Error making credit payment: " + e.getMessage()));
-                });
+                    return Mono.error(new RuntimeException("Error making credit payment: " + e.getMessage(), e));
+                }));
     }
 
     /**
@@ -70,16 +98,16 @@ public class CreditService {
      * @return Mono<CreditBalanceDto>
      */
     public Mono<CreditBalanceDto> getBalance(String creditId) {
-        log.info("Getting balance for credit id: {}", creditId);
-        return webClient.get()
+        log.debug("Getting balance for credit id: {}", creditId);
+        return guard.read(DOWNSTREAM, "balance", webClient.get()
                 .uri("/credits/{id}/balance", creditId)
                 .accept(MediaType.APPLICATION_JSON)
                 .retrieve()
                 .bodyToMono(CreditBalanceDto.class)
                 .onErrorResume(e -> {
                     log.error("Error getting credit balance: {}", e.getMessage());
-                    return Mono.error(new RuntimeException("Error getting credit balance: " + e.getMessage()));
-                });
+                    return Mono.error(new RuntimeException("Error getting credit balance: " + e.getMessage(), e));
+                }));
     }
 
     // DTOs internos para mapear las respuestas del servicio de créditos
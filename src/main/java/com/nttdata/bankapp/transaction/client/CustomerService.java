@@ -1,6 +1,7 @@
 package com.nttdata.bankapp.transaction.client;
 
 import com.nttdata.bankapp.transaction.dto.TransactionDto;
+import com.nttdata.bankapp.transaction.exception.DownstreamUnavailableException;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.http.MediaType;
@@ -16,12 +17,25 @@ import reactor.core.publisher.Mono;
 @Slf4j
 public class CustomerService {
 
+    private static final String DOWNSTREAM = "customers";
+
     private final WebClient webClient;
+    private final DownstreamGuard guard;
+    private final ExistenceCache existenceCache;
+    private final MicroBatcher<String, Boolean> existenceBatcher;
 
-    public CustomerService(@Value("${app.customer-service-url}") String customerServiceUrl) {
-        this.webClient = WebClient.builder()
+    public CustomerService(@Value("${app.customer-service-url}") String customerServiceUrl,
+                           WebClient.Builder webClientBuilder,
+                           ExistenceCacheFactory existenceCacheFactory,
+                           MicroBatcherFactory microBatcherFactory,
+                           DownstreamGuard guard) {
+        this.webClient = webClientBuilder
                 .baseUrl(customerServiceUrl)
                 .build();
+        this.existenceCache = existenceCacheFactory.create("customers");
+        this.guard = guard;
+        // El servicio de clientes no tiene endpoint de lote: las consultas de cada ventana salen en paralelo
+        this.existenceBatcher = microBatcherFactory.parallel(this::fetchCustomerExists);
     }
 
     /**
@@ -30,24 +44,26 @@ public class CustomerService {
      * @return Mono true si existe, false en caso contrario
      */
     public Mono<Boolean> customerExists(String customerId) {
-        log.info("Checking if customer exists with id: {}", customerId);
-        return webClient.get()
-                .uri("/customers/{id}", customerId)
-                .retrieve()
-                .bodyToMono(Object.class)
-                .map(response -> true)
-                .onErrorResume(e -> {
+        log.debug("Checking if customer exists with id: {}", customerId);
+        // Los errores distintos de 404 no se guardan en caché; se informan como inexistente como hasta ahora,
+        // salvo el servicio no disponible, que falla rápido con 503
+        return existenceCache.get(customerId, existenceBatcher::load)
+                .onErrorResume(e -> !(e instanceof DownstreamUnavailableException), e -> {
                     log.error("Error checking customer existence: {}", e.getMessage());
                     return Mono.just(false);
                 });
     }
 
+    private Mono<Boolean> fetchCustomerExists(String customerId) {
+        return guard.read(DOWNSTREAM, "exists", ExistenceProbe.exists(webClient, "/customers/{id}", customerId));
+    }
+
     /**
      * Obtiene todos los clientes.
      * @return Flux de TransactionDto
      */
     public Flux<TransactionDto> findAll() {
-        log.info("Finding all customers");
+        log.debug("Finding all customers");
         return webClient.get()
                 .uri("/customers")
                 .accept(MediaType.APPLICATION_JSON)
@@ -55,7 +71,7 @@ public class CustomerService {
                 .bodyToFlux(TransactionDto.class)
                 .onErrorResume(e -> {
                     log.error("Error finding all customers: {}", e.getMessage());
-                    return Flux.error(new RuntimeException("Error finding all customers: " + e.getMessage()));
+                    return Flux.error(new RuntimeException("Error finding all customers: " + e.getMessage(), e));
                 });
     }
 
@@ -65,7 +81,7 @@ public class CustomerService {
      * @return Mono de TransactionDto
      */
     public Mono<TransactionDto> findById(String id) {
-        log.info("Finding customer by id: {}", id);
+        log.debug("Finding customer by id: {}", id);
         return webClient.get()
                 .uri("/customers/{id}", id)
                 .accept(MediaType.APPLICATION_JSON)
@@ -73,7 +89,7 @@ public class CustomerService {
                 .bodyToMono(TransactionDto.class)
                 .onErrorResume(e -> {
                     log.error("Error finding customer by id: {}", e.getMessage());
-                    return Mono.error(new RuntimeException("Error finding customer by id: " + e.getMessage()));
+                    return Mono.error(new RuntimeException("Error finding customer by id: " + e.getMessage(), e));
                 });
     }
 
@@ -83,7 +99,7 @@ public class CustomerService {
      * @return Mono de TransactionDto
      */
     public Mono<TransactionDto> findByDocumentNumber(String documentNumber) {
-        log.info("Finding customer by document number: {}", documentNumber);
+        log.debug("Finding customer by document number: {}", documentNumber);
         return webClient.get()
                 .uri("/customers/document/{documentNumber}", documentNumber)
                 .accept(MediaType.APPLICATION_JSON)
@@ -91,7 +107,7 @@ public class CustomerService {
                 .bodyToMono(TransactionDto.class)
                 .onErrorResume(e -> {
                     log.error("Error finding customer by document number: {}", e.getMessage());
-                    return Mono.error(new RuntimeException("Error finding customer by document number: " + e.getMessage()));
+                    return Mono.error(new RuntimeException("Error finding customer by document number: " + e.getMessage(), e));
                 });
     }
 
@@ -101,7 +117,7 @@ public class CustomerService {
      * @return Mono de TransactionDto
      */
     public Mono<TransactionDto> save(TransactionDto customerDto) {
-        log.info("Saving customer: {}", customerDto);
+        log.debug("Saving customer");
         return webClient.post()
                 .uri("/customers")
                 .contentType(MediaType.APPLICATION_JSON)
@@ -110,7 +126,7 @@ public class CustomerService {
                 .bodyToMono(TransactionDto.class)
                 .onErrorResume(e -> {
                     log.error("Error saving customer: {}", e.getMessage());
-                    return Mono.error(new RuntimeException("Error saving customer: " + e.getMessage()));
+                    return Mono.error(new RuntimeException("Error saving customer: " + e.getMessage(), e));
                 });
     }
 
@@ -121,7 +137,7 @@ public class CustomerService {
      * @return Mono de TransactionDto
      */
     public Mono<TransactionDto> update(String id, TransactionDto customerDto) {
-        log.info("Updating customer with id {}: {}", id, customerDto);
+        log.debug("Updating customer with id: {}", id);
         return webClient.put()
                 .uri("/customers/{id}", id)
                 .contentType(MediaType.APPLICATION_JSON)
@@ -130,7 +146,7 @@ public class CustomerService {
                 .bodyToMono(TransactionDto.class)
                 .onErrorResume(e -> {
                     log.error("Error updating customer: {}", e.getMessage());
-                    return Mono.error(new RuntimeException("Error updating customer: " + e.getMessage()));
+                    return Mono.error(new RuntimeException("Error updating customer: " + e.getMessage(), e));
                 });
     }
 
@@ -140,14 +156,14 @@ public class CustomerService {
      * @return Mono<Void>
      */
     public Mono<Void> delete(String id) {
-        log.info("Deleting customer with id: {}", id);
+        log.debug("Deleting customer with id: {}", id);
         return webClient.delete()
                 .uri("/customers/{id}", id)
                 .retrieve()
                 .bodyToMono(Void.class)
                 .onErrorResume(e -> {
                     log.error("Error deleting customer: {}", e.getMessage());
-                    return Mono.error(new RuntimeException("Error deleting customer: " + e.getMessage()));
+                    return Mono.error(new RuntimeException("Error deleting customer: " + e.getMessage(), e));
                 });
     }
 }
\ No newline at end of file
@@ -0,0 +1,37 @@
+package com.nttdata.bankapp.transaction.client;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.reactive.function.client.WebClientResponseException;
+
+import java.util.function.Predicate;
+
+/**
+ * Indica si un error cuenta como fallo del servicio remoto para el circuit breaker.
+ * Las respuestas 4xx (salvo 408 y 429) son errores de la petición, no del servicio: saldo
+ * insuficiente, recurso inexistente... y no deben abrir el circuito.
+ * Se referencia por nombre de clase en resilience4j.circuitbreaker.configs.*.record-failure-predicate.
+ */
+public class DownstreamFailurePredicate implements Predicate<Throwable> {
+
+    @Override
+    public boolean test(Throwable error) {
+        return !isClientError(error);
+    }
+
+    /**
+     * Busca en la cadena de causas una respuesta 4xx que no mejore al reintentar.
+     * @param error Error recibido (los clientes lo envuelven en RuntimeException)
+     * @return true si es un error de la petición
+     */
+    public static boolean isClientError(Throwable error) {
+        for (Throwable cause = error; cause != null; cause = cause.getCause()) {
+            if (cause instanceof WebClientResponseException) {
+                HttpStatus status = ((WebClientResponseException) cause).getStatusCode();
+                return status.is4xxClientError()
+                        && status != HttpStatus.REQUEST_TIMEOUT
+                        && status != HttpStatus.TOO_MANY_REQUESTS;
+            }
+        }
+        return false;
+    }
+}
@@ -0,0 +1,84 @@
+package com.nttdata.bankapp.transaction.client;
+
+import com.nttdata.bankapp.transaction.exception.DownstreamUnavailableException;
+import io.github.resilience4j.bulkhead.BulkheadFullException;
+import io.github.resilience4j.bulkhead.BulkheadRegistry;
+import io.github.resilience4j.circuitbreaker.CallNotPermittedException;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerRegistry;
+import io.github.resilience4j.reactor.bulkhead.operator.BulkheadOperator;
+import io.github.resilience4j.reactor.circuitbreaker.operator.CircuitBreakerOperator;
+import io.github.resilience4j.reactor.retry.RetryOperator;
+import io.github.resilience4j.reactor.timelimiter.TimeLimiterOperator;
+import io.github.resilience4j.retry.RetryRegistry;
+import io.github.resilience4j.timelimiter.TimeLimiterRegistry;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Protege las llamadas a cada servicio remoto con bulkhead y circuit breaker, y las lecturas
+ * idempotentes además con timeout y reintentos con jitter. Las instancias se nombran por servicio
+ * ("customers", "accounts", "credits", "credit-cards") y se configuran en resilience4j.*;
+ * su estado se publica en /actuator/health, /actuator/circuitbreakers y /actuator/metrics.
+ * Cada llamada protegida se mide con {@link DownstreamMetrics} por servicio y operación y se traza
+ * con {@link DownstreamTracing} en un span propio.
+ */
+@Component
+@RequiredArgsConstructor
+public class DownstreamGuard {
+
+    private final CircuitBreakerRegistry circuitBreakerRegistry;
+    private final BulkheadRegistry bulkheadRegistry;
+    private final TimeLimiterRegistry timeLimiterRegistry;
+    private final RetryRegistry retryRegistry;
+    private final DownstreamMetrics metrics;
+    private final DownstreamTracing tracing;
+
+    /**
+     * Protege una lectura (GET): se reintenta ante fallos transitorios del servicio.
+     * @param downstream Nombre del servicio remoto
+     * @param operation Operación, para las métricas y la traza
+     * @param call Llamada remota
+     * @return Mono protegido
+     */
+    public <T> Mono<T> read(String downstream, String operation, Mono<T> call) {
+        return observe(downstream, operation, guard(downstream, call
+                        .transformDeferred(TimeLimiterOperator.of(timeLimiterRegistry.timeLimiter(downstream))))
+                // Cada reintento vuelve a pasar por el circuito y el bulkhead
+                .transformDeferred(RetryOperator.of(retryRegistry.retry(downstream)))
+                .onErrorMap(DownstreamGuard::isRejection, e -> new DownstreamUnavailableException(downstream, e)));
+    }
+
+    /**
+     * Protege una escritura: sin reintentos, porque repetir una mutación sin clave de idempotencia
+     * podría aplicarla dos veces, y sin TimeLimiter: cortarla no deshace la mutación remota, y un 503
+     * tras un cambio ya aplicado dejaría el saldo movido sin transacción guardada. La acota el
+     * response-timeout del HttpClient (app.http-client.response-timeout).
+     * @param downstream Nombre del servicio remoto
+     * @param operation Operación, para las métricas y la traza
+     * @param call Llamada remota
+     * @return Mono protegido
+     */
+    public <T> Mono<T> write(String downstream, String operation, Mono<T> call) {
+        return observe(downstream, operation, guard(downstream, call)
+                .onErrorMap(DownstreamGuard::isRejection, e -> new DownstreamUnavailableException(downstream, e)));
+    }
+
+    private <T> Mono<T> observe(String downstream, String operation, Mono<T> call) {
+        return tracing.trace(downstream, operation, metrics.record(downstream, operation, call));
+    }
+
+    private <T> Mono<T> guard(String downstream, Mono<T> call) {
+        return call
+                .transformDeferred(BulkheadOperator.of(bulkheadRegistry.bulkhead(downstream)))
+                .transformDeferred(CircuitBreakerOperator.of(circuitBreakerRegistry.circuitBreaker(downstream)));
+    }
+
+    private static boolean isRejection(Throwable error) {
+        return error instanceof CallNotPermittedException
+                || error instanceof BulkheadFullException
+                || error instanceof TimeoutException;
+    }
+}
@@ -0,0 +1,73 @@
+package com.nttdata.bankapp.transaction.client;
+
+import com.nttdata.bankapp.transaction.config.OutcomeTimer;
+import com.nttdata.bankapp.transaction.exception.DownstreamUnavailableException;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Métricas de las llamadas a los servicios remotos:
+ * downstream.calls (timer por servicio, operación y resultado, con reintentos y esperas del guard incluidos)
+ * y downstream.inflight (llamadas en curso por servicio).
+ * Resultados: success, client_error (4xx), rejected (circuito abierto, bulkhead lleno o timeout), error, cancelled.
+ */
+@Component
+@RequiredArgsConstructor
+public class DownstreamMetrics {
+
+    private final MeterRegistry meterRegistry;
+    private final Map<String, OutcomeTimer> timers = new ConcurrentHashMap<>();
+    private final Map<String, AtomicInteger> inFlight = new ConcurrentHashMap<>();
+
+    /**
+     * Mide una llamada remota.
+     * @param downstream Nombre del servicio remoto
+     * @param operation Operación (p. ej. "balance", "exists")
+     * @param call Llamada remota
+     * @return Mono medido
+     */
+    public <T> Mono<T> record(String downstream, String operation, Mono<T> call) {
+        AtomicInteger current = inFlight(downstream);
+        return timer(downstream, operation).time(Mono.defer(() -> {
+            current.incrementAndGet();
+            return call.doFinally(signal -> current.decrementAndGet());
+        }));
+    }
+
+    int inFlightCount(String downstream) {
+        return inFlight(downstream).get();
+    }
+
+    private OutcomeTimer timer(String downstream, String operation) {
+        return timers.computeIfAbsent(downstream + ":" + operation, key -> new OutcomeTimer(meterRegistry,
+                "downstream.calls", "Llamadas a servicios remotos",
+                Tags.of("downstream", downstream, "operation", operation),
+                DownstreamMetrics::outcome));
+    }
+
+    private AtomicInteger inFlight(String downstream) {
+        return inFlight.computeIfAbsent(downstream, key -> {
+            AtomicInteger counter = new AtomicInteger();
+            Gauge.builder("downstream.inflight", counter, AtomicInteger::get)
+                    .description("Llamadas en curso a servicios remotos")
+                    .tag("downstream", key)
+                    .register(meterRegistry);
+            return counter;
+        });
+    }
+
+    private static String outcome(Throwable error) {
+        if (error instanceof DownstreamUnavailableException) {
+            return "rejected";
+        }
+        return DownstreamFailurePredicate.isClientError(error) ? "client_error" : OutcomeTimer.ERROR;
+    }
+}
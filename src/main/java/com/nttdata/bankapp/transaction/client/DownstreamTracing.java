@@ -0,0 +1,45 @@
+package com.nttdata.bankapp.transaction.client;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.cloud.sleuth.Span;
+import org.springframework.cloud.sleuth.TraceContext;
+import org.springframework.cloud.sleuth.Tracer;
+import org.springframework.cloud.sleuth.instrument.reactor.ReactorSleuth;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+
+/**
+ * Abre un span por operación remota ("accounts balance", "customers exists"...), hijo del span de la
+ * solicitud que viaja en el contexto de Reactor. Los spans HTTP del WebClient (uno por intento) quedan
+ * debajo, de modo que en la traza se ve cuánto esperó cada operación en bulkhead, reintentos y red.
+ */
+@Component
+@RequiredArgsConstructor
+public class DownstreamTracing {
+
+    private final Tracer tracer;
+
+    /**
+     * Ejecuta la llamada dentro de un span propio.
+     * @param downstream Nombre del servicio remoto
+     * @param operation Operación
+     * @param call Llamada remota
+     * @return Mono trazado
+     */
+    public <T> Mono<T> trace(String downstream, String operation, Mono<T> call) {
+        return Mono.deferContextual(context -> {
+            Span parent = ReactorSleuth.spanFromContext(tracer, tracer.currentTraceContext(), context);
+            Span span = (parent != null ? tracer.nextSpan(parent) : tracer.nextSpan())
+                    .name(downstream + " " + operation)
+                    .remoteServiceName(downstream)
+                    .tag("downstream", downstream)
+                    .tag("operation", operation)
+                    .start();
+            return call
+                    .doOnError(span::error)
+                    .doFinally(signal -> span.end())
+                    // WebClient y el driver de Mongo toman el span padre de estas claves del contexto
+                    .contextWrite(inner -> inner.put(Span.class, span).put(TraceContext.class, span.context()));
+        });
+    }
+}
@@ -0,0 +1,61 @@
+package com.nttdata.bankapp.transaction.client;
+
+import com.github.benmanes.caffeine.cache.AsyncCache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import com.nttdata.bankapp.transaction.config.ExistenceCacheProperties;
+import reactor.core.publisher.Mono;
+
+import java.util.function.Function;
+
+/**
+ * Caché asíncrona para verificaciones de existencia contra servicios externos.
+ * Las consultas concurrentes de un mismo ID que no están en caché comparten una sola llamada remota.
+ * Los errores no se guardan: el futuro fallido se descarta y la siguiente consulta vuelve a llamar.
+ */
+public class ExistenceCache {
+
+    private final AsyncCache<String, Boolean> cache;
+
+    ExistenceCache(ExistenceCacheProperties properties) {
+        long ttlNanos = properties.getTtl().toNanos();
+        long negativeTtlNanos = properties.getNegativeTtl().toNanos();
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(properties.getMaxSize())
+                .expireAfter(new Expiry<String, Boolean>() {
+                    @Override
+                    public long expireAfterCreate(String key, Boolean exists, long currentTime) {
+                        return exists ? ttlNanos : negativeTtlNanos;
+                    }
+
+                    @Override
+                    public long expireAfterUpdate(String key, Boolean exists, long currentTime, long currentDuration) {
+                        return expireAfterCreate(key, exists, currentTime);
+                    }
+
+                    @Override
+                    public long expireAfterRead(String key, Boolean exists, long currentTime, long currentDuration) {
+                        return currentDuration;
+                    }
+                })
+                .recordStats()
+                .buildAsync();
+    }
+
+    /**
+     * Devuelve el valor en caché o lo carga con el loader.
+     * @param id ID a verificar
+     * @param loader Llamada remota que resuelve la existencia
+     * @return Mono true si existe
+     */
+    public Mono<Boolean> get(String id, Function<String, Mono<Boolean>> loader) {
+        // suppressCancel: cancelar un suscriptor no debe cancelar la carga compartida con los demás.
+        // La carga lleva el contexto de quien la dispara, para que su span cuelgue de esa solicitud.
+        return Mono.deferContextual(context -> Mono.fromFuture(() -> cache.get(id,
+                (key, executor) -> loader.apply(key).contextWrite(context).toFuture()), true));
+    }
+
+    AsyncCache<String, Boolean> unwrap() {
+        return cache;
+    }
+}
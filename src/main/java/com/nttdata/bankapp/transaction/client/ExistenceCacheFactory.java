@@ -0,0 +1,31 @@
+package com.nttdata.bankapp.transaction.client;
+
+import com.nttdata.bankapp.transaction.config.ExistenceCacheProperties;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+/**
+ * Crea las cachés de existencia de cada cliente y registra sus métricas (cache.gets, cache.size, ...).
+ */
+@Component
+@EnableConfigurationProperties(ExistenceCacheProperties.class)
+@RequiredArgsConstructor
+public class ExistenceCacheFactory {
+
+    private final ExistenceCacheProperties properties;
+    private final MeterRegistry meterRegistry;
+
+    /**
+     * Crea una caché con nombre para las métricas.
+     * @param name Nombre de la caché (p. ej. "customers")
+     * @return ExistenceCache
+     */
+    public ExistenceCache create(String name) {
+        ExistenceCache existenceCache = new ExistenceCache(properties);
+        CaffeineCacheMetrics.monitor(meterRegistry, existenceCache.unwrap(), "existence." + name);
+        return existenceCache;
+    }
+}
@@ -0,0 +1,55 @@
+package com.nttdata.bankapp.transaction.client;
+
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.reactive.function.client.ClientResponse;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Mono;
+
+/**
+ * Verificación de existencia por código de estado, sin deserializar el cuerpo.
+ * Usa HEAD; si el servicio no lo admite (405) repite con GET y libera el cuerpo sin leerlo.
+ * 2xx -> true, 404 -> false, cualquier otro estado -> WebClientResponseException como retrieve().
+ */
+final class ExistenceProbe {
+
+    private ExistenceProbe() {
+    }
+
+    /**
+     * Consulta si el recurso existe.
+     * @param webClient Cliente del servicio remoto
+     * @param uriTemplate Ruta del recurso
+     * @param uriVariables Variables de la ruta
+     * @return Mono true si existe, false si responde 404
+     */
+    static Mono<Boolean> exists(WebClient webClient, String uriTemplate, Object... uriVariables) {
+        return probe(webClient, HttpMethod.HEAD, uriTemplate, uriVariables)
+                .switchIfEmpty(Mono.defer(() -> probe(webClient, HttpMethod.GET, uriTemplate, uriVariables)));
+    }
+
+    /**
+     * Lanza una consulta con el método indicado.
+     * @return Mono con el resultado, o vacío si el método no está permitido
+     */
+    private static Mono<Boolean> probe(WebClient webClient, HttpMethod method, String uriTemplate,
+                                       Object... uriVariables) {
+        return webClient.method(method)
+                .uri(uriTemplate, uriVariables)
+                .exchangeToMono(response -> toExistence(response, method));
+    }
+
+    private static Mono<Boolean> toExistence(ClientResponse response, HttpMethod method) {
+        HttpStatus status = response.statusCode();
+        if (status.is2xxSuccessful()) {
+            return response.releaseBody().thenReturn(true);
+        }
+        if (status == HttpStatus.NOT_FOUND) {
+            return response.releaseBody().thenReturn(false);
+        }
+        if (status == HttpStatus.METHOD_NOT_ALLOWED && method == HttpMethod.HEAD) {
+            return response.releaseBody().then(Mono.empty());
+        }
+        return response.createException().flatMap(Mono::error);
+    }
+}
@@ -0,0 +1,29 @@
+package com.nttdata.bankapp.transaction.client;
+
+import org.springframework.http.HttpHeaders;
+
+import java.util.function.Consumer;
+
+/**
+ * Cabecera de idempotencia para las mutaciones remotas reintentadas desde el outbox.
+ */
+final class IdempotencyKeys {
+
+    static final String HEADER = "Idempotency-Key";
+
+    private IdempotencyKeys() {
+    }
+
+    /**
+     * Añade la cabecera solo si hay clave; las llamadas síncronas no la envían.
+     * @param idempotencyKey Clave de idempotencia (puede ser null)
+     * @return Consumer de cabeceras
+     */
+    static Consumer<HttpHeaders> header(String idempotencyKey) {
+        return headers -> {
+            if (idempotencyKey != null) {
+                headers.set(HEADER, idempotencyKey);
+            }
+        };
+    }
+}
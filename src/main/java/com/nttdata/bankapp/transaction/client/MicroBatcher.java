@@ -0,0 +1,126 @@
+package com.nttdata.bankapp.transaction.client;
+
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+import reactor.core.scheduler.Scheduler;
+import reactor.core.scheduler.Schedulers;
+import reactor.util.context.ContextView;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+
+/**
+ * Agrupa las consultas por ID que llegan dentro de una ventana de tiempo (o hasta maxBatchSize IDs)
+ * y las resuelve juntas, repartiendo después cada resultado a sus suscriptores (patrón DataLoader).
+ * Los IDs repetidos dentro de la ventana comparten resultado; la llamada se hace con el contexto de
+ * Reactor (span de la traza incluido) del primero que pidió el ID.
+ * Ningún servicio remoto tiene endpoint de lote, así que las llamadas individuales salen en paralelo
+ * por una única cola del agrupador, como mucho concurrency a la vez sumando todas las ventanas.
+ * La deduplicación ya la dan ExistenceCache y SingleFlight; lo que aporta el agrupador, a cambio de como
+ * mucho app.micro-batch.window de latencia (2 ms por defecto), es que una ráfaga de solicitudes espera
+ * en esa cola en lugar de llenar de golpe el bulkhead del servicio remoto, que rechaza sin espera con 503.
+ */
+public class MicroBatcher<K, V> {
+
+    private final Duration window;
+    private final int maxBatchSize;
+    private final Scheduler scheduler;
+    private final Sinks.Many<Pending<K, V>> queue = Sinks.many().unicast().onBackpressureBuffer();
+
+    private Map<K, Pending<K, V>> batch = new LinkedHashMap<>();
+
+    MicroBatcher(Duration window, int maxBatchSize, int concurrency, Function<K, Mono<V>> loader,
+                 Scheduler scheduler) {
+        this.window = window;
+        this.maxBatchSize = maxBatchSize;
+        this.scheduler = scheduler;
+        // Un solo flujo para todas las ventanas: la concurrencia se acota entre ventanas, no por ventana
+        queue.asFlux()
+                .flatMap(pending -> Mono.defer(() -> loader.apply(pending.key))
+                        // Contexto de quien encoló el ID: la llamada cuelga del span de su solicitud
+                        .contextWrite(pending.context)
+                        .doOnNext(pending.sink::tryEmitValue)
+                        .doOnSuccess(value -> pending.sink.tryEmitEmpty())
+                        .doOnError(pending.sink::tryEmitError)
+                        .onErrorResume(e -> Mono.empty()), concurrency)
+                .subscribe();
+    }
+
+    /**
+     * Crea un agrupador para servicios sin endpoint de lote: las llamadas individuales salen en
+     * paralelo, como mucho concurrency a la vez. Un error solo afecta a su propio ID.
+     * @param window Ventana de agrupación
+     * @param maxBatchSize IDs máximos por lote
+     * @param concurrency Llamadas simultáneas del agrupador
+     * @param loader Llamada individual
+     * @return MicroBatcher
+     */
+    public static <K, V> MicroBatcher<K, V> parallel(Duration window, int maxBatchSize, int concurrency,
+                                                     Function<K, Mono<V>> loader) {
+        return new MicroBatcher<>(window, maxBatchSize, concurrency, loader, Schedulers.parallel());
+    }
+
+    /**
+     * Encola el ID en la ventana actual.
+     * @param key ID a consultar
+     * @return Mono con el resultado del ID
+     */
+    public Mono<V> load(K key) {
+        return Mono.deferContextual(context -> {
+            Pending<K, V> pending;
+            Map<K, Pending<K, V>> full = null;
+            synchronized (this) {
+                Map<K, Pending<K, V>> current = batch;
+                if (current.isEmpty()) {
+                    // El primer ID de la ventana programa su cierre
+                    scheduler.schedule(() -> flush(current), window.toNanos(), TimeUnit.NANOSECONDS);
+                }
+                pending = current.computeIfAbsent(key, k -> new Pending<>(k, context));
+                if (current.size() >= maxBatchSize) {
+                    batch = new LinkedHashMap<>();
+                    full = current;
+                }
+            }
+            if (full != null) {
+                dispatch(full);
+            }
+            return pending.sink.asMono();
+        });
+    }
+
+    private void flush(Map<K, Pending<K, V>> expected) {
+        synchronized (this) {
+            // La ventana ya salió por tamaño
+            if (batch != expected) {
+                return;
+            }
+            batch = new LinkedHashMap<>();
+        }
+        dispatch(expected);
+    }
+
+    private void dispatch(Map<K, Pending<K, V>> pendings) {
+        // La cola admite un solo emisor a la vez; el búfer no tiene límite, así que no rechaza por tamaño
+        synchronized (queue) {
+            pendings.values().forEach(queue::tryEmitNext);
+        }
+    }
+
+    synchronized int pendingCount() {
+        return batch.size();
+    }
+
+    private static final class Pending<K, V> {
+        private final K key;
+        private final ContextView context;
+        private final Sinks.One<V> sink = Sinks.one();
+
+        private Pending(K key, ContextView context) {
+            this.key = key;
+            this.context = context;
+        }
+    }
+}
@@ -0,0 +1,30 @@
+package com.nttdata.bankapp.transaction.client;
+
+import com.nttdata.bankapp.transaction.config.MicroBatchProperties;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+
+import java.util.function.Function;
+
+/**
+ * Crea los agrupadores de consultas de los clientes con la ventana y límites configurados.
+ */
+@Component
+@EnableConfigurationProperties(MicroBatchProperties.class)
+@RequiredArgsConstructor
+public class MicroBatcherFactory {
+
+    private final MicroBatchProperties properties;
+
+    /**
+     * Crea un agrupador que reparte las llamadas individuales en paralelo.
+     * @param loader Llamada individual
+     * @return MicroBatcher
+     */
+    public <K, V> MicroBatcher<K, V> parallel(Function<K, Mono<V>> loader) {
+        return MicroBatcher.parallel(properties.getWindow(), properties.getMaxBatchSize(),
+                properties.getConcurrency(), loader);
+    }
+}
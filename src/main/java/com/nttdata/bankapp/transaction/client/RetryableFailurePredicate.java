@@ -0,0 +1,21 @@
+package com.nttdata.bankapp.transaction.client;
+
+import io.github.resilience4j.bulkhead.BulkheadFullException;
+import io.github.resilience4j.circuitbreaker.CallNotPermittedException;
+
+import java.util.function.Predicate;
+
+/**
+ * Indica si una lectura fallida merece reintento: no se reintentan los errores 4xx ni los rechazos
+ * del propio circuito o bulkhead, que deben fallar rápido.
+ * Se referencia por nombre de clase en resilience4j.retry.configs.*.retry-exception-predicate.
+ */
+public class RetryableFailurePredicate implements Predicate<Throwable> {
+
+    @Override
+    public boolean test(Throwable error) {
+        return !(error instanceof CallNotPermittedException)
+                && !(error instanceof BulkheadFullException)
+                && !DownstreamFailurePredicate.isClientError(error);
+    }
+}
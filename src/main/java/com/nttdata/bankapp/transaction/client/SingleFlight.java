@@ -0,0 +1,43 @@
+package com.nttdata.bankapp.transaction.client;
+
+import reactor.core.publisher.Mono;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Supplier;
+
+/**
+ * Agrupa las llamadas concurrentes con la misma clave en una sola llamada remota.
+ * Solo se comparte la llamada en curso: se retira del mapa antes de que su resultado se publique,
+ * de modo que quien llega después de esa señal dispara una llamada nueva y nunca recibe un valor antiguo.
+ */
+public class SingleFlight<K, V> {
+
+    private final ConcurrentMap<K, Mono<V>> inFlight = new ConcurrentHashMap<>();
+
+    /**
+     * Ejecuta la llamada o se une a la que ya está en curso para la misma clave.
+     * @param key Clave de agrupación (p. ej. ID de cuenta)
+     * @param call Llamada remota
+     * @return Mono con el resultado compartido
+     */
+    public Mono<V> execute(K key, Supplier<Mono<V>> call) {
+        return Mono.defer(() -> inFlight.computeIfAbsent(key, k -> flight(k, call)));
+    }
+
+    private Mono<V> flight(K key, Supplier<Mono<V>> call) {
+        AtomicReference<Mono<V>> self = new AtomicReference<>();
+        Mono<V> flight = Mono.defer(call)
+                // Antes de que la señal llegue a cache(): solo se retira esta llamada, no una más reciente
+                .doOnEach(signal -> inFlight.remove(key, self.get()))
+                // cache(): los suscriptores que la encontraron en curso reciben la misma señal
+                .cache();
+        self.set(flight);
+        return flight;
+    }
+
+    int inFlightCount() {
+        return inFlight.size();
+    }
+}
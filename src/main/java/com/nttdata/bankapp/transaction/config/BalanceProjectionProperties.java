@@ -0,0 +1,22 @@
+package com.nttdata.bankapp.transaction.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * Parámetros de la proyección local de saldos por cuenta. Con enabled=true cada transacción guardada
+ * registra sus deltas, los retiros verifican fondos contra la proyección y un proceso periódico la
+ * compara con el servicio de cuentas.
+ */
+@Data
+@ConfigurationProperties(prefix = "app.balance-projection")
+public class BalanceProjectionProperties {
+    private boolean enabled = false;
+    private int snapshotEvery = 50; // Deltas acumulados que disparan un nuevo snapshot al leer
+    private Duration compactionGrace = Duration.ofSeconds(30); // Antigüedad mínima de un delta para compactarlo
+    private Duration reconcileInterval = Duration.ofMinutes(10);
+    private int reconcileBatchSize = 100;
+    private int reconcileConcurrency = 4;
+}
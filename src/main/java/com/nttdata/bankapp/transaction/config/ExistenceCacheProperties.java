@@ -0,0 +1,18 @@
+package com.nttdata.bankapp.transaction.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * Parámetros de la caché de verificaciones de existencia (clientes, cuentas, créditos y tarjetas).
+ * Los resultados negativos se guardan menos tiempo para que un alta reciente se vea pronto.
+ */
+@Data
+@ConfigurationProperties(prefix = "app.cache.existence")
+public class ExistenceCacheProperties {
+    private Duration ttl = Duration.ofMinutes(5);
+    private Duration negativeTtl = Duration.ofSeconds(30);
+    private long maxSize = 10_000;
+}
@@ -0,0 +1,43 @@
+package com.nttdata.bankapp.transaction.config;
+
+import io.netty.channel.ChannelOption;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.client.reactive.ReactorClientHttpConnector;
+import reactor.netty.http.client.HttpClient;
+import reactor.netty.resources.ConnectionProvider;
+
+/**
+ * Configuración del HttpClient compartido por todos los WebClient.
+ * Al exponer un ClientHttpConnector, Spring Boot lo aplica al WebClient.Builder autoconfigurado,
+ * por lo que cada cliente que parte de ese builder usa el mismo pool.
+ */
+@Configuration
+@EnableConfigurationProperties(HttpClientProperties.class)
+public class HttpClientConfig {
+
+    @Bean(destroyMethod = "dispose")
+    public ConnectionProvider downstreamConnectionProvider(HttpClientProperties properties) {
+        return ConnectionProvider.builder("downstream")
+                .maxConnections(properties.getMaxConnections())
+                .pendingAcquireMaxCount(properties.getPendingAcquireMaxCount())
+                .pendingAcquireTimeout(properties.getPendingAcquireTimeout())
+                .maxIdleTime(properties.getMaxIdleTime())
+                .maxLifeTime(properties.getMaxLifeTime())
+                .evictInBackground(properties.getEvictInBackground())
+                // Publica reactor.netty.connection.provider.* (conexiones activas, ociosas y pendientes)
+                .metrics(properties.isMetricsEnabled())
+                .build();
+    }
+
+    @Bean
+    public ReactorClientHttpConnector downstreamClientHttpConnector(ConnectionProvider downstreamConnectionProvider,
+                                                                    HttpClientProperties properties) {
+        HttpClient httpClient = HttpClient.create(downstreamConnectionProvider)
+                .option(ChannelOption.CONNECT_TIMEOUT_MILLIS, (int) properties.getConnectTimeout().toMillis())
+                .responseTimeout(properties.getResponseTimeout())
+                .keepAlive(properties.isKeepAlive());
+        return new ReactorClientHttpConnector(httpClient);
+    }
+}
@@ -0,0 +1,19 @@
+package com.nttdata.bankapp.transaction.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * Parámetros del agrupamiento de consultas de existencia y saldo hacia los servicios remotos.
+ * La ventana añade como mucho su duración a la latencia de una consulta aislada; concurrency acota las
+ * llamadas simultáneas de cada agrupador, y las que la superan esperan en su cola.
+ */
+@Data
+@ConfigurationProperties(prefix = "app.micro-batch")
+public class MicroBatchProperties {
+    private Duration window = Duration.ofMillis(2);
+    private int maxBatchSize = 100;
+    private int concurrency = 16;
+}
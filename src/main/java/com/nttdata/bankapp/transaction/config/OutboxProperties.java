@@ -0,0 +1,24 @@
+package com.nttdata.bankapp.transaction.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * Parámetros del outbox de transacciones. Con enabled=false las escrituras llaman a los servicios
+ * remotos de forma síncrona y el dispatcher no se arranca: los pendientes que hubieran quedado de un
+ * despliegue anterior se drenan al volver a activarlo.
+ */
+@Data
+@ConfigurationProperties(prefix = "app.outbox")
+public class OutboxProperties {
+    private boolean enabled = false;
+    private Duration pollInterval = Duration.ofSeconds(1);
+    private int batchSize = 100;
+    private int concurrency = 8;
+    private Duration lease = Duration.ofSeconds(30);
+    private int maxAttempts = 10;
+    private Duration initialBackoff = Duration.ofSeconds(1);
+    private Duration maxBackoff = Duration.ofMinutes(5);
+}
@@ -0,0 +1,82 @@
+package com.nttdata.bankapp.transaction.config;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.Timer;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+
+/**
+ * Temporizador de etapas reactivas: mide desde la suscripción hasta la señal final, no desde el
+ * ensamblado, y etiqueta el resultado (success, cancelled o el que asigne el clasificador al error).
+ * Publica histograma de percentiles para poder calcular p99 agregados en Prometheus.
+ */
+public class OutcomeTimer {
+
+    public static final String SUCCESS = "success";
+    public static final String CANCELLED = "cancelled";
+    public static final String ERROR = "error";
+
+    private final MeterRegistry registry;
+    private final String name;
+    private final String description;
+    private final Tags tags;
+    private final Function<Throwable, String> classifier;
+    private final Map<String, Timer> timers = new ConcurrentHashMap<>();
+
+    public OutcomeTimer(MeterRegistry registry, String name, String description, Tags tags,
+                        Function<Throwable, String> classifier) {
+        this.registry = registry;
+        this.name = name;
+        this.description = description;
+        this.tags = tags;
+        this.classifier = classifier;
+    }
+
+    public OutcomeTimer(MeterRegistry registry, String name, String description, Tags tags) {
+        this(registry, name, description, tags, e -> ERROR);
+    }
+
+    /**
+     * Mide cada suscripción al Mono.
+     * @param source Mono a medir
+     * @return Mono medido
+     */
+    public <T> Mono<T> time(Mono<T> source) {
+        return Mono.defer(() -> {
+            Timer.Sample sample = Timer.start(registry);
+            return source
+                    .doOnSuccess(value -> sample.stop(timer(SUCCESS)))
+                    .doOnError(e -> sample.stop(timer(classifier.apply(e))))
+                    .doOnCancel(() -> sample.stop(timer(CANCELLED)));
+        });
+    }
+
+    /**
+     * Mide cada suscripción al Flux, hasta su último elemento.
+     * @param source Flux a medir
+     * @return Flux medido
+     */
+    public <T> Flux<T> time(Flux<T> source) {
+        return Flux.defer(() -> {
+            Timer.Sample sample = Timer.start(registry);
+            return source
+                    .doOnComplete(() -> sample.stop(timer(SUCCESS)))
+                    .doOnError(e -> sample.stop(timer(classifier.apply(e))))
+                    .doOnCancel(() -> sample.stop(timer(CANCELLED)));
+        });
+    }
+
+    Timer timer(String outcome) {
+        return timers.computeIfAbsent(outcome, key -> Timer.builder(name)
+                .description(description)
+                .tags(tags)
+                .tag("outcome", key)
+                .publishPercentileHistogram()
+                .register(registry));
+    }
+}
@@ -0,0 +1,71 @@
+package com.nttdata.bankapp.transaction.config;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import org.aopalliance.intercept.MethodInterceptor;
+import org.aopalliance.intercept.MethodInvocation;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.data.repository.core.support.RepositoryFactoryBeanSupport;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Mide cada llamada a los repositorios (consultas derivadas, @Query, agregaciones y fragmentos custom)
+ * con el timer repository.calls, etiquetado por repositorio, método y resultado.
+ * El timer de Spring Data (spring.data.repository.invocations) solo mide el ensamblado del Mono/Flux;
+ * aquí se mide desde la suscripción hasta la señal final, que es cuando Mongo trabaja.
+ */
+@Component
+public class RepositoryMetricsPostProcessor implements BeanPostProcessor {
+
+    private final ObjectProvider<MeterRegistry> meterRegistry;
+    private final Map<String, OutcomeTimer> timers = new ConcurrentHashMap<>();
+
+    public RepositoryMetricsPostProcessor(ObjectProvider<MeterRegistry> meterRegistry) {
+        this.meterRegistry = meterRegistry;
+    }
+
+    @Override
+    public Object postProcessBeforeInitialization(Object bean, String beanName) {
+        if (bean instanceof RepositoryFactoryBeanSupport) {
+            ((RepositoryFactoryBeanSupport<?, ?, ?>) bean).addRepositoryFactoryCustomizer(factory ->
+                    factory.addRepositoryProxyPostProcessor((proxyFactory, information) -> proxyFactory.addAdvice(
+                            new TimingInterceptor(information.getRepositoryInterface().getSimpleName()))));
+        }
+        return bean;
+    }
+
+    private OutcomeTimer timer(String repository, String method) {
+        // El registro se resuelve en la primera llamada: este post-procesador se crea antes que él
+        return timers.computeIfAbsent(repository + "#" + method, key -> new OutcomeTimer(meterRegistry.getObject(),
+                "repository.calls", "Llamadas a repositorios de Mongo",
+                Tags.of("repository", repository, "method", method)));
+    }
+
+    private class TimingInterceptor implements MethodInterceptor {
+
+        private final String repository;
+
+        TimingInterceptor(String repository) {
+            this.repository = repository;
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        public Object invoke(MethodInvocation invocation) throws Throwable {
+            Object result = invocation.proceed();
+            if (result instanceof Mono) {
+                return timer(repository, invocation.getMethod().getName()).time((Mono<Object>) result);
+            }
+            if (result instanceof Flux) {
+                return timer(repository, invocation.getMethod().getName()).time((Flux<Object>) result);
+            }
+            return result;
+        }
+    }
+}
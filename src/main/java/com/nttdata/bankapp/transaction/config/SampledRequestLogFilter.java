@@ -0,0 +1,48 @@
+package com.nttdata.bankapp.transaction.config;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.server.reactive.ServerHttpRequest;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ServerWebExchange;
+import org.springframework.web.server.WebFilter;
+import org.springframework.web.server.WebFilterChain;
+import reactor.core.publisher.Mono;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Log de acceso muestreado: una línea INFO (método, ruta, estado y duración) para una fracción
+ * app.logging.request-sample-rate de las solicitudes. Sustituye al log por solicitud de controladores,
+ * servicios y clientes, que queda en DEBUG; el volumen total lo dan las métricas http.server.requests.
+ */
+@Slf4j
+@Component
+public class SampledRequestLogFilter implements WebFilter {
+
+    private final double sampleRate;
+
+    public SampledRequestLogFilter(@Value("${app.logging.request-sample-rate:0.01}") double sampleRate) {
+        this.sampleRate = sampleRate;
+    }
+
+    @Override
+    public Mono<Void> filter(ServerWebExchange exchange, WebFilterChain chain) {
+        if (!sampled()) {
+            return chain.filter(exchange);
+        }
+        long start = System.nanoTime();
+        return chain.filter(exchange)
+                .doFinally(signal -> {
+                    ServerHttpRequest request = exchange.getRequest();
+                    log.info("{} {} -> {} in {} ms", request.getMethodValue(), request.getPath().value(),
+                            exchange.getResponse().getRawStatusCode(),
+                            TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+                });
+    }
+
+    boolean sampled() {
+        return sampleRate > 0 && log.isInfoEnabled() && ThreadLocalRandom.current().nextDouble() < sampleRate;
+    }
+}
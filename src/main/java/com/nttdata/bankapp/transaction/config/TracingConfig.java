@@ -0,0 +1,36 @@
+package com.nttdata.bankapp.transaction.config;
+
+import brave.handler.MutableSpan;
+import brave.handler.SpanHandler;
+import brave.propagation.TraceContext;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Exportación de trazas. Hacia un colector Zipkin con spring.zipkin.enabled=true (spring.zipkin.base-url);
+ * sin colector, app.tracing.log-spans=true escribe cada span terminado en el logger "tracing.spans"
+ * en formato JSON de Zipkin. El muestreo se controla con spring.sleuth.sampler.probability.
+ */
+@Configuration
+public class TracingConfig {
+
+    @Bean
+    @ConditionalOnProperty(name = "app.tracing.log-spans", havingValue = "true")
+    public SpanHandler loggingSpanHandler() {
+        return new LoggingSpanHandler();
+    }
+
+    @Slf4j(topic = "tracing.spans")
+    static class LoggingSpanHandler extends SpanHandler {
+
+        @Override
+        public boolean end(TraceContext context, MutableSpan span, Cause cause) {
+            if (cause == Cause.FINISHED && log.isInfoEnabled()) {
+                log.info("{}", span);
+            }
+            return true;
+        }
+    }
+}
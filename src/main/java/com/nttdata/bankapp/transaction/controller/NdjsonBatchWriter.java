@@ -0,0 +1,68 @@
+package com.nttdata.bankapp.transaction.controller;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferFactory;
+import org.springframework.core.io.buffer.DataBufferUtils;
+import org.springframework.http.codec.EncoderHttpMessageWriter;
+import org.springframework.http.codec.ServerCodecConfigurer;
+import org.springframework.http.codec.json.Jackson2JsonEncoder;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Flux;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.List;
+
+/**
+ * Codifica un Flux como NDJSON agrupando las filas en buffers de tamaño acotado,
+ * de modo que el servidor hace un flush por lote y no por fila.
+ * Usa el mismo ObjectMapper que los codecs de WebFlux para que el formato coincida con los endpoints JSON.
+ */
+@Component
+public class NdjsonBatchWriter {
+
+    private static final byte NEW_LINE = '\n';
+
+    private final ObjectMapper objectMapper;
+
+    public NdjsonBatchWriter(ServerCodecConfigurer codecConfigurer) {
+        this.objectMapper = codecConfigurer.getWriters().stream()
+                .filter(EncoderHttpMessageWriter.class::isInstance)
+                .map(writer -> ((EncoderHttpMessageWriter<?>) writer).getEncoder())
+                .filter(Jackson2JsonEncoder.class::isInstance)
+                .map(encoder -> ((Jackson2JsonEncoder) encoder).getObjectMapper())
+                .findFirst()
+                .orElseGet(() -> Jackson2ObjectMapperBuilder.json().build());
+    }
+
+    /**
+     * Convierte las filas en buffers NDJSON de hasta batchSize filas cada uno.
+     * buffer() pide batchSize filas por cada buffer demandado, así la contrapresión llega hasta el cursor.
+     * @param rows Filas a exportar
+     * @param batchSize Filas por buffer
+     * @param bufferFactory Fábrica de buffers de la respuesta
+     * @return Flux de DataBuffer
+     */
+    public <T> Flux<DataBuffer> write(Flux<T> rows, int batchSize, DataBufferFactory bufferFactory) {
+        return rows.buffer(batchSize)
+                .map(batch -> encode(batch, bufferFactory));
+    }
+
+    private DataBuffer encode(List<?> batch, DataBufferFactory bufferFactory) {
+        DataBuffer buffer = bufferFactory.allocateBuffer();
+        try (JsonGenerator generator = objectMapper.getFactory().createGenerator(buffer.asOutputStream())) {
+            generator.setRootValueSeparator(null);
+            for (Object row : batch) {
+                objectMapper.writeValue(generator, row);
+                generator.writeRaw((char) NEW_LINE);
+            }
+        } catch (IOException e) {
+            DataBufferUtils.release(buffer);
+            throw new UncheckedIOException("Error encoding export batch", e);
+        }
+        return buffer;
+    }
+}
@@ -0,0 +1,90 @@
+package com.nttdata.bankapp.transaction.controller;
+
+import com.nttdata.bankapp.transaction.dto.CardTicketDto;
+import com.nttdata.bankapp.transaction.dto.CustomerVolumeDto;
+import com.nttdata.bankapp.transaction.dto.MonthlyFeeRevenueDto;
+import com.nttdata.bankapp.transaction.dto.TypeTotalsDto;
+import com.nttdata.bankapp.transaction.service.TransactionAnalyticsService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import reactor.core.publisher.Flux;
+
+import java.time.LocalDateTime;
+
+/**
+ * Controlador de analítica de transacciones. Todas las consultas agrupan en Mongo dentro de
+ * [startDate, endDate) y excluyen las transacciones FAILED del outbox.
+ */
+@RestController
+@RequestMapping("/transactions/analytics")
+@RequiredArgsConstructor
+@Slf4j
+public class TransactionAnalyticsController {
+
+    private final TransactionAnalyticsService analyticsService;
+
+    /**
+     * Número, monto y comisiones por tipo de transacción.
+     * @param startDate Fecha inicial (incluida)
+     * @param endDate Fecha final (excluida)
+     * @return Flux de TypeTotalsDto
+     */
+    @GetMapping("/totals-by-type")
+    public Flux<TypeTotalsDto> getTotalsByType(
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime startDate,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime endDate) {
+        log.debug("GET /transactions/analytics/totals-by-type between {} and {}", startDate, endDate);
+        return analyticsService.totalsByType(startDate, endDate);
+    }
+
+    /**
+     * Clientes con mayor volumen operado.
+     * @param startDate Fecha inicial (incluida)
+     * @param endDate Fecha final (excluida)
+     * @param limit Número de clientes
+     * @return Flux de CustomerVolumeDto
+     */
+    @GetMapping("/top-customers")
+    public Flux<CustomerVolumeDto> getTopCustomers(
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime startDate,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime endDate,
+            @RequestParam(required = false) Integer limit) {
+        log.debug("GET /transactions/analytics/top-customers between {} and {}", startDate, endDate);
+        return analyticsService.topCustomers(startDate, endDate, limit);
+    }
+
+    /**
+     * Comisiones cobradas por mes.
+     * @param startDate Fecha inicial (incluida)
+     * @param endDate Fecha final (excluida)
+     * @return Flux de MonthlyFeeRevenueDto
+     */
+    @GetMapping("/fee-revenue")
+    public Flux<MonthlyFeeRevenueDto> getFeeRevenue(
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime startDate,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime endDate) {
+        log.debug("GET /transactions/analytics/fee-revenue between {} and {}", startDate, endDate);
+        return analyticsService.feeRevenueByMonth(startDate, endDate);
+    }
+
+    /**
+     * Ticket medio de consumo por tarjeta de crédito.
+     * @param startDate Fecha inicial (incluida)
+     * @param endDate Fecha final (excluida)
+     * @param limit Número de tarjetas
+     * @return Flux de CardTicketDto
+     */
+    @GetMapping("/average-ticket")
+    public Flux<CardTicketDto> getAverageTicket(
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime startDate,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime endDate,
+            @RequestParam(required = false) Integer limit) {
+        log.debug("GET /transactions/analytics/average-ticket between {} and {}", startDate, endDate);
+        return analyticsService.averageTicketByCard(startDate, endDate, limit);
+    }
+}
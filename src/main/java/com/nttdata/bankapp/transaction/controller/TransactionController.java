@@ -1,17 +1,27 @@
 package com.nttdata.bankapp.transaction.controller;
 
 import com.nttdata.bankapp.transaction.dto.*;
+import com.nttdata.bankapp.transaction.service.BalanceProjectionService;
+import com.nttdata.bankapp.transaction.model.RollupGranularity;
+import com.nttdata.bankapp.transaction.model.RollupScope;
+import com.nttdata.bankapp.transaction.service.BulkTransactionService;
+import com.nttdata.bankapp.transaction.service.TransactionRollupService;
 import com.nttdata.bankapp.transaction.service.TransactionService;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.buffer.DataBuffer;
 import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.http.server.reactive.ServerHttpResponse;
 import org.springframework.web.bind.annotation.*;
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 
 import javax.validation.Valid;
+import java.time.LocalDate;
 import java.time.LocalDateTime;
 
 /**
@@ -24,15 +34,29 @@ import java.time.LocalDateTime;
 public class TransactionController {
 
     private final TransactionService transactionService;
+    private final BulkTransactionService bulkTransactionService;
+    private final BalanceProjectionService balanceProjectionService;
+    private final TransactionRollupService transactionRollupService;
+    private final NdjsonBatchWriter ndjsonBatchWriter;
+
+    @Value("${app.export.batch-size:500}")
+    private int exportBatchSize;
+
+    @Value("${app.bulk.chunk-size:500}")
+    private int bulkChunkSize;
 
     /**
-     * Obtiene todas las transacciones.
-     * @return Flux de TransactionDto
+     * Obtiene todas las transacciones, paginadas.
+     * @param cursor Token de continuación de la página anterior
+     * @param size Tamaño de página
+     * @return Mono de PageResponse
      */
     @GetMapping
-    public Flux<TransactionDto> getAll() {
-        log.info("GET /transactions");
-        return transactionService.findAll();
+    public Mono<PageResponse<TransactionDto>> getAll(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer size) {
+        log.debug("GET /transactions");
+        return transactionService.findPage(cursor, size);
     }
 
     /**
@@ -42,84 +66,321 @@ public class TransactionController {
      */
     @GetMapping("/{id}")
     public Mono<ResponseEntity<TransactionDto>> getById(@PathVariable String id) {
-        log.info("GET /transactions/{}", id);
+        log.debug("GET /transactions/{}", id);
         return transactionService.findById(id)
                 .map(ResponseEntity::ok)
                 .defaultIfEmpty(ResponseEntity.notFound().build());
     }
 
     /**
-     * Obtiene las transacciones de una cuenta.
+     * Obtiene las transacciones de una cuenta, paginadas.
      * @param accountId ID de la cuenta
-     * @return Flux de TransactionDto
+     * @param cursor Token de continuación de la página anterior
+     * @param size Tamaño de página
+     * @return Mono de PageResponse
      */
     @GetMapping("/account/{accountId}")
-    public Flux<TransactionDto> getByAccountId(@PathVariable String accountId) {
-        log.info("GET /transactions/account/{}", accountId);
-        return transactionService.findByAccountId(accountId);
+    public Mono<PageResponse<TransactionDto>> getByAccountId(
+            @PathVariable String accountId,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer size) {
+        log.debug("GET /transactions/account/{}", accountId);
+        return transactionService.findPageByAccountId(accountId, cursor, size);
+    }
+
+    /**
+     * Obtiene las líneas de movimiento (id, tipo, monto, fecha) de una cuenta, paginadas.
+     * Lee de Mongo solo esos cuatro campos; pensado para listados de alto volumen.
+     * @param accountId ID de la cuenta
+     * @param cursor Token de continuación de la página anterior
+     * @param size Tamaño de página
+     * @return Mono de PageResponse
+     */
+    @GetMapping("/account/{accountId}/lines")
+    public Mono<PageResponse<TransactionLineDto>> getAccountLines(
+            @PathVariable String accountId,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer size) {
+        log.debug("GET /transactions/account/{}/lines", accountId);
+        return transactionService.findLinePageByAccountId(accountId, cursor, size);
     }
 
     /**
-     * Obtiene las transacciones de un crédito.
+     * Obtiene el saldo de una cuenta según la proyección local (snapshot más deltas posteriores).
+     * @param accountId ID de la cuenta
+     * @return Mono de AccountBalanceDto
+     */
+    @GetMapping("/account/{accountId}/balance")
+    public Mono<AccountBalanceDto> getAccountBalance(@PathVariable String accountId) {
+        log.debug("GET /transactions/account/{}/balance", accountId);
+        return balanceProjectionService.getBalance(accountId);
+    }
+
+    /**
+     * Resumen de transacciones de una cuenta por día o por mes, leído de los resúmenes precalculados.
+     * @param accountId ID de la cuenta
+     * @param granularity DAY o MONTH
+     * @param from Fecha inicial (incluida)
+     * @param to Fecha final (incluida)
+     * @return Mono de TransactionSummaryDto
+     */
+    @GetMapping("/summary/account/{accountId}")
+    public Mono<TransactionSummaryDto> getAccountSummary(
+            @PathVariable String accountId,
+            @RequestParam(defaultValue = "DAY") RollupGranularity granularity,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to) {
+        log.debug("GET /transactions/summary/account/{}", accountId);
+        return transactionRollupService.summarize(RollupScope.ACCOUNT, accountId, granularity, from, to);
+    }
+
+    /**
+     * Resumen de transacciones de una tarjeta de crédito por día o por mes.
+     * @param creditCardId ID de la tarjeta de crédito
+     * @param granularity DAY o MONTH
+     * @param from Fecha inicial (incluida)
+     * @param to Fecha final (incluida)
+     * @return Mono de TransactionSummaryDto
+     */
+    @GetMapping("/summary/credit-card/{creditCardId}")
+    public Mono<TransactionSummaryDto> getCreditCardSummary(
+            @PathVariable String creditCardId,
+            @RequestParam(defaultValue = "DAY") RollupGranularity granularity,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to) {
+        log.debug("GET /transactions/summary/credit-card/{}", creditCardId);
+        return transactionRollupService.summarize(RollupScope.CREDIT_CARD, creditCardId, granularity, from, to);
+    }
+
+    /**
+     * Resumen de transacciones de un cliente por día o por mes.
+     * @param customerId ID del cliente
+     * @param granularity DAY o MONTH
+     * @param from Fecha inicial (incluida)
+     * @param to Fecha final (incluida)
+     * @return Mono de TransactionSummaryDto
+     */
+    @GetMapping("/summary/customer/{customerId}")
+    public Mono<TransactionSummaryDto> getCustomerSummary(
+            @PathVariable String customerId,
+            @RequestParam(defaultValue = "DAY") RollupGranularity granularity,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to) {
+        log.debug("GET /transactions/summary/customer/{}", customerId);
+        return transactionRollupService.summarize(RollupScope.CUSTOMER, customerId, granularity, from, to);
+    }
+
+    /**
+     * Obtiene las transacciones de un crédito, paginadas.
      * @param creditId ID del crédito
-     * @return Flux de TransactionDto
+     * @param cursor Token de continuación de la página anterior
+     * @param size Tamaño de página
+     * @return Mono de PageResponse
      */
     @GetMapping("/credit/{creditId}")
-    public Flux<TransactionDto> getByCreditId(@PathVariable String creditId) {
-        log.info("GET /transactions/credit/{}", creditId);
-        return transactionService.findByCreditId(creditId);
+    public Mono<PageResponse<TransactionDto>> getByCreditId(
+            @PathVariable String creditId,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer size) {
+        log.debug("GET /transactions/credit/{}", creditId);
+        return transactionService.findPageByCreditId(creditId, cursor, size);
     }
 
     /**
-     * Obtiene las transacciones de una tarjeta de crédito.
+     * Obtiene las transacciones de una tarjeta de crédito, paginadas.
      * @param creditCardId ID de la tarjeta de crédito
-     * @return Flux de TransactionDto
+     * @param cursor Token de continuación de la página anterior
+     * @param size Tamaño de página
+     * @return Mono de PageResponse
      */
     @GetMapping("/credit-card/{creditCardId}")
-    public Flux<TransactionDto> getByCreditCardId(@PathVariable String creditCardId) {
-        log.info("GET /transactions/credit-card/{}", creditCardId);
-        return transactionService.findByCreditCardId(creditCardId);
+    public Mono<PageResponse<TransactionDto>> getByCreditCardId(
+            @PathVariable String creditCardId,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer size) {
+        log.debug("GET /transactions/credit-card/{}", creditCardId);
+        return transactionService.findPageByCreditCardId(creditCardId, cursor, size);
     }
 
     /**
-     * Obtiene las transacciones de un cliente.
+     * Obtiene las líneas de movimiento (id, tipo, monto, fecha) de una tarjeta de crédito, paginadas.
+     * Lee de Mongo solo esos cuatro campos; pensado para listados de alto volumen.
+     * @param creditCardId ID de la tarjeta de crédito
+     * @param cursor Token de continuación de la página anterior
+     * @param size Tamaño de página
+     * @return Mono de PageResponse
+     */
+    @GetMapping("/credit-card/{creditCardId}/lines")
+    public Mono<PageResponse<TransactionLineDto>> getCreditCardLines(
+            @PathVariable String creditCardId,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer size) {
+        log.debug("GET /transactions/credit-card/{}/lines", creditCardId);
+        return transactionService.findLinePageByCreditCardId(creditCardId, cursor, size);
+    }
+
+    /**
+     * Obtiene las transacciones de un cliente, paginadas.
      * @param customerId ID del cliente
-     * @return Flux de TransactionDto
+     * @param cursor Token de continuación de la página anterior
+     * @param size Tamaño de página
+     * @return Mono de PageResponse
      */
     @GetMapping("/customer/{customerId}")
-    public Flux<TransactionDto> getByCustomerId(@PathVariable String customerId) {
-        log.info("GET /transactions/customer/{}", customerId);
-        return transactionService.findByCustomerId(customerId);
+    public Mono<PageResponse<TransactionDto>> getByCustomerId(
+            @PathVariable String customerId,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer size) {
+        log.debug("GET /transactions/customer/{}", customerId);
+        return transactionService.findPageByCustomerId(customerId, cursor, size);
+    }
+
+    /**
+     * Obtiene las líneas de movimiento (id, tipo, monto, fecha) de un cliente, paginadas.
+     * Lee de Mongo solo esos cuatro campos; pensado para listados de alto volumen.
+     * @param customerId ID del cliente
+     * @param cursor Token de continuación de la página anterior
+     * @param size Tamaño de página
+     * @return Mono de PageResponse
+     */
+    @GetMapping("/customer/{customerId}/lines")
+    public Mono<PageResponse<TransactionLineDto>> getCustomerLines(
+            @PathVariable String customerId,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer size) {
+        log.debug("GET /transactions/customer/{}/lines", customerId);
+        return transactionService.findLinePageByCustomerId(customerId, cursor, size);
     }
 
     /**
-     * Obtiene las transacciones en un rango de fechas.
+     * Obtiene las transacciones en un rango de fechas, paginadas.
      * @param startDate Fecha de inicio
      * @param endDate Fecha de fin
-     * @return Flux de TransactionDto
+     * @param cursor Token de continuación de la página anterior
+     * @param size Tamaño de página
+     * @return Mono de PageResponse
      */
     @GetMapping("/date-range")
-    public Flux<TransactionDto> getByDateRange(
+    public Mono<PageResponse<TransactionDto>> getByDateRange(
             @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime startDate,
-            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime endDate) {
-        log.info("GET /transactions/date-range between {} and {}", startDate, endDate);
-        return transactionService.findByDateRange(startDate, endDate);
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime endDate,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer size) {
+        log.debug("GET /transactions/date-range between {} and {}", startDate, endDate);
+        return transactionService.findPageByDateRange(startDate, endDate, cursor, size);
     }
 
     /**
-     * Obtiene las transacciones de una cuenta en un rango de fechas.
+     * Obtiene las transacciones de una cuenta en un rango de fechas, paginadas.
      * @param accountId ID de la cuenta
      * @param startDate Fecha de inicio
      * @param endDate Fecha de fin
-     * @return Flux de TransactionDto
+     * @param cursor Token de continuación de la página anterior
+     * @param size Tamaño de página
+     * @return Mono de PageResponse
      */
     @GetMapping("/account/{accountId}/date-range")
-    public Flux<TransactionDto> getByAccountIdAndDateRange(
+    public Mono<PageResponse<TransactionDto>> getByAccountIdAndDateRange(
             @PathVariable String accountId,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime startDate,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime endDate,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer size) {
+        if (log.isDebugEnabled()) {
+            log.debug("GET /transactions/account/{}/date-range between {} and {}", accountId, startDate, endDate);
+        }
+        return transactionService.findPageByAccountIdAndDateRange(accountId, startDate, endDate, cursor, size);
+    }
+
+    /**
+     * Exporta todas las transacciones como NDJSON, con un flush por lote.
+     * @param response Respuesta HTTP
+     * @return Flux de DataBuffer
+     */
+    @GetMapping(value = "/export", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public Flux<DataBuffer> exportAll(ServerHttpResponse response) {
+        log.debug("GET /transactions/export as NDJSON");
+        return ndjsonBatchWriter.write(transactionService.findAll(), exportBatchSize, response.bufferFactory());
+    }
+
+    /**
+     * Exporta todas las transacciones como Server-Sent Events.
+     * @return Flux de TransactionDto
+     */
+    @GetMapping(value = "/export", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public Flux<TransactionDto> exportAllAsEvents() {
+        log.debug("GET /transactions/export as event stream");
+        return transactionService.findAll();
+    }
+
+    /**
+     * Exporta las transacciones de un rango de fechas como NDJSON.
+     * @param startDate Fecha de inicio
+     * @param endDate Fecha de fin
+     * @param response Respuesta HTTP
+     * @return Flux de DataBuffer
+     */
+    @GetMapping(value = "/export/date-range", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public Flux<DataBuffer> exportByDateRange(
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime startDate,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime endDate,
+            ServerHttpResponse response) {
+        log.debug("GET /transactions/export/date-range between {} and {} as NDJSON", startDate, endDate);
+        return ndjsonBatchWriter.write(transactionService.findByDateRange(startDate, endDate),
+                exportBatchSize, response.bufferFactory());
+    }
+
+    /**
+     * Exporta las transacciones de un rango de fechas como Server-Sent Events.
+     * @param startDate Fecha de inicio
+     * @param endDate Fecha de fin
+     * @return Flux de TransactionDto
+     */
+    @GetMapping(value = "/export/date-range", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public Flux<TransactionDto> exportByDateRangeAsEvents(
             @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime startDate,
             @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime endDate) {
-        log.info("GET /transactions/account/{}/date-range between {} and {}", accountId, startDate, endDate);
-        return transactionService.findByAccountIdAndDateRange(accountId, startDate, endDate);
+        log.debug("GET /transactions/export/date-range between {} and {} as event stream", startDate, endDate);
+        return transactionService.findByDateRange(startDate, endDate);
+    }
+
+    /**
+     * Exporta las transacciones de un cliente como NDJSON.
+     * @param customerId ID del cliente
+     * @param response Respuesta HTTP
+     * @return Flux de DataBuffer
+     */
+    @GetMapping(value = "/export/customer/{customerId}", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public Flux<DataBuffer> exportByCustomerId(@PathVariable String customerId, ServerHttpResponse response) {
+        log.debug("GET /transactions/export/customer/{} as NDJSON", customerId);
+        return ndjsonBatchWriter.write(transactionService.findByCustomerId(customerId),
+                exportBatchSize, response.bufferFactory());
+    }
+
+    /**
+     * Exporta las transacciones de un cliente como Server-Sent Events.
+     * @param customerId ID del cliente
+     * @return Flux de TransactionDto
+     */
+    @GetMapping(value = "/export/customer/{customerId}", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public Flux<TransactionDto> exportByCustomerIdAsEvents(@PathVariable String customerId) {
+        log.debug("GET /transactions/export/customer/{} as event stream", customerId);
+        return transactionService.findByCustomerId(customerId);
+    }
+
+    /**
+     * Carga masiva de depósitos y pagos de crédito en NDJSON (una solicitud por línea).
+     * Devuelve en NDJSON un resultado por línea, en el mismo orden, a medida que se guarda cada bloque.
+     * @param requests Solicitudes
+     * @param response Respuesta HTTP
+     * @return Flux de DataBuffer
+     */
+    @PostMapping(value = "/bulk", consumes = MediaType.APPLICATION_NDJSON_VALUE,
+            produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public Flux<DataBuffer> bulk(@RequestBody Flux<BulkTransactionRequest> requests, ServerHttpResponse response) {
+        log.debug("POST /transactions/bulk");
+        return ndjsonBatchWriter.write(bulkTransactionService.ingest(requests), bulkChunkSize,
+                response.bufferFactory());
     }
 
     /**
@@ -130,7 +391,7 @@ public class TransactionController {
     @PostMapping("/deposit")
     @ResponseStatus(HttpStatus.CREATED)
     public Mono<TransactionDto> deposit(@Valid @RequestBody DepositRequest request) {
-        log.info("POST /transactions/deposit with request: {}", request);
+        log.debug("POST /transactions/deposit");
         return transactionService.deposit(request);
     }
 
@@ -142,7 +403,7 @@ public class TransactionController {
     @PostMapping("/withdrawal")
     @ResponseStatus(HttpStatus.CREATED)
     public Mono<TransactionDto> withdraw(@Valid @RequestBody WithdrawalRequest request) {
-        log.info("POST /transactions/withdrawal with request: {}", request);
+        log.debug("POST /transactions/withdrawal");
         return transactionService.withdraw(request);
     }
 
@@ -154,7 +415,7 @@ public class TransactionController {
     @PostMapping("/payment")
     @ResponseStatus(HttpStatus.CREATED)
     public Mono<TransactionDto> payCredit(@Valid @RequestBody PaymentRequest request) {
-        log.info("POST /transactions/payment with request: {}", request);
+        log.debug("POST /transactions/payment");
         return transactionService.payCredit(request);
     }
 
@@ -166,7 +427,7 @@ public class TransactionController {
     @PostMapping("/consumption")
     @ResponseStatus(HttpStatus.CREATED)
     public Mono<TransactionDto> consumeCreditCard(@Valid @RequestBody ConsumptionRequest request) {
-        log.info("POST /transactions/consumption with request: {}", request);
+        log.debug("POST /transactions/consumption");
         return transactionService.consumeCreditCard(request);
     }
     /**
@@ -177,7 +438,7 @@ public class TransactionController {
     @PostMapping("/transfer")
     @ResponseStatus(HttpStatus.CREATED)
     public Mono<TransactionDto> transfer(@Valid @RequestBody TransferRequest request) {
-        log.info("POST /transactions/transfer with request: {}", request);
+        log.debug("POST /transactions/transfer");
         return transactionService.transfer(request);
     }
 }
\ No newline at end of file
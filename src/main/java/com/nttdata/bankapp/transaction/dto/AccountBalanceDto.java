@@ -0,0 +1,24 @@
+package com.nttdata.bankapp.transaction.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * Saldo de una cuenta según la proyección local: snapshot más deltas posteriores.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class AccountBalanceDto {
+    private String accountId;
+    private BigDecimal balance;
+    private BigDecimal snapshotBalance;
+    private LocalDateTime snapshotAt;
+    private int deltasSinceSnapshot;
+}
@@ -0,0 +1,27 @@
+package com.nttdata.bankapp.transaction.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Resultado de una línea de la carga masiva; index es la posición de la línea en la entrada (desde 0).
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class BulkItemResult {
+    private long index;
+    private Status status;
+    private String transactionId;
+    private String referenceNumber;
+    private String error;
+
+    public enum Status {
+        CREATED,   // Guardada como PENDING; el outbox aplica el cambio remoto
+        REJECTED,  // No superó la validación
+        FAILED     // Error al escribir en Mongo o al consultar un servicio remoto
+    }
+}
@@ -0,0 +1,36 @@
+package com.nttdata.bankapp.transaction.dto;
+
+import com.nttdata.bankapp.transaction.model.TransactionType;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import javax.validation.constraints.DecimalMin;
+import javax.validation.constraints.NotBlank;
+import javax.validation.constraints.NotNull;
+import java.math.BigDecimal;
+
+/**
+ * Línea de una carga masiva NDJSON: un depósito (accountId) o un pago de crédito (creditId).
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class BulkTransactionRequest {
+    @NotNull(message = "Transaction type is required")
+    private TransactionType type;
+
+    private String accountId;
+    private String creditId;
+
+    @NotBlank(message = "Customer ID is required")
+    private String customerId;
+
+    @NotNull(message = "Amount is required")
+    @DecimalMin(value = "0.01", message = "Amount must be greater than 0")
+    private BigDecimal amount;
+
+    private String description;
+}
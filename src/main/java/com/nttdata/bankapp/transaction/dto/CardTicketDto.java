@@ -0,0 +1,22 @@
+package com.nttdata.bankapp.transaction.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+
+/**
+ * Consumos de una tarjeta de crédito en un rango de fechas y su ticket medio.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class CardTicketDto {
+    private String creditCardId;
+    private long count;
+    private BigDecimal total;
+    private BigDecimal averageTicket;
+}
@@ -0,0 +1,21 @@
+package com.nttdata.bankapp.transaction.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+
+/**
+ * Volumen operado por un cliente en un rango de fechas.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class CustomerVolumeDto {
+    private String customerId;
+    private long count;
+    private BigDecimal volume;
+}
@@ -0,0 +1,22 @@
+package com.nttdata.bankapp.transaction.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+
+/**
+ * Comisiones cobradas en un mes.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class MonthlyFeeRevenueDto {
+    private int year;
+    private int month;
+    private long count; // Transacciones con comisión
+    private BigDecimal fees;
+}
@@ -0,0 +1,22 @@
+package com.nttdata.bankapp.transaction.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+import java.util.Map;
+
+/**
+ * Totales de un día o mes.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class PeriodSummaryDto {
+    private LocalDate periodStart;
+    private SummaryTotalsDto totals;
+    private Map<String, SummaryTotalsDto> byType;
+}
@@ -0,0 +1,21 @@
+package com.nttdata.bankapp.transaction.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+
+/**
+ * Número de transacciones, monto y comisiones acumulados.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class SummaryTotalsDto {
+    private long count;
+    private BigDecimal amount;
+    private BigDecimal fees;
+}
@@ -1,4 +1,5 @@
 package com.nttdata.bankapp.transaction.dto;
+import com.nttdata.bankapp.transaction.model.TransactionStatus;
 import com.nttdata.bankapp.transaction.model.TransactionType;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
@@ -34,4 +35,5 @@ public class TransactionDto {
     private LocalDateTime transactionDate;
     private String customerId;
     private String referenceNumber;
+    private TransactionStatus status;
 }
\ No newline at end of file
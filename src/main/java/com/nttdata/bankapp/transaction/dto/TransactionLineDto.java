@@ -0,0 +1,25 @@
+package com.nttdata.bankapp.transaction.dto;
+
+import com.nttdata.bankapp.transaction.model.TransactionType;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * Línea de movimiento: vista reducida de una transacción para listados de alto volumen.
+ * Se lee de Mongo directamente con solo estos campos, sin pasar por la entidad Transaction.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class TransactionLineDto {
+    private String id;
+    private TransactionType type;
+    private BigDecimal amount;
+    private LocalDateTime transactionDate;
+}
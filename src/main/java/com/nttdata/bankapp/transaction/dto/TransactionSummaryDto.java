@@ -0,0 +1,30 @@
+package com.nttdata.bankapp.transaction.dto;
+
+import com.nttdata.bankapp.transaction.model.RollupGranularity;
+import com.nttdata.bankapp.transaction.model.RollupScope;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Resumen de transacciones de una cuenta, tarjeta o cliente en un rango, con el desglose por periodo.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class TransactionSummaryDto {
+    private RollupScope scope;
+    private String ownerId;
+    private RollupGranularity granularity;
+    private LocalDate from; // Inicio del primer periodo (1 del mes en MONTH), aunque se pidiera una fecha posterior
+    private LocalDate to; // Fin del último periodo
+    private SummaryTotalsDto totals;
+    private Map<String, SummaryTotalsDto> byType;
+    private List<PeriodSummaryDto> periods; // Solo periodos con transacciones
+}
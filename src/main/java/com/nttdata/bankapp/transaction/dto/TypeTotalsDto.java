@@ -0,0 +1,23 @@
+package com.nttdata.bankapp.transaction.dto;
+
+import com.nttdata.bankapp.transaction.model.TransactionType;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+
+/**
+ * Totales de un tipo de transacción en un rango de fechas.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class TypeTotalsDto {
+    private TransactionType type;
+    private long count;
+    private BigDecimal amount;
+    private BigDecimal fees;
+}
@@ -0,0 +1,18 @@
+package com.nttdata.bankapp.transaction.exception;
+
+/**
+ * Excepción para un servicio remoto que no se llama porque su circuito está abierto, su bulkhead
+ * está lleno o no respondió a tiempo. Se responde 503 sin esperar al servicio.
+ */
+public class DownstreamUnavailableException extends RuntimeException {
+    private final String downstream;
+
+    public DownstreamUnavailableException(String downstream, Throwable cause) {
+        super("Service " + downstream + " is unavailable: " + cause.getMessage(), cause);
+        this.downstream = downstream;
+    }
+
+    public String getDownstream() {
+        return downstream;
+    }
+}
@@ -0,0 +1,32 @@
+package com.nttdata.bankapp.transaction.model;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.CompoundIndex;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * Cambio de saldo de una cuenta producido por una transacción, pendiente de incorporar a su snapshot.
+ * El ID se deriva de la transacción y la cuenta, así registrar dos veces la misma transacción no duplica el delta.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+@Document(collection = "balance_deltas")
+// Índice para leer y compactar los deltas posteriores al snapshot de una cuenta
+@CompoundIndex(name = "account_seq_idx", def = "{'accountId': 1, 'seq': 1}")
+public class BalanceDelta {
+    @Id
+    private String id;
+    private String accountId;
+    private long seq; // Secuencia repartida por el snapshot de la cuenta
+    private BigDecimal amount; // Positivo para abonos, negativo para cargos
+    private String transactionId;
+    private LocalDateTime createdAt;
+}
@@ -0,0 +1,33 @@
+package com.nttdata.bankapp.transaction.model;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.CompoundIndex;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * Snapshot de la proyección de saldo de una cuenta. El saldo proyectado es el del snapshot más los
+ * deltas con secuencia mayor que throughSeq. El mismo documento reparte las secuencias de los deltas.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+@Document(collection = "balance_snapshots")
+// Índice para que la reconciliación recorra primero las cuentas revisadas hace más tiempo
+@CompoundIndex(name = "seeded_reconciled_idx", def = "{'seeded': 1, 'reconciledAt': 1}")
+public class BalanceSnapshot {
+    @Id
+    private String id; // ID de la cuenta
+    private BigDecimal balance; // Saldo con todos los deltas hasta throughSeq incluidos
+    private long throughSeq; // Último delta incluido en balance
+    private long nextSeq; // Última secuencia repartida a un delta
+    private boolean seeded; // false mientras no se haya tomado el saldo inicial del servicio de cuentas
+    private LocalDateTime snapshotAt; // Momento del último snapshot
+    private LocalDateTime reconciledAt; // Última comparación con el servicio de cuentas
+}
@@ -0,0 +1,35 @@
+package com.nttdata.bankapp.transaction.model;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+import java.util.HashSet;
+import java.util.Set;
+
+/**
+ * Registro de outbox embebido en la transacción, de modo que ambos se guardan en una sola escritura.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class OutboxState {
+    private int attempts; // Intentos de envío realizados
+    private LocalDateTime nextAttemptAt; // Próximo intento; también actúa como reserva mientras se envía
+    private Set<String> completedSteps; // Pasos remotos ya aplicados (p. ej. "debit", "credit")
+    private String lastError; // Último error recibido
+
+    /**
+     * Crea el estado inicial de una transacción pendiente.
+     * @param dueAt Momento a partir del cual el dispatcher puede enviarla
+     * @return OutboxState
+     */
+    public static OutboxState pending(LocalDateTime dueAt) {
+        return OutboxState.builder()
+                .nextAttemptAt(dueAt)
+                .completedSteps(new HashSet<>())
+                .build();
+    }
+}
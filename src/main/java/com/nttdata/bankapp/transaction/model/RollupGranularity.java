@@ -0,0 +1,29 @@
+package com.nttdata.bankapp.transaction.model;
+
+import java.time.LocalDate;
+
+/**
+ * Periodo de un resumen agregado de transacciones.
+ */
+public enum RollupGranularity {
+    DAY,
+    MONTH;
+
+    /**
+     * Primer día del periodo que contiene la fecha.
+     * @param date Fecha
+     * @return Inicio del periodo
+     */
+    public LocalDate periodStart(LocalDate date) {
+        return this == MONTH ? date.withDayOfMonth(1) : date;
+    }
+
+    /**
+     * Último día del periodo que contiene la fecha.
+     * @param date Fecha
+     * @return Fin del periodo
+     */
+    public LocalDate periodEnd(LocalDate date) {
+        return this == MONTH ? date.withDayOfMonth(date.lengthOfMonth()) : date;
+    }
+}
@@ -0,0 +1,10 @@
+package com.nttdata.bankapp.transaction.model;
+
+/**
+ * Dueño de un resumen agregado de transacciones.
+ */
+public enum RollupScope {
+    ACCOUNT,
+    CREDIT_CARD,
+    CUSTOMER
+}
@@ -0,0 +1,24 @@
+package com.nttdata.bankapp.transaction.model;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.data.mongodb.core.mapping.Field;
+import org.springframework.data.mongodb.core.mapping.FieldType;
+
+import java.math.BigDecimal;
+
+/**
+ * Totales acumulados de un resumen. Los importes se guardan como Decimal128 para poder sumarlos con $inc.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class RollupTotals {
+    private long count;
+    @Field(targetType = FieldType.DECIMAL128)
+    private BigDecimal amount;
+    @Field(targetType = FieldType.DECIMAL128)
+    private BigDecimal fees;
+}
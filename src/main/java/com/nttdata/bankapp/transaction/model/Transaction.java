@@ -4,6 +4,8 @@ import lombok.Builder;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.CompoundIndex;
+import org.springframework.data.mongodb.core.index.CompoundIndexes;
 import org.springframework.data.mongodb.core.mapping.Document;
 
 import java.math.BigDecimal;
@@ -17,6 +19,18 @@ import java.time.LocalDateTime;
 @AllArgsConstructor
 @Builder
 @Document(collection = "transactions")
+@CompoundIndexes({
+        // Índices para la paginación por keyset sobre (transactionDate, id)
+        @CompoundIndex(name = "date_id_idx", def = "{'transactionDate': -1, '_id': -1}"),
+        @CompoundIndex(name = "account_date_id_idx", def = "{'accountId': 1, 'transactionDate': -1, '_id': -1}"),
+        @CompoundIndex(name = "credit_date_id_idx", def = "{'creditId': 1, 'transactionDate': -1, '_id': -1}"),
+        @CompoundIndex(name = "credit_card_date_id_idx", def = "{'creditCardId': 1, 'transactionDate': -1, '_id': -1}"),
+        @CompoundIndex(name = "customer_date_id_idx", def = "{'customerId': 1, 'transactionDate': -1, '_id': -1}"),
+        // Índice para que el dispatcher del outbox encuentre los pendientes vencidos
+        @CompoundIndex(name = "outbox_due_idx", def = "{'status': 1, 'outbox.nextAttemptAt': 1}"),
+        // Índice para sumar las transferencias entrantes pendientes al sembrar la proyección de saldos
+        @CompoundIndex(name = "destination_status_idx", def = "{'destinationAccountId': 1, 'status': 1}")
+})
 public class Transaction {
     @Id
     private String id;
@@ -33,4 +47,6 @@ public class Transaction {
     private LocalDateTime transactionDate;
     private String customerId; // ID del cliente que realizó la transacción
     private String referenceNumber; // Número de referencia único para la transacción
+    private TransactionStatus status; // PENDING, COMPLETED, FAILED, REQUIRES_REVIEW (null en registros anteriores al outbox)
+    private OutboxState outbox; // Estado del envío a los servicios remotos (solo en modo outbox)
 }
@@ -0,0 +1,40 @@
+package com.nttdata.bankapp.transaction.model;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.CompoundIndex;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+import java.time.LocalDate;
+import java.util.Map;
+
+/**
+ * Resumen diario o mensual de las transacciones de una cuenta, tarjeta o cliente, mantenido con $inc
+ * en cada transacción guardada. Un informe lee un documento por periodo en vez de todas sus transacciones.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+@Document(collection = "transaction_rollups")
+// Índice para leer los periodos de un dueño en un rango de fechas
+@CompoundIndex(name = "scope_owner_period_idx", def = "{'scope': 1, 'ownerId': 1, 'granularity': 1, 'periodStart': 1}")
+public class TransactionRollup {
+    @Id
+    private String id; // scope:ownerId:granularity:periodStart
+    private RollupScope scope;
+    private String ownerId;
+    private RollupGranularity granularity;
+    private LocalDate periodStart;
+    private RollupTotals totals;
+    private Map<String, RollupTotals> byType; // Totales por tipo de transacción (TRANSFER_IN para transferencias recibidas)
+
+    /**
+     * ID determinista del resumen, para poder actualizarlo con upsert sin leerlo antes.
+     */
+    public static String idOf(RollupScope scope, String ownerId, RollupGranularity granularity, LocalDate periodStart) {
+        return scope + ":" + ownerId + ":" + granularity + ":" + periodStart;
+    }
+}
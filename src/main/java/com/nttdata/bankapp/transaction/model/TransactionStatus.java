@@ -0,0 +1,12 @@
+package com.nttdata.bankapp.transaction.model;
+
+
+/**
+ * Estado de aplicación de una transacción en los servicios remotos.
+ */
+public enum TransactionStatus {
+    PENDING,    // Registrada localmente; pendiente de aplicar por el outbox
+    COMPLETED,  // Aplicada en los servicios remotos
+    FAILED,     // Rechazada o agotados los reintentos del outbox sin ningún paso aplicado
+    REQUIRES_REVIEW // Aplicada solo en parte en los servicios remotos; requiere conciliación manual
+}
@@ -0,0 +1,16 @@
+package com.nttdata.bankapp.transaction.repository;
+
+import com.nttdata.bankapp.transaction.model.BalanceDelta;
+import org.springframework.data.mongodb.repository.ReactiveMongoRepository;
+import org.springframework.stereotype.Repository;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/**
+ * Repositorio de los deltas de la proyección de saldos.
+ */
+@Repository
+public interface BalanceDeltaRepository extends ReactiveMongoRepository<BalanceDelta, String> {
+    Flux<BalanceDelta> findByAccountIdAndSeqGreaterThan(String accountId, long seq);
+    Mono<Long> deleteByAccountIdAndSeqLessThanEqual(String accountId, long seq);
+}
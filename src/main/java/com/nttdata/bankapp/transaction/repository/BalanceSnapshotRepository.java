@@ -0,0 +1,16 @@
+package com.nttdata.bankapp.transaction.repository;
+
+import com.nttdata.bankapp.transaction.model.BalanceSnapshot;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.mongodb.repository.ReactiveMongoRepository;
+import org.springframework.stereotype.Repository;
+import reactor.core.publisher.Flux;
+
+/**
+ * Repositorio de los snapshots de la proyección de saldos.
+ */
+@Repository
+public interface BalanceSnapshotRepository extends ReactiveMongoRepository<BalanceSnapshot, String>,
+        BalanceSnapshotRepositoryCustom {
+    Flux<BalanceSnapshot> findBySeededTrueOrderByReconciledAtAsc(Pageable pageable);
+}
@@ -0,0 +1,51 @@
+package com.nttdata.bankapp.transaction.repository;
+
+import com.nttdata.bankapp.transaction.model.BalanceSnapshot;
+import reactor.core.publisher.Mono;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * Actualizaciones atómicas de los snapshots de saldo.
+ */
+public interface BalanceSnapshotRepositoryCustom {
+
+    /**
+     * Reparte la siguiente secuencia de delta de la cuenta, creando su snapshot si no existe.
+     * @param accountId ID de la cuenta
+     * @return Mono con la secuencia reservada
+     */
+    Mono<Long> reserveSeq(String accountId);
+
+    /**
+     * Fija el saldo del snapshot incluyendo todos los deltas repartidos hasta ahora, siempre que no se
+     * haya repartido otra secuencia desde que se leyó expectedNextSeq.
+     * @param accountId ID de la cuenta
+     * @param balance Saldo de partida
+     * @param expectedNextSeq Última secuencia repartida según la lectura previa
+     * @param at Momento del snapshot
+     * @return Mono con el snapshot, vacío si entretanto se repartió otra secuencia
+     */
+    Mono<BalanceSnapshot> seed(String accountId, BigDecimal balance, long expectedNextSeq, LocalDateTime at);
+
+    /**
+     * Incorpora al snapshot los deltas hasta throughSeq, siempre que otro proceso no lo haya hecho antes.
+     * @param accountId ID de la cuenta
+     * @param expectedThroughSeq throughSeq según la lectura previa
+     * @param throughSeq Último delta incorporado
+     * @param balance Saldo con esos deltas incluidos
+     * @param at Momento del snapshot
+     * @return Mono con el snapshot, vacío si otro proceso lo cambió antes
+     */
+    Mono<BalanceSnapshot> fold(String accountId, long expectedThroughSeq, long throughSeq, BigDecimal balance,
+                               LocalDateTime at);
+
+    /**
+     * Registra la última comparación con el servicio de cuentas.
+     * @param accountId ID de la cuenta
+     * @param at Momento de la comparación
+     * @return Mono vacío al terminar
+     */
+    Mono<Void> markReconciled(String accountId, LocalDateTime at);
+}
@@ -0,0 +1,69 @@
+package com.nttdata.bankapp.transaction.repository;
+
+import com.nttdata.bankapp.transaction.model.BalanceSnapshot;
+import lombok.RequiredArgsConstructor;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
+import org.springframework.data.mongodb.core.ReactiveMongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import reactor.core.publisher.Mono;
+import reactor.util.retry.Retry;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * Implementación de las actualizaciones atómicas de los snapshots de saldo.
+ */
+@RequiredArgsConstructor
+public class BalanceSnapshotRepositoryCustomImpl implements BalanceSnapshotRepositoryCustom {
+
+    private static final FindAndModifyOptions UPSERT_RETURN_NEW = FindAndModifyOptions.options()
+            .upsert(true).returnNew(true);
+
+    private final ReactiveMongoTemplate mongoTemplate;
+
+    @Override
+    public Mono<Long> reserveSeq(String accountId) {
+        return mongoTemplate.findAndModify(Query.query(Criteria.where("id").is(accountId)),
+                        new Update().inc("nextSeq", 1), UPSERT_RETURN_NEW, BalanceSnapshot.class)
+                // Dos upserts simultáneos del mismo snapshot: el perdedor repite sobre el documento ya creado
+                .retryWhen(Retry.max(1).filter(DuplicateKeyException.class::isInstance))
+                .map(BalanceSnapshot::getNextSeq);
+    }
+
+    @Override
+    public Mono<BalanceSnapshot> seed(String accountId, BigDecimal balance, long expectedNextSeq, LocalDateTime at) {
+        Query query = Query.query(Criteria.where("id").is(accountId).and("nextSeq").is(expectedNextSeq));
+        Update update = new Update()
+                .set("balance", balance)
+                .set("throughSeq", expectedNextSeq)
+                .set("seeded", true)
+                .set("snapshotAt", at)
+                .set("reconciledAt", at);
+        return mongoTemplate.findAndModify(query, update, UPSERT_RETURN_NEW, BalanceSnapshot.class)
+                // El snapshot existe con otra nextSeq: el upsert choca con su _id
+                .onErrorResume(DuplicateKeyException.class, e -> Mono.empty());
+    }
+
+    @Override
+    public Mono<BalanceSnapshot> fold(String accountId, long expectedThroughSeq, long throughSeq, BigDecimal balance,
+                                      LocalDateTime at) {
+        Query query = Query.query(Criteria.where("id").is(accountId).and("throughSeq").is(expectedThroughSeq));
+        Update update = new Update()
+                .set("balance", balance)
+                .set("throughSeq", throughSeq)
+                .set("snapshotAt", at);
+        return mongoTemplate.findAndModify(query, update, FindAndModifyOptions.options().returnNew(true),
+                BalanceSnapshot.class);
+    }
+
+    @Override
+    public Mono<Void> markReconciled(String accountId, LocalDateTime at) {
+        return mongoTemplate.updateFirst(Query.query(Criteria.where("id").is(accountId)),
+                        new Update().set("reconciledAt", at), BalanceSnapshot.class)
+                .then();
+    }
+}
@@ -0,0 +1,77 @@
+package com.nttdata.bankapp.transaction.repository;
+
+import com.nttdata.bankapp.transaction.dto.TransactionDto;
+import com.nttdata.bankapp.transaction.model.TransactionStatus;
+import com.nttdata.bankapp.transaction.model.TransactionType;
+import org.bson.Document;
+import org.bson.types.Decimal128;
+import org.bson.types.ObjectId;
+import org.springframework.core.convert.converter.Converter;
+import org.springframework.data.convert.ReadingConverter;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.Date;
+
+/**
+ * Lee un documento de la colección de transacciones directamente como TransactionDto, sin pasar por
+ * la entidad Transaction ni por su builder: por fila solo se crean el DTO y sus valores (monto, fecha).
+ * Acepta los montos guardados como texto (formato por defecto) o como Decimal128, y las fechas se leen
+ * en la zona horaria del sistema, igual que el conversor por defecto de Spring Data.
+ * Los listados lo aplican sobre los documentos del driver (ver TransactionRepositoryCustomImpl); también
+ * puede registrarse en MongoCustomConversions.
+ */
+@ReadingConverter
+public class TransactionDtoReadConverter implements Converter<Document, TransactionDto> {
+
+    private static final ZoneId ZONE = ZoneId.systemDefault();
+
+    @Override
+    public TransactionDto convert(Document source) {
+        TransactionDto dto = new TransactionDto();
+        dto.setId(readId(source.get("_id")));
+        dto.setAccountId(source.getString("accountId"));
+        dto.setCreditId(source.getString("creditId"));
+        dto.setCreditCardId(source.getString("creditCardId"));
+        dto.setType(readEnum(TransactionType.class, source.getString("type")));
+        dto.setAmount(readDecimal(source.get("amount")));
+        dto.setDescription(source.getString("description"));
+        dto.setTransactionDate(readDate(source.getDate("transactionDate")));
+        dto.setCustomerId(source.getString("customerId"));
+        dto.setReferenceNumber(source.getString("referenceNumber"));
+        dto.setStatus(readEnum(TransactionStatus.class, source.getString("status")));
+        return dto;
+    }
+
+    private static String readId(Object id) {
+        if (id instanceof ObjectId) {
+            return ((ObjectId) id).toHexString();
+        }
+        return id != null ? id.toString() : null;
+    }
+
+    private static BigDecimal readDecimal(Object value) {
+        if (value == null) {
+            return null;
+        }
+        if (value instanceof String) {
+            return new BigDecimal((String) value);
+        }
+        if (value instanceof Decimal128) {
+            return ((Decimal128) value).bigDecimalValue();
+        }
+        if (value instanceof BigDecimal) {
+            return (BigDecimal) value;
+        }
+        return new BigDecimal(value.toString());
+    }
+
+    private static LocalDateTime readDate(Date value) {
+        return value != null ? LocalDateTime.ofInstant(value.toInstant(), ZONE) : null;
+    }
+
+    private static <E extends Enum<E>> E readEnum(Class<E> type, String value) {
+        return value != null ? Enum.valueOf(type, value) : null;
+    }
+}
@@ -0,0 +1,62 @@
+package com.nttdata.bankapp.transaction.repository;
+
+import com.nttdata.bankapp.common.mongo.QueryShape;
+import com.nttdata.bankapp.common.mongo.QueryShapeProvider;
+import com.nttdata.bankapp.transaction.model.Transaction;
+import com.nttdata.bankapp.transaction.model.TransactionStatus;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Formas de consulta de TransactionRepository, una por método, para la comprobación con explain.
+ * Al añadir un método al repositorio hay que añadir aquí su forma.
+ */
+@Component
+public class TransactionQueryShapes implements QueryShapeProvider {
+
+    private static final String SAMPLE_ID = "explain-sample";
+
+    @Override
+    public List<QueryShape> queryShapes() {
+        LocalDateTime end = LocalDateTime.now();
+        LocalDateTime start = end.minusMonths(1);
+        Sort keyset = Sort.by(Sort.Direction.DESC, "transactionDate", "id");
+        return Arrays.asList(
+                shape("streamDtos(customerId)", Criteria.where("customerId").is(SAMPLE_ID)),
+                shape("streamDtos(transactionDate)", Criteria.where("transactionDate").gt(start).lt(end)),
+                shape("findByAccountIdAndStatus",
+                        Criteria.where("accountId").is(SAMPLE_ID).and("status").is(TransactionStatus.PENDING)),
+                shape("findByDestinationAccountIdAndStatus",
+                        Criteria.where("destinationAccountId").is(SAMPLE_ID).and("status").is(TransactionStatus.PENDING)),
+                shape("findByCreditCardIdAndStatus",
+                        Criteria.where("creditCardId").is(SAMPLE_ID).and("status").is(TransactionStatus.PENDING)),
+                QueryShape.of("findPage", Transaction.class,
+                        new Query().with(keyset).limit(21)),
+                page("findPage(accountId)", Criteria.where("accountId").is(SAMPLE_ID), keyset),
+                page("findPage(creditId)", Criteria.where("creditId").is(SAMPLE_ID), keyset),
+                page("findPage(creditCardId)", Criteria.where("creditCardId").is(SAMPLE_ID), keyset),
+                page("findPage(customerId)", Criteria.where("customerId").is(SAMPLE_ID), keyset),
+                page("findPage(transactionDate)", Criteria.where("transactionDate").gt(start).lt(end), keyset),
+                page("findPage(accountId, transactionDate)",
+                        Criteria.where("accountId").is(SAMPLE_ID).and("transactionDate").gt(start).lt(end), keyset),
+                QueryShape.of("claimNextOutbox", Transaction.class,
+                        new Query(Criteria.where("status").is(TransactionStatus.PENDING)
+                                .and("outbox.nextAttemptAt").lte(end))
+                                .with(Sort.by(Sort.Direction.ASC, "outbox.nextAttemptAt"))
+                                .limit(1)));
+    }
+
+    private static QueryShape shape(String name, Criteria criteria) {
+        return QueryShape.of(name, Transaction.class, new Query(criteria));
+    }
+
+    private static QueryShape page(String name, Criteria criteria, Sort keyset) {
+        return QueryShape.of(name, Transaction.class, new Query(criteria).with(keyset).limit(21));
+    }
+}
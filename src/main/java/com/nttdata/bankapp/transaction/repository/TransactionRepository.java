@@ -1,21 +1,26 @@
 package com.nttdata.bankapp.transaction.repository;
 
 import com.nttdata.bankapp.transaction.model.Transaction;
+import com.nttdata.bankapp.transaction.model.TransactionStatus;
 import org.springframework.data.mongodb.repository.ReactiveMongoRepository;
 import org.springframework.stereotype.Repository;
 import reactor.core.publisher.Flux;
 
-import java.time.LocalDateTime;
-
 /**
  * Repositorio para operaciones CRUD en la colección de transacciones.
+ * Los listados y exportaciones (TransactionRepositoryCustom) solo leen los campos de TransactionDto: el
+ * registro del outbox, la comisión y los IDs de tarjeta de débito o de terceros no viajan por la red.
  */
 @Repository
-public interface TransactionRepository extends ReactiveMongoRepository<Transaction, String> {
-    Flux<Transaction> findByAccountId(String accountId);
-    Flux<Transaction> findByCreditId(String creditId);
-    Flux<Transaction> findByCreditCardId(String creditCardId);
-    Flux<Transaction> findByCustomerId(String customerId);
-    Flux<Transaction> findByTransactionDateBetween(LocalDateTime startDate, LocalDateTime endDate);
-    Flux<Transaction> findByAccountIdAndTransactionDateBetween(String accountId, LocalDateTime startDate, LocalDateTime endDate);
+public interface TransactionRepository extends ReactiveMongoRepository<Transaction, String>, TransactionRepositoryCustom {
+
+    /**
+     * Proyección con los campos que devuelve TransactionDto (_id se incluye siempre).
+     */
+    String DTO_FIELDS = "{ 'accountId': 1, 'creditId': 1, 'creditCardId': 1, 'type': 1, 'amount': 1, "
+            + "'description': 1, 'transactionDate': 1, 'customerId': 1, 'referenceNumber': 1, 'status': 1 }";
+
+    Flux<Transaction> findByAccountIdAndStatus(String accountId, TransactionStatus status);
+    Flux<Transaction> findByDestinationAccountIdAndStatus(String destinationAccountId, TransactionStatus status);
+    Flux<Transaction> findByCreditCardIdAndStatus(String creditCardId, TransactionStatus status);
 }
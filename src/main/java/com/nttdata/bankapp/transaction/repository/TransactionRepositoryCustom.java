@@ -0,0 +1,143 @@
+package com.nttdata.bankapp.transaction.repository;
+
+import com.nttdata.bankapp.transaction.dto.CardTicketDto;
+import com.nttdata.bankapp.transaction.dto.CustomerVolumeDto;
+import com.nttdata.bankapp.transaction.dto.MonthlyFeeRevenueDto;
+import com.nttdata.bankapp.transaction.dto.PageCursor;
+import com.nttdata.bankapp.transaction.dto.TransactionDto;
+import com.nttdata.bankapp.transaction.dto.TransactionLineDto;
+import com.nttdata.bankapp.transaction.dto.TypeTotalsDto;
+import com.nttdata.bankapp.transaction.model.Transaction;
+import org.springframework.data.mongodb.core.query.Criteria;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Consultas de transacciones que no se pueden expresar como métodos derivados.
+ */
+public interface TransactionRepositoryCustom {
+
+    /**
+     * Obtiene una página ordenada por (transactionDate, id) descendente usando keyset.
+     * Solo se leen los campos de TransactionDto, que se decodifican directamente al DTO.
+     * @param criteria Filtro de la consulta
+     * @param after Cursor de la última fila de la página anterior (null para la primera)
+     * @param limit Número máximo de filas
+     * @return Flux de TransactionDto
+     */
+    Flux<TransactionDto> findPage(Criteria criteria, PageCursor after, int limit);
+
+    /**
+     * Recorre todas las transacciones del filtro, decodificadas directamente a TransactionDto.
+     * Pensado para las exportaciones: el cursor de Mongo entrega los documentos por lotes.
+     * @param criteria Filtro de la consulta
+     * @return Flux de TransactionDto
+     */
+    Flux<TransactionDto> streamDtos(Criteria criteria);
+
+    /**
+     * Igual que {@link #findPage}, pero lee solo id, tipo, monto y fecha y los mapea directamente a
+     * TransactionLineDto.
+     * @param criteria Filtro de la consulta
+     * @param after Cursor de la última fila de la página anterior (null para la primera)
+     * @param limit Número máximo de filas
+     * @return Flux de TransactionLineDto
+     */
+    Flux<TransactionLineDto> findLinePage(Criteria criteria, PageCursor after, int limit);
+
+    /**
+     * Inserta las transacciones con un único insertMany no ordenado: un documento con error no
+     * impide insertar los demás. Las transacciones deben traer su ID asignado.
+     * @param transactions Transacciones a insertar
+     * @return Mono con los errores por posición en la lista (vacío si todas se insertaron)
+     */
+    Mono<Map<Integer, String>> insertUnordered(List<Transaction> transactions);
+
+    /**
+     * Reserva la siguiente transacción PENDING vencida del outbox: incrementa sus intentos y mueve
+     * su próximo intento a leaseUntil para que otra instancia no la tome mientras se envía.
+     * @param now Momento actual
+     * @param leaseUntil Fin de la reserva
+     * @return Mono con la transacción reservada, vacío si no hay pendientes vencidas
+     */
+    Mono<Transaction> claimNextOutbox(LocalDateTime now, LocalDateTime leaseUntil);
+
+    /**
+     * Marca un paso remoto del outbox como aplicado.
+     * @param id ID de la transacción
+     * @param step Nombre del paso
+     * @return Mono vacío al terminar
+     */
+    Mono<Void> markOutboxStep(String id, String step);
+
+    /**
+     * Marca la transacción como COMPLETED.
+     * @param id ID de la transacción
+     * @return Mono vacío al terminar
+     */
+    Mono<Void> completeOutbox(String id);
+
+    /**
+     * Programa un nuevo intento del outbox.
+     * @param id ID de la transacción
+     * @param nextAttemptAt Momento del próximo intento
+     * @param error Error del intento fallido
+     * @return Mono vacío al terminar
+     */
+    Mono<Void> rescheduleOutbox(String id, LocalDateTime nextAttemptAt, String error);
+
+    /**
+     * Marca la transacción como FAILED sin más reintentos.
+     * @param id ID de la transacción
+     * @param error Error del último intento
+     * @return Mono vacío al terminar
+     */
+    Mono<Void> failOutbox(String id, String error);
+
+    /**
+     * Marca la transacción como REQUIRES_REVIEW sin más reintentos: alguno de sus pasos ya se aplicó
+     * en los servicios remotos y otro no se podrá aplicar.
+     * @param id ID de la transacción
+     * @param error Error del último intento
+     * @return Mono vacío al terminar
+     */
+    Mono<Void> reviewOutbox(String id, String error);
+
+    /**
+     * Número, monto y comisiones por tipo de transacción, agrupados en Mongo.
+     * @param startDate Fecha inicial (incluida)
+     * @param endDate Fecha final (excluida)
+     * @return Flux con una fila por tipo
+     */
+    Flux<TypeTotalsDto> totalsByType(LocalDateTime startDate, LocalDateTime endDate);
+
+    /**
+     * Clientes con mayor volumen operado, agrupados y ordenados en Mongo.
+     * @param startDate Fecha inicial (incluida)
+     * @param endDate Fecha final (excluida)
+     * @param limit Número de clientes
+     * @return Flux de mayor a menor volumen
+     */
+    Flux<CustomerVolumeDto> topCustomersByVolume(LocalDateTime startDate, LocalDateTime endDate, int limit);
+
+    /**
+     * Comisiones cobradas por mes, en la zona horaria del servicio.
+     * @param startDate Fecha inicial (incluida)
+     * @param endDate Fecha final (excluida)
+     * @return Flux en orden cronológico
+     */
+    Flux<MonthlyFeeRevenueDto> feeRevenueByMonth(LocalDateTime startDate, LocalDateTime endDate);
+
+    /**
+     * Ticket medio de consumo por tarjeta de crédito, para las tarjetas con más consumos.
+     * @param startDate Fecha inicial (incluida)
+     * @param endDate Fecha final (excluida)
+     * @param limit Número de tarjetas
+     * @return Flux de más a menos consumos
+     */
+    Flux<CardTicketDto> averageTicketByCard(LocalDateTime startDate, LocalDateTime endDate, int limit);
+}
@@ -0,0 +1,27 @@
+package com.nttdata.bankapp.transaction.repository;
+
+import com.nttdata.bankapp.transaction.model.RollupGranularity;
+import com.nttdata.bankapp.transaction.model.RollupScope;
+import com.nttdata.bankapp.transaction.model.TransactionRollup;
+import org.springframework.data.mongodb.repository.Query;
+import org.springframework.data.mongodb.repository.ReactiveMongoRepository;
+import org.springframework.stereotype.Repository;
+import reactor.core.publisher.Flux;
+
+import java.time.LocalDate;
+
+/**
+ * Repositorio de los resúmenes agregados de transacciones.
+ */
+@Repository
+public interface TransactionRollupRepository extends ReactiveMongoRepository<TransactionRollup, String>,
+        TransactionRollupRepositoryCustom {
+
+    /**
+     * Periodos de un dueño entre dos fechas, ambas incluidas, en orden cronológico.
+     */
+    @Query(value = "{ 'scope': ?0, 'ownerId': ?1, 'granularity': ?2, 'periodStart': { $gte: ?3, $lte: ?4 } }",
+            sort = "{ 'periodStart': 1 }")
+    Flux<TransactionRollup> findPeriods(RollupScope scope, String ownerId, RollupGranularity granularity,
+                                        LocalDate from, LocalDate to);
+}
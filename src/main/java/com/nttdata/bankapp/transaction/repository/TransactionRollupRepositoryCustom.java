@@ -0,0 +1,20 @@
+package com.nttdata.bankapp.transaction.repository;
+
+import com.nttdata.bankapp.transaction.model.TransactionRollup;
+import reactor.core.publisher.Mono;
+
+import java.util.Collection;
+
+/**
+ * Actualizaciones incrementales de los resúmenes agregados.
+ */
+public interface TransactionRollupRepositoryCustom {
+
+    /**
+     * Suma los incrementos a sus resúmenes con un único bulkWrite no ordenado de upserts con $inc.
+     * Cada elemento lleva el ID del resumen y las cantidades a sumar (negativas para restar).
+     * @param increments Incrementos por resumen
+     * @return Mono vacío al terminar
+     */
+    Mono<Void> applyIncrements(Collection<TransactionRollup> increments);
+}
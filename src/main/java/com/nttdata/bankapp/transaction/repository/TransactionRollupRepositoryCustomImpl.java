@@ -0,0 +1,63 @@
+package com.nttdata.bankapp.transaction.repository;
+
+import com.mongodb.client.model.BulkWriteOptions;
+import com.mongodb.client.model.UpdateOneModel;
+import com.mongodb.client.model.UpdateOptions;
+import com.nttdata.bankapp.transaction.model.RollupTotals;
+import com.nttdata.bankapp.transaction.model.TransactionRollup;
+import lombok.RequiredArgsConstructor;
+import org.bson.Document;
+import org.bson.types.Decimal128;
+import org.springframework.data.mongodb.core.ReactiveMongoTemplate;
+import reactor.core.publisher.Mono;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+/**
+ * Implementación de las actualizaciones incrementales de los resúmenes agregados.
+ */
+@RequiredArgsConstructor
+public class TransactionRollupRepositoryCustomImpl implements TransactionRollupRepositoryCustom {
+
+    private static final UpdateOptions UPSERT = new UpdateOptions().upsert(true);
+    private static final BulkWriteOptions UNORDERED = new BulkWriteOptions().ordered(false);
+
+    private final ReactiveMongoTemplate mongoTemplate;
+
+    @Override
+    public Mono<Void> applyIncrements(Collection<TransactionRollup> increments) {
+        if (increments.isEmpty()) {
+            return Mono.empty();
+        }
+        List<UpdateOneModel<Document>> updates = increments.stream()
+                .map(this::toUpdate)
+                .collect(Collectors.toList());
+        return mongoTemplate.getCollection(mongoTemplate.getCollectionName(TransactionRollup.class))
+                .flatMap(collection -> Mono.from(collection.bulkWrite(updates, UNORDERED)))
+                .then();
+    }
+
+    private UpdateOneModel<Document> toUpdate(TransactionRollup increment) {
+        Document inc = new Document();
+        addTotals(inc, "totals", increment.getTotals());
+        for (Map.Entry<String, RollupTotals> byType : increment.getByType().entrySet()) {
+            addTotals(inc, "byType." + byType.getKey(), byType.getValue());
+        }
+        Document setOnInsert = new Document("scope", increment.getScope().name())
+                .append("ownerId", increment.getOwnerId())
+                .append("granularity", increment.getGranularity().name())
+                // Misma conversión de LocalDate que usa el repositorio al leer
+                .append("periodStart", mongoTemplate.getConverter().convertToMongoType(increment.getPeriodStart()));
+        Document update = new Document("$inc", inc).append("$setOnInsert", setOnInsert);
+        return new UpdateOneModel<>(new Document("_id", increment.getId()), update, UPSERT);
+    }
+
+    private static void addTotals(Document inc, String prefix, RollupTotals totals) {
+        inc.append(prefix + ".count", totals.getCount())
+                .append(prefix + ".amount", new Decimal128(totals.getAmount()))
+                .append(prefix + ".fees", new Decimal128(totals.getFees()));
+    }
+}
@@ -0,0 +1,38 @@
+package com.nttdata.bankapp.transaction.service;
+
+import com.nttdata.bankapp.transaction.dto.AccountBalanceDto;
+import com.nttdata.bankapp.transaction.model.Transaction;
+import reactor.core.publisher.Mono;
+
+import java.math.BigDecimal;
+import java.util.Set;
+
+/**
+ * Proyección local del saldo de cada cuenta: snapshot periódico más los deltas de las transacciones
+ * guardadas después. Incluye los cargos y abonos aún pendientes en el outbox.
+ */
+public interface BalanceProjectionService {
+
+    /**
+     * Registra los deltas de una transacción guardada. Nunca falla: un delta perdido lo corrige la reconciliación.
+     */
+    Mono<Void> record(Transaction transaction);
+
+    /**
+     * Registra los deltas que anulan los pasos no aplicados de una transacción del outbox que falló.
+     */
+    Mono<Void> revert(Transaction transaction, Set<String> completedSteps);
+
+    /**
+     * Saldo proyectado. El llamador debe tener el turno de la cuenta en KeyedSequencer.
+     */
+    Mono<BigDecimal> currentBalance(String accountId);
+
+    Mono<AccountBalanceDto> getBalance(String accountId);
+
+    /**
+     * Compara la proyección con el servicio de cuentas y la vuelve a sembrar si difieren.
+     * @return Mono true si hubo que corregirla
+     */
+    Mono<Boolean> reconcile(String accountId);
+}
@@ -0,0 +1,77 @@
+package com.nttdata.bankapp.transaction.service;
+
+import com.nttdata.bankapp.transaction.config.BalanceProjectionProperties;
+import com.nttdata.bankapp.transaction.repository.BalanceSnapshotRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Component;
+import reactor.core.Disposable;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import javax.annotation.PreDestroy;
+
+/**
+ * Compara periódicamente la proyección de saldos con el servicio de cuentas, empezando por las
+ * cuentas revisadas hace más tiempo, y vuelve a sembrar las que se hayan desviado.
+ */
+@Component
+@EnableConfigurationProperties(BalanceProjectionProperties.class)
+@RequiredArgsConstructor
+@Slf4j
+public class BalanceReconciler {
+
+    private final BalanceSnapshotRepository snapshotRepository;
+    private final BalanceProjectionService balanceProjectionService;
+    private final BalanceProjectionProperties properties;
+
+    private Disposable polling;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        if (!properties.isEnabled()) {
+            return;
+        }
+        log.info("Starting balance reconciliation every {}", properties.getReconcileInterval());
+        polling = Flux.interval(properties.getReconcileInterval())
+                .onBackpressureDrop()
+                .concatMap(tick -> reconcileBatch()
+                        .onErrorResume(e -> {
+                            log.error("Error reconciling balance projection: {}", e.getMessage());
+                            return Mono.just(0L);
+                        }), 1)
+                .subscribe();
+    }
+
+    @PreDestroy
+    public void stop() {
+        if (polling != null) {
+            polling.dispose();
+        }
+    }
+
+    /**
+     * Reconcilia un lote de cuentas.
+     * @return Mono con el número de cuentas corregidas
+     */
+    public Mono<Long> reconcileBatch() {
+        return snapshotRepository.findBySeededTrueOrderByReconciledAtAsc(
+                        PageRequest.of(0, properties.getReconcileBatchSize()))
+                .flatMap(snapshot -> balanceProjectionService.reconcile(snapshot.getId())
+                        .onErrorResume(e -> {
+                            log.warn("Could not reconcile account {}: {}", snapshot.getId(), e.getMessage());
+                            return Mono.just(false);
+                        }), properties.getReconcileConcurrency())
+                .filter(Boolean::booleanValue)
+                .count()
+                .doOnNext(corrected -> {
+                    if (corrected > 0) {
+                        log.warn("Corrected balance projection of {} accounts", corrected);
+                    }
+                });
+    }
+}
@@ -0,0 +1,12 @@
+package com.nttdata.bankapp.transaction.service;
+
+import com.nttdata.bankapp.transaction.dto.BulkItemResult;
+import com.nttdata.bankapp.transaction.dto.BulkTransactionRequest;
+import reactor.core.publisher.Flux;
+
+/**
+ * Servicio de carga masiva de transacciones.
+ */
+public interface BulkTransactionService {
+    Flux<BulkItemResult> ingest(Flux<BulkTransactionRequest> requests);
+}
@@ -0,0 +1,97 @@
+package com.nttdata.bankapp.transaction.service;
+
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.function.Supplier;
+
+/**
+ * Secuenciador reactivo por clave: las operaciones con la misma clave se ejecutan en orden de llegada,
+ * una detrás de otra, y las de claves distintas corren en paralelo. No bloquea hilos: cada operación
+ * espera la señal de fin de la anterior. Solo coordina dentro de esta instancia del servicio.
+ */
+@Component
+public class KeyedSequencer {
+
+    // Último eslabón de la cola de cada clave; se elimina cuando la cola queda vacía
+    private final ConcurrentMap<String, Mono<Void>> tails = new ConcurrentHashMap<>();
+
+    /**
+     * Ejecuta la operación cuando terminen las operaciones previas con la misma clave.
+     * @param key Clave de secuenciación (p. ej. ID de cuenta)
+     * @param operation Operación a ejecutar
+     * @return Mono con el resultado de la operación
+     */
+    public <T> Mono<T> run(String key, Supplier<Mono<T>> operation) {
+        return Mono.defer(() -> {
+            Sinks.Empty<Void> done = Sinks.empty();
+            Mono<Void> tail = done.asMono();
+            Mono<Void> previous = tails.put(key, tail);
+            Mono<Void> turn = previous == null ? Mono.empty() : previous;
+
+            return turn
+                    .then(Mono.defer(operation))
+                    // Cede el turno ocurra lo que ocurra (éxito, error o cancelación), pero nunca antes de que
+                    // termine la anterior: una operación cancelada mientras esperaba no adelanta a su sucesora.
+                    // El turno anterior es un Sinks.Empty, que repite su señal final a suscriptores tardíos.
+                    .doFinally(signal -> turn.subscribe(
+                            null,
+                            e -> release(key, done, tail),
+                            () -> release(key, done, tail)));
+        });
+    }
+
+    private void release(String key, Sinks.Empty<Void> done, Mono<Void> tail) {
+        done.tryEmitEmpty();
+        tails.remove(key, tail);
+    }
+
+    /**
+     * Ejecuta la operación con el turno de todas las claves. Las claves se toman en orden natural
+     * para que dos operaciones con claves cruzadas (A→B y B→A) no se esperen mutuamente.
+     * @param keys Claves de secuenciación
+     * @param operation Operación a ejecutar
+     * @return Mono con el resultado de la operación
+     */
+    public <T> Mono<T> runAll(Collection<String> keys, Supplier<Mono<T>> operation) {
+        // El iterador se crea por suscripción: si el Mono se vuelve a suscribir (retry, repeat) recorre
+        // de nuevo todas las claves
+        return Mono.defer(() -> runInOrder(new TreeSet<>(keys).iterator(), operation));
+    }
+
+    private <T> Mono<T> runInOrder(Iterator<String> keys, Supplier<Mono<T>> operation) {
+        if (!keys.hasNext()) {
+            return Mono.defer(operation);
+        }
+        String key = keys.next();
+        return run(key, () -> runInOrder(keys, operation));
+    }
+
+    /**
+     * Clave de turno de una cuenta, compartida por las operaciones que leen o cambian su saldo.
+     * @param accountId ID de la cuenta
+     * @return Clave de secuenciación
+     */
+    public static String accountKey(String accountId) {
+        return "account:" + accountId;
+    }
+
+    /**
+     * Clave de turno de una tarjeta de crédito.
+     * @param creditCardId ID de la tarjeta de crédito
+     * @return Clave de secuenciación
+     */
+    public static String creditCardKey(String creditCardId) {
+        return "credit-card:" + creditCardId;
+    }
+
+    int pendingKeys() {
+        return tails.size();
+    }
+}
@@ -0,0 +1,204 @@
+package com.nttdata.bankapp.transaction.service;
+
+import com.nttdata.bankapp.transaction.client.AccountService;
+import com.nttdata.bankapp.transaction.client.CreditCardService;
+import com.nttdata.bankapp.transaction.client.CreditService;
+import com.nttdata.bankapp.transaction.client.DownstreamFailurePredicate;
+import com.nttdata.bankapp.transaction.config.OutboxProperties;
+import com.nttdata.bankapp.transaction.model.Transaction;
+import com.nttdata.bankapp.transaction.repository.TransactionRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import reactor.core.Disposable;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import javax.annotation.PreDestroy;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.Supplier;
+
+/**
+ * Drena el outbox de transacciones: reserva lotes de transacciones PENDING vencidas, aplica sus
+ * pasos en los servicios remotos con claves de idempotencia y reintenta con backoff exponencial.
+ * Cada paso aplicado se anota en el registro, así un reintento no repite pasos ya confirmados.
+ * Si la transacción no puede completarse, termina en FAILED cuando ningún paso llegó a aplicarse y en
+ * REQUIRES_REVIEW cuando alguno sí (p. ej. el débito de una transferencia cuyo abono da 404): en ese
+ * caso el dinero ya se movió en el servicio remoto y la transacción no se da por inexistente.
+ */
+@Component
+@EnableConfigurationProperties(OutboxProperties.class)
+@RequiredArgsConstructor
+@Slf4j
+public class OutboxDispatcher {
+
+    private final TransactionRepository transactionRepository;
+    private final AccountService accountService;
+    private final CreditService creditService;
+    private final CreditCardService creditCardService;
+    private final OutboxProperties properties;
+    private final BalanceProjectionService balanceProjectionService;
+    private final TransactionRollupService transactionRollupService;
+
+    private Disposable polling;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        if (!properties.isEnabled()) {
+            log.info("Outbox disabled; dispatcher not started");
+            return;
+        }
+        log.info("Starting outbox dispatcher every {}", properties.getPollInterval());
+        polling = Flux.interval(properties.getPollInterval())
+                .onBackpressureDrop()
+                .concatMap(tick -> drain()
+                        .onErrorResume(e -> {
+                            log.error("Error draining outbox: {}", e.getMessage());
+                            return Mono.just(0L);
+                        }), 1)
+                .subscribe();
+    }
+
+    @PreDestroy
+    public void stop() {
+        if (polling != null) {
+            polling.dispose();
+        }
+    }
+
+    /**
+     * Reserva y envía un lote de transacciones pendientes.
+     * @return Mono con el número de transacciones procesadas
+     */
+    public Mono<Long> drain() {
+        return claimBatch()
+                .flatMap(transaction -> dispatch(transaction).thenReturn(transaction.getId()),
+                        properties.getConcurrency())
+                .count()
+                .doOnNext(count -> {
+                    if (count > 0) {
+                        log.debug("Dispatched {} outbox transactions", count);
+                    }
+                });
+    }
+
+    private Flux<Transaction> claimBatch() {
+        return Flux.range(0, properties.getBatchSize())
+                .concatMap(i -> {
+                    LocalDateTime now = LocalDateTime.now();
+                    return transactionRepository.claimNextOutbox(now, now.plus(properties.getLease()))
+                            .map(Optional::of)
+                            .defaultIfEmpty(Optional.empty());
+                })
+                .takeWhile(Optional::isPresent)
+                .map(Optional::get);
+    }
+
+    /**
+     * Aplica los pasos pendientes de una transacción y registra el resultado.
+     * @param transaction Transacción reservada
+     * @return Mono vacío al terminar
+     */
+    Mono<Void> dispatch(Transaction transaction) {
+        // Pasos aplicados, incluidos los de este intento, para anular en la proyección solo los que faltan
+        Set<String> completed = transaction.getOutbox().getCompletedSteps() != null
+                ? new HashSet<>(transaction.getOutbox().getCompletedSteps())
+                : new HashSet<>();
+
+        return Flux.defer(() -> Flux.fromIterable(stepsFor(transaction).entrySet()))
+                .filter(step -> !completed.contains(step.getKey()))
+                .concatMap(step -> step.getValue().get()
+                        .then(Mono.defer(() ->
+                                transactionRepository.markOutboxStep(transaction.getId(), step.getKey())))
+                        .doOnSuccess(marked -> completed.add(step.getKey())))
+                .then(Mono.defer(() -> transactionRepository.completeOutbox(transaction.getId())))
+                .onErrorResume(e -> handleFailure(transaction, completed, e));
+    }
+
+    private Map<String, Supplier<Mono<?>>> stepsFor(Transaction transaction) {
+        String key = transaction.getReferenceNumber();
+        Map<String, Supplier<Mono<?>>> steps = new LinkedHashMap<>();
+        switch (transaction.getType()) {
+            case DEPOSIT:
+                steps.put("credit", () -> accountService.updateBalance(
+                        transaction.getAccountId(), transaction.getAmount(), key + ":credit"));
+                break;
+            case WITHDRAWAL:
+                steps.put("debit", () -> accountService.updateBalance(
+                        transaction.getAccountId(), transaction.getAmount().negate(), key + ":debit"));
+                break;
+            case PAYMENT:
+                steps.put("payment", () -> creditService.makePayment(
+                        transaction.getCreditId(), transaction.getAmount(), key + ":payment"));
+                break;
+            case CONSUMPTION:
+                steps.put("consumption", () -> creditCardService.registerConsumption(
+                        transaction.getCreditCardId(), transaction.getAmount(), key + ":consumption"));
+                break;
+            case TRANSFER:
+                steps.put("debit", () -> accountService.updateBalance(
+                        transaction.getAccountId(), transaction.getAmount().negate(), key + ":debit"));
+                steps.put("credit", () -> accountService.updateBalance(
+                        transaction.getDestinationAccountId(), transaction.getAmount(), key + ":credit"));
+                steps.put("count", () -> accountService.incrementTransactionCount(
+                        transaction.getAccountId(), transaction.getFee(), key + ":count"));
+                break;
+            default:
+                throw new IllegalStateException("Unsupported outbox transaction type: " + transaction.getType());
+        }
+        return steps;
+    }
+
+    private Mono<Void> handleFailure(Transaction transaction, Set<String> completed, Throwable error) {
+        int attempts = transaction.getOutbox().getAttempts();
+        if ((isPermanent(error) || attempts >= properties.getMaxAttempts()) && !completed.isEmpty()) {
+            log.error("Outbox transaction {} applied only steps {} after {} attempts, requires review: {}",
+                    transaction.getId(), completed, attempts, error.getMessage());
+            // La proyección deshace solo los pasos que faltan; los resúmenes la siguen contando
+            return transactionRepository.reviewOutbox(transaction.getId(), error.getMessage())
+                    .then(Mono.defer(() -> balanceProjectionService.revert(transaction, completed)));
+        }
+        if (isPermanent(error) || attempts >= properties.getMaxAttempts()) {
+            log.error("Outbox transaction {} failed after {} attempts: {}",
+                    transaction.getId(), attempts, error.getMessage());
+            return transactionRepository.failOutbox(transaction.getId(), error.getMessage())
+                    .then(Mono.defer(() -> balanceProjectionService.revert(transaction, completed)))
+                    .then(Mono.defer(() -> transactionRollupService.revert(transaction)));
+        }
+        Duration backoff = backoff(attempts);
+        log.warn("Outbox transaction {} attempt {} failed, retrying in {}: {}",
+                transaction.getId(), attempts, backoff, error.getMessage());
+        return transactionRepository.rescheduleOutbox(
+                transaction.getId(), LocalDateTime.now().plus(backoff), error.getMessage());
+    }
+
+    /**
+     * Backoff exponencial acotado por maxBackoff, con la mitad del intervalo aleatoria (jitter).
+     * @param attempts Intentos realizados (desde 1)
+     * @return Espera hasta el próximo intento
+     */
+    Duration backoff(int attempts) {
+        long initial = properties.getInitialBackoff().toMillis();
+        long max = properties.getMaxBackoff().toMillis();
+        long ceiling = initial << Math.min(Math.max(attempts - 1, 0), 30);
+        long bounded = Math.max(1, Math.min(ceiling, max));
+        return Duration.ofMillis(bounded / 2 + ThreadLocalRandom.current().nextLong(bounded / 2 + 1));
+    }
+
+    /**
+     * Las respuestas 4xx (salvo 408 y 429) no mejoran al reintentar: saldo insuficiente, recurso inexistente...
+     */
+    private boolean isPermanent(Throwable error) {
+        return DownstreamFailurePredicate.isClientError(error) || error instanceof IllegalStateException;
+    }
+}
@@ -0,0 +1,19 @@
+package com.nttdata.bankapp.transaction.service;
+
+import com.nttdata.bankapp.transaction.dto.CardTicketDto;
+import com.nttdata.bankapp.transaction.dto.CustomerVolumeDto;
+import com.nttdata.bankapp.transaction.dto.MonthlyFeeRevenueDto;
+import com.nttdata.bankapp.transaction.dto.TypeTotalsDto;
+import reactor.core.publisher.Flux;
+
+import java.time.LocalDateTime;
+
+/**
+ * Analítica de transacciones calculada con pipelines de agregación en Mongo.
+ */
+public interface TransactionAnalyticsService {
+    Flux<TypeTotalsDto> totalsByType(LocalDateTime startDate, LocalDateTime endDate);
+    Flux<CustomerVolumeDto> topCustomers(LocalDateTime startDate, LocalDateTime endDate, Integer limit);
+    Flux<MonthlyFeeRevenueDto> feeRevenueByMonth(LocalDateTime startDate, LocalDateTime endDate);
+    Flux<CardTicketDto> averageTicketByCard(LocalDateTime startDate, LocalDateTime endDate, Integer limit);
+}
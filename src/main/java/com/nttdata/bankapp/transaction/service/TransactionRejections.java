@@ -0,0 +1,41 @@
+package com.nttdata.bankapp.transaction.service;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+
+import java.util.function.Supplier;
+
+/**
+ * Cuenta las solicitudes rechazadas por validación o por reglas de negocio en el contador
+ * transaction.rejections, etiquetado por motivo (insufficient_funds, customer_not_found, invalid_amount...).
+ * Los motivos son un conjunto cerrado: nunca incluyen IDs ni mensajes libres.
+ */
+@Component
+@RequiredArgsConstructor
+public class TransactionRejections {
+
+    private final MeterRegistry meterRegistry;
+
+    /**
+     * Registra un rechazo.
+     * @param reason Motivo
+     */
+    public void record(String reason) {
+        meterRegistry.counter("transaction.rejections", "reason", reason).increment();
+    }
+
+    /**
+     * Mono que registra el rechazo y falla con el error indicado al suscribirse.
+     * @param reason Motivo
+     * @param error Error a emitir
+     * @return Mono con error
+     */
+    public <T> Mono<T> reject(String reason, Supplier<? extends Throwable> error) {
+        return Mono.error(() -> {
+            record(reason);
+            return error.get();
+        });
+    }
+}
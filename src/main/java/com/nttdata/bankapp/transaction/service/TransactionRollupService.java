@@ -0,0 +1,33 @@
+package com.nttdata.bankapp.transaction.service;
+
+import com.nttdata.bankapp.transaction.dto.TransactionSummaryDto;
+import com.nttdata.bankapp.transaction.model.RollupGranularity;
+import com.nttdata.bankapp.transaction.model.RollupScope;
+import com.nttdata.bankapp.transaction.model.Transaction;
+import reactor.core.publisher.Mono;
+
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * Resúmenes diarios y mensuales por cuenta, tarjeta de crédito y cliente.
+ */
+public interface TransactionRollupService {
+
+    /**
+     * Suma las transacciones guardadas a sus resúmenes. Nunca falla la escritura que lo llama.
+     */
+    Mono<Void> record(List<Transaction> transactions);
+
+    /**
+     * Resta de sus resúmenes una transacción del outbox que terminó en FAILED.
+     */
+    Mono<Void> revert(Transaction transaction);
+
+    /**
+     * Suma los periodos completos que tocan el rango [from, to]. Con MONTH el rango se amplía al mes
+     * completo de cada extremo, y el resumen devuelve esos límites ampliados en from y to.
+     */
+    Mono<TransactionSummaryDto> summarize(RollupScope scope, String ownerId, RollupGranularity granularity,
+                                          LocalDate from, LocalDate to);
+}
@@ -12,12 +12,30 @@ import java.time.LocalDateTime;
 public interface TransactionService {
     Flux<TransactionDto> findAll();
     Mono<TransactionDto> findById(String id);
-    Flux<TransactionDto> findByAccountId(String accountId);
-    Flux<TransactionDto> findByCreditId(String creditId);
-    Flux<TransactionDto> findByCreditCardId(String creditCardId);
     Flux<TransactionDto> findByCustomerId(String customerId);
     Flux<TransactionDto> findByDateRange(LocalDateTime startDate, LocalDateTime endDate);
-    Flux<TransactionDto> findByAccountIdAndDateRange(String accountId, LocalDateTime startDate, LocalDateTime endDate);
+
+    /**
+     * Consultas paginadas por keyset. El cursor es el token devuelto en la página anterior
+     * (null para la primera) y el tamaño se limita al máximo configurado.
+     */
+    Mono<PageResponse<TransactionDto>> findPage(String cursor, Integer size);
+    Mono<PageResponse<TransactionDto>> findPageByAccountId(String accountId, String cursor, Integer size);
+    Mono<PageResponse<TransactionDto>> findPageByCreditId(String creditId, String cursor, Integer size);
+    Mono<PageResponse<TransactionDto>> findPageByCreditCardId(String creditCardId, String cursor, Integer size);
+    Mono<PageResponse<TransactionDto>> findPageByCustomerId(String customerId, String cursor, Integer size);
+    Mono<PageResponse<TransactionDto>> findPageByDateRange(LocalDateTime startDate, LocalDateTime endDate,
+                                                           String cursor, Integer size);
+    Mono<PageResponse<TransactionDto>> findPageByAccountIdAndDateRange(String accountId, LocalDateTime startDate,
+                                                                       LocalDateTime endDate, String cursor, Integer size);
+
+    /**
+     * Listados paginados de líneas de movimiento (id, tipo, monto, fecha) para consultas de alto volumen.
+     */
+    Mono<PageResponse<TransactionLineDto>> findLinePageByAccountId(String accountId, String cursor, Integer size);
+    Mono<PageResponse<TransactionLineDto>> findLinePageByCreditCardId(String creditCardId, String cursor, Integer size);
+    Mono<PageResponse<TransactionLineDto>> findLinePageByCustomerId(String customerId, String cursor, Integer size);
+
     Mono<TransactionDto> deposit(DepositRequest request);
     Mono<TransactionDto> withdraw(WithdrawalRequest request);
     Mono<TransactionDto> payCredit(PaymentRequest request);
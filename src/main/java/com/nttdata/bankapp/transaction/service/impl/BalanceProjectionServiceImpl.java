@@ -0,0 +1,285 @@
+package com.nttdata.bankapp.transaction.service.impl;
+
+import com.nttdata.bankapp.transaction.client.AccountService;
+import com.nttdata.bankapp.transaction.config.BalanceProjectionProperties;
+import com.nttdata.bankapp.transaction.dto.AccountBalanceDto;
+import com.nttdata.bankapp.transaction.exception.ResourceNotFoundException;
+import com.nttdata.bankapp.transaction.model.BalanceDelta;
+import com.nttdata.bankapp.transaction.model.BalanceSnapshot;
+import com.nttdata.bankapp.transaction.model.Transaction;
+import com.nttdata.bankapp.transaction.model.TransactionStatus;
+import com.nttdata.bankapp.transaction.repository.BalanceDeltaRepository;
+import com.nttdata.bankapp.transaction.repository.BalanceSnapshotRepository;
+import com.nttdata.bankapp.transaction.repository.TransactionRepository;
+import com.nttdata.bankapp.transaction.service.BalanceProjectionService;
+import com.nttdata.bankapp.transaction.service.KeyedSequencer;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static com.nttdata.bankapp.transaction.service.KeyedSequencer.accountKey;
+
+/**
+ * Proyección de saldos sobre las colecciones balance_snapshots y balance_deltas.
+ * Cada transacción guardada añade un delta por cuenta afectada con una secuencia repartida por el
+ * snapshot; una lectura suma los deltas posteriores al snapshot y, cuando pasan de snapshotEvery,
+ * los incorpora a un nuevo snapshot. El saldo inicial se toma del servicio de cuentas más los pasos
+ * del outbox que este aún no ha recibido.
+ */
+@Service
+@EnableConfigurationProperties(BalanceProjectionProperties.class)
+@RequiredArgsConstructor
+@Slf4j
+public class BalanceProjectionServiceImpl implements BalanceProjectionService {
+
+    private final BalanceSnapshotRepository snapshotRepository;
+    private final BalanceDeltaRepository deltaRepository;
+    private final TransactionRepository transactionRepository;
+    private final AccountService accountService;
+    private final KeyedSequencer sequencer;
+    private final BalanceProjectionProperties properties;
+
+    @Override
+    public Mono<Void> record(Transaction transaction) {
+        if (!properties.isEnabled()) {
+            return Mono.empty();
+        }
+        return Flux.fromIterable(effects(transaction, Collections.emptySet()).entrySet())
+                .concatMap(effect -> append(effect.getKey(), transaction.getId() + ":" + effect.getKey(),
+                        transaction.getId(), effect.getValue()))
+                .then()
+                .onErrorResume(e -> {
+                    log.warn("Could not record balance deltas for transaction {}: {}",
+                            transaction.getId(), e.getMessage());
+                    return Mono.empty();
+                });
+    }
+
+    @Override
+    public Mono<Void> revert(Transaction transaction, Set<String> completedSteps) {
+        if (!properties.isEnabled()) {
+            return Mono.empty();
+        }
+        return Flux.fromIterable(effects(transaction, completedSteps).entrySet())
+                .concatMap(effect -> append(effect.getKey(), transaction.getId() + ":" + effect.getKey() + ":revert",
+                        transaction.getId(), effect.getValue().negate()))
+                .then()
+                .onErrorResume(e -> {
+                    log.warn("Could not revert balance deltas for transaction {}: {}",
+                            transaction.getId(), e.getMessage());
+                    return Mono.empty();
+                });
+    }
+
+    @Override
+    public Mono<BigDecimal> currentBalance(String accountId) {
+        return project(accountId).map(AccountBalanceDto::getBalance);
+    }
+
+    @Override
+    public Mono<AccountBalanceDto> getBalance(String accountId) {
+        if (!properties.isEnabled()) {
+            return Mono.error(new ResourceNotFoundException("Balance projection is not enabled"));
+        }
+        log.debug("Reading projected balance for account: {}", accountId);
+        return sequencer.run(accountKey(accountId), () -> project(accountId));
+    }
+
+    @Override
+    public Mono<Boolean> reconcile(String accountId) {
+        return sequencer.run(accountKey(accountId), () -> pendingTransactions(accountId).hasElements()
+                .flatMap(pending -> {
+                    LocalDateTime now = LocalDateTime.now();
+                    if (pending) {
+                        // El saldo remoto cambia mientras el outbox aplica pasos: se revisa en otra pasada
+                        return snapshotRepository.markReconciled(accountId, now).thenReturn(false);
+                    }
+                    return Mono.zip(project(accountId), accountService.getBalance(accountId))
+                            .flatMap(tuple -> {
+                                BigDecimal projected = tuple.getT1().getBalance();
+                                BigDecimal remote = tuple.getT2().getBalance();
+                                if (projected.compareTo(remote) == 0) {
+                                    return snapshotRepository.markReconciled(accountId, now).thenReturn(false);
+                                }
+                                log.warn("Balance projection drift on account {}: projected {}, account service {}",
+                                        accountId, projected, remote);
+                                return seed(accountId).thenReturn(true);
+                            });
+                }));
+    }
+
+    /**
+     * Lee el snapshot (sembrándolo si aún no existe) y suma los deltas posteriores.
+     */
+    private Mono<AccountBalanceDto> project(String accountId) {
+        return snapshotRepository.findById(accountId)
+                .filter(BalanceSnapshot::isSeeded)
+                .switchIfEmpty(Mono.defer(() -> seed(accountId)))
+                .flatMap(snapshot -> deltaRepository.findByAccountIdAndSeqGreaterThan(accountId, snapshot.getThroughSeq())
+                        .collectList()
+                        .flatMap(deltas -> {
+                            AccountBalanceDto balance = AccountBalanceDto.builder()
+                                    .accountId(accountId)
+                                    .balance(snapshot.getBalance().add(sum(deltas)))
+                                    .snapshotBalance(snapshot.getBalance())
+                                    .snapshotAt(snapshot.getSnapshotAt())
+                                    .deltasSinceSnapshot(deltas.size())
+                                    .build();
+                            if (deltas.size() < properties.getSnapshotEvery()) {
+                                return Mono.just(balance);
+                            }
+                            return compact(snapshot, deltas)
+                                    .onErrorResume(e -> {
+                                        log.warn("Could not compact balance projection of account {}: {}",
+                                                accountId, e.getMessage());
+                                        return Mono.empty();
+                                    })
+                                    .thenReturn(balance);
+                        }));
+    }
+
+    /**
+     * Toma el saldo del servicio de cuentas como nuevo snapshot, dando por incluidos todos los deltas
+     * repartidos hasta ahora. Si entretanto se reparte otra secuencia, vuelve a intentarlo.
+     */
+    private Mono<BalanceSnapshot> seed(String accountId) {
+        return Mono.defer(() -> snapshotRepository.findById(accountId)
+                        .map(BalanceSnapshot::getNextSeq)
+                        .defaultIfEmpty(0L)
+                        .flatMap(nextSeq -> expectedBalance(accountId)
+                                .flatMap(balance -> snapshotRepository.seed(
+                                        accountId, balance, nextSeq, LocalDateTime.now()))))
+                .repeatWhenEmpty(3, attempts -> attempts)
+                .flatMap(snapshot -> deltaRepository.deleteByAccountIdAndSeqLessThanEqual(
+                                accountId, snapshot.getThroughSeq())
+                        .doOnNext(deleted -> log.info("Seeded balance projection of account {} at {}",
+                                accountId, snapshot.getBalance()))
+                        .thenReturn(snapshot));
+    }
+
+    /**
+     * Incorpora al snapshot los deltas con más de compactionGrace de antigüedad; los más recientes
+     * pueden tener aún secuencias menores en vuelo y se dejan para el siguiente snapshot.
+     */
+    private Mono<Void> compact(BalanceSnapshot snapshot, List<BalanceDelta> deltas) {
+        LocalDateTime now = LocalDateTime.now();
+        LocalDateTime cutoff = now.minus(properties.getCompactionGrace());
+        long throughSeq = deltas.stream()
+                .filter(delta -> delta.getCreatedAt().isBefore(cutoff))
+                .mapToLong(BalanceDelta::getSeq)
+                .max()
+                .orElse(snapshot.getThroughSeq());
+        if (throughSeq == snapshot.getThroughSeq()) {
+            return Mono.empty();
+        }
+        BigDecimal balance = snapshot.getBalance().add(deltas.stream()
+                .filter(delta -> delta.getSeq() <= throughSeq)
+                .map(BalanceDelta::getAmount)
+                .reduce(BigDecimal.ZERO, BigDecimal::add));
+        String accountId = snapshot.getId();
+        return snapshotRepository.fold(accountId, snapshot.getThroughSeq(), throughSeq, balance, now)
+                .flatMap(folded -> deltaRepository.deleteByAccountIdAndSeqLessThanEqual(accountId, throughSeq))
+                .doOnNext(deleted -> log.debug("Compacted {} balance deltas of account {}", deleted, accountId))
+                .then();
+    }
+
+    private Mono<Void> append(String accountId, String deltaId, String transactionId, BigDecimal amount) {
+        if (amount.signum() == 0) {
+            return Mono.empty();
+        }
+        return snapshotRepository.reserveSeq(accountId)
+                .flatMap(seq -> deltaRepository.insert(BalanceDelta.builder()
+                        .id(deltaId)
+                        .accountId(accountId)
+                        .seq(seq)
+                        .amount(amount)
+                        .transactionId(transactionId)
+                        // Después de reservar la secuencia, para que compact pueda fiarse de la antigüedad
+                        .createdAt(LocalDateTime.now())
+                        .build()))
+                // Transacción ya registrada
+                .onErrorResume(DuplicateKeyException.class, e -> Mono.empty())
+                .then();
+    }
+
+    /**
+     * Saldo del servicio de cuentas más los pasos pendientes del outbox que aún no ha recibido.
+     */
+    private Mono<BigDecimal> expectedBalance(String accountId) {
+        return Mono.zip(
+                accountService.getBalance(accountId).map(AccountService.BalanceDto::getBalance),
+                pendingTransactions(accountId)
+                        .map(transaction -> effects(transaction, completedSteps(transaction))
+                                .getOrDefault(accountId, BigDecimal.ZERO))
+                        .reduce(BigDecimal.ZERO, BigDecimal::add),
+                BigDecimal::add);
+    }
+
+    private Flux<Transaction> pendingTransactions(String accountId) {
+        return Flux.merge(
+                        transactionRepository.findByAccountIdAndStatus(accountId, TransactionStatus.PENDING),
+                        transactionRepository.findByDestinationAccountIdAndStatus(accountId, TransactionStatus.PENDING))
+                .distinct(Transaction::getId);
+    }
+
+    /**
+     * Cambio de saldo por cuenta de una transacción, sin los pasos indicados. Los nombres de paso son
+     * los del OutboxDispatcher, de modo que un paso ya aplicado en remoto se reconoce aquí.
+     * @param transaction Transacción
+     * @param skippedSteps Pasos a excluir
+     * @return Mapa cuenta -> cambio de saldo
+     */
+    static Map<String, BigDecimal> effects(Transaction transaction, Set<String> skippedSteps) {
+        Map<String, BigDecimal> effects = new LinkedHashMap<>();
+        switch (transaction.getType()) {
+            case DEPOSIT:
+                addEffect(effects, skippedSteps, "credit", transaction.getAccountId(), transaction.getAmount());
+                break;
+            case WITHDRAWAL:
+                addEffect(effects, skippedSteps, "debit", transaction.getAccountId(), transaction.getAmount().negate());
+                break;
+            case TRANSFER:
+                addEffect(effects, skippedSteps, "debit", transaction.getAccountId(), transaction.getAmount().negate());
+                addEffect(effects, skippedSteps, "credit", transaction.getDestinationAccountId(), transaction.getAmount());
+                if (transaction.getFee() != null) {
+                    addEffect(effects, skippedSteps, "count", transaction.getAccountId(), transaction.getFee().negate());
+                }
+                break;
+            default:
+                // Pagos y consumos no mueven saldos de cuenta
+                break;
+        }
+        return effects;
+    }
+
+    private static void addEffect(Map<String, BigDecimal> effects, Set<String> skippedSteps, String step,
+                                  String accountId, BigDecimal amount) {
+        if (accountId != null && !skippedSteps.contains(step)) {
+            effects.merge(accountId, amount, BigDecimal::add);
+        }
+    }
+
+    private static Set<String> completedSteps(Transaction transaction) {
+        return transaction.getOutbox() != null && transaction.getOutbox().getCompletedSteps() != null
+                ? transaction.getOutbox().getCompletedSteps()
+                : Collections.emptySet();
+    }
+
+    private static BigDecimal sum(List<BalanceDelta> deltas) {
+        return deltas.stream()
+                .map(BalanceDelta::getAmount)
+                .reduce(BigDecimal.ZERO, BigDecimal::add);
+    }
+}
@@ -0,0 +1,267 @@
+package com.nttdata.bankapp.transaction.service.impl;
+
+import com.nttdata.bankapp.transaction.client.AccountService;
+import com.nttdata.bankapp.transaction.client.CreditService;
+import com.nttdata.bankapp.transaction.client.CustomerService;
+import com.nttdata.bankapp.transaction.dto.BulkItemResult;
+import com.nttdata.bankapp.transaction.dto.BulkTransactionRequest;
+import com.nttdata.bankapp.transaction.model.OutboxState;
+import com.nttdata.bankapp.transaction.model.Transaction;
+import com.nttdata.bankapp.transaction.model.TransactionStatus;
+import com.nttdata.bankapp.transaction.model.TransactionType;
+import com.nttdata.bankapp.transaction.repository.TransactionRepository;
+import com.nttdata.bankapp.transaction.service.BalanceProjectionService;
+import com.nttdata.bankapp.transaction.service.BulkTransactionService;
+import com.nttdata.bankapp.transaction.service.TransactionRejections;
+import com.nttdata.bankapp.transaction.service.TransactionRollupService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.bson.types.ObjectId;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.util.function.Tuple2;
+import reactor.util.function.Tuples;
+
+import javax.validation.ConstraintViolation;
+import javax.validation.Validator;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Carga masiva de depósitos y pagos de crédito.
+ * La entrada se procesa en bloques de chunkSize líneas: cada bloque valida sus clientes, cuentas y
+ * créditos con una consulta por ID distinto, guarda las transacciones válidas con un insertMany no
+ * ordenado como PENDING con su registro de outbox, y devuelve un resultado por línea en el orden de entrada.
+ * Si una consulta falla, solo las líneas de ese ID salen como FAILED; la carga sigue con las demás.
+ * Los cambios remotos (saldo, pago) los aplica el dispatcher del outbox.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class BulkTransactionServiceImpl implements BulkTransactionService {
+
+    private final TransactionRepository transactionRepository;
+    private final AccountService accountService;
+    private final CreditService creditService;
+    private final CustomerService customerService;
+    private final Validator validator;
+    private final BalanceProjectionService balanceProjectionService;
+    private final TransactionRollupService transactionRollupService;
+    private final TransactionRejections rejections;
+
+    @Value("${app.bulk.chunk-size:500}")
+    private int chunkSize;
+
+    @Value("${app.bulk.concurrency:2}")
+    private int concurrency;
+
+    @Value("${app.bulk.lookup-concurrency:16}")
+    private int lookupConcurrency;
+
+    @Override
+    public Flux<BulkItemResult> ingest(Flux<BulkTransactionRequest> requests) {
+        return requests.index()
+                .buffer(chunkSize)
+                // Varios bloques en curso, pero los resultados salen en el orden de entrada
+                .flatMapSequential(this::ingestChunk, concurrency);
+    }
+
+    private Flux<BulkItemResult> ingestChunk(List<Tuple2<Long, BulkTransactionRequest>> chunk) {
+        List<BulkItemResult> results = new ArrayList<>(Collections.nCopies(chunk.size(), null));
+        List<Integer> candidates = new ArrayList<>();
+        for (int i = 0; i < chunk.size(); i++) {
+            String problem = validate(chunk.get(i).getT2());
+            if (problem != null) {
+                rejections.record("invalid_bulk_line");
+                results.set(i, rejected(chunk.get(i).getT1(), problem));
+            } else {
+                candidates.add(i);
+            }
+        }
+
+        List<BulkTransactionRequest> valid = candidates.stream()
+                .map(i -> chunk.get(i).getT2())
+                .collect(Collectors.toList());
+
+        // Una consulta por ID distinto del bloque, no por línea
+        return Mono.zip(
+                        lookup(valid, BulkTransactionRequest::getCustomerId, customerService::customerExists),
+                        lookup(valid, BulkTransactionRequest::getAccountId, accountService::accountExists),
+                        lookup(valid, BulkTransactionRequest::getCreditId, creditService::creditExists))
+                .flatMapMany(lookups -> {
+                    List<Integer> positions = new ArrayList<>();
+                    List<Transaction> transactions = new ArrayList<>();
+                    LocalDateTime now = LocalDateTime.now();
+                    for (Integer i : candidates) {
+                        long index = chunk.get(i).getT1();
+                        BulkTransactionRequest request = chunk.get(i).getT2();
+                        Existence customer = lookups.getT1()
+                                .getOrDefault(request.getCustomerId(), Existence.MISSING);
+                        Existence target = request.getType() == TransactionType.DEPOSIT
+                                ? lookups.getT2().getOrDefault(request.getAccountId(), Existence.MISSING)
+                                : lookups.getT3().getOrDefault(request.getCreditId(), Existence.MISSING);
+                        if (customer.error != null) {
+                            results.set(i, failed(index, "Customer lookup failed for id: "
+                                    + request.getCustomerId() + " (" + customer.error + ")"));
+                        } else if (!customer.found) {
+                            rejections.record("customer_not_found");
+                            results.set(i, rejected(index, "Customer not found with id: " + request.getCustomerId()));
+                        } else if (request.getType() == TransactionType.DEPOSIT && target.error != null) {
+                            results.set(i, failed(index, "Account lookup failed for id: "
+                                    + request.getAccountId() + " (" + target.error + ")"));
+                        } else if (request.getType() == TransactionType.DEPOSIT && !target.found) {
+                            rejections.record("account_not_found");
+                            results.set(i, rejected(index, "Account not found with id: " + request.getAccountId()));
+                        } else if (request.getType() == TransactionType.PAYMENT && target.error != null) {
+                            results.set(i, failed(index, "Credit lookup failed for id: "
+                                    + request.getCreditId() + " (" + target.error + ")"));
+                        } else if (request.getType() == TransactionType.PAYMENT && !target.found) {
+                            rejections.record("credit_not_found");
+                            results.set(i, rejected(index, "Credit not found with id: " + request.getCreditId()));
+                        } else {
+                            positions.add(i);
+                            transactions.add(toTransaction(request, now));
+                        }
+                    }
+
+                    return transactionRepository.insertUnordered(transactions)
+                            .flatMap(failures -> {
+                                List<Transaction> inserted = new ArrayList<>();
+                                for (int j = 0; j < transactions.size(); j++) {
+                                    if (!failures.containsKey(j)) {
+                                        inserted.add(transactions.get(j));
+                                    }
+                                }
+                                // Un solo bulkWrite de resúmenes para todo el bloque
+                                return Flux.fromIterable(inserted)
+                                        .flatMap(balanceProjectionService::record, lookupConcurrency)
+                                        .then(transactionRollupService.record(inserted))
+                                        .thenReturn(failures);
+                            })
+                            .flatMapIterable(failures -> {
+                                for (int j = 0; j < transactions.size(); j++) {
+                                    int i = positions.get(j);
+                                    Transaction transaction = transactions.get(j);
+                                    results.set(i, failures.containsKey(j)
+                                            ? failed(chunk.get(i).getT1(), failures.get(j))
+                                            : created(chunk.get(i).getT1(), transaction));
+                                }
+                                if (log.isDebugEnabled()) {
+                                    log.debug("Bulk chunk: {} lines, {} inserted, {} failed",
+                                            chunk.size(), transactions.size() - failures.size(), failures.size());
+                                }
+                                return results;
+                            });
+                });
+    }
+
+    /**
+     * Valida una línea; devuelve el motivo del rechazo o null si es válida.
+     */
+    private String validate(BulkTransactionRequest request) {
+        Set<ConstraintViolation<BulkTransactionRequest>> violations = validator.validate(request);
+        if (!violations.isEmpty()) {
+            return violations.stream()
+                    .map(ConstraintViolation::getMessage)
+                    .sorted()
+                    .collect(Collectors.joining(", "));
+        }
+        if (request.getType() == TransactionType.DEPOSIT) {
+            return isBlank(request.getAccountId()) ? "Account ID is required" : null;
+        }
+        if (request.getType() == TransactionType.PAYMENT) {
+            return isBlank(request.getCreditId()) ? "Credit ID is required" : null;
+        }
+        return "Unsupported bulk transaction type: " + request.getType();
+    }
+
+    /**
+     * Consulta la existencia de cada ID distinto con concurrencia acotada.
+     * Un error (p. ej. servicio no disponible) queda en el ID que lo sufrió: sus líneas salen como FAILED
+     * y el resto del bloque y de la carga sigue adelante.
+     * @return Mono con el mapa ID -> resultado de la consulta
+     */
+    private Mono<Map<String, Existence>> lookup(List<BulkTransactionRequest> requests,
+                                                Function<BulkTransactionRequest, String> idOf,
+                                                Function<String, Mono<Boolean>> exists) {
+        Set<String> ids = requests.stream()
+                .map(idOf)
+                .filter(Objects::nonNull)
+                .collect(Collectors.toSet());
+        return Flux.fromIterable(ids)
+                .flatMap(id -> exists.apply(id)
+                        .map(found -> Tuples.of(id, found ? Existence.FOUND : Existence.MISSING))
+                        .onErrorResume(e -> {
+                            log.warn("Bulk lookup failed for id {}: {}", id, e.getMessage());
+                            return Mono.just(Tuples.of(id, Existence.unavailable(e)));
+                        }), lookupConcurrency)
+                .collectMap(Tuple2::getT1, Tuple2::getT2);
+    }
+
+    private Transaction toTransaction(BulkTransactionRequest request, LocalDateTime now) {
+        return Transaction.builder()
+                // ID asignado aquí para poder informarlo sin releer tras el insertMany
+                .id(new ObjectId().toHexString())
+                .accountId(request.getType() == TransactionType.DEPOSIT ? request.getAccountId() : null)
+                .creditId(request.getType() == TransactionType.PAYMENT ? request.getCreditId() : null)
+                .type(request.getType())
+                .amount(request.getAmount())
+                .description(request.getDescription())
+                .transactionDate(now)
+                .customerId(request.getCustomerId())
+                .referenceNumber(TransactionServiceImpl.generateReferenceNumber())
+                .status(TransactionStatus.PENDING)
+                .outbox(OutboxState.pending(now))
+                .build();
+    }
+
+    private static boolean isBlank(String value) {
+        return value == null || value.trim().isEmpty();
+    }
+
+    private static BulkItemResult rejected(long index, String error) {
+        return BulkItemResult.builder().index(index).status(BulkItemResult.Status.REJECTED).error(error).build();
+    }
+
+    private static BulkItemResult failed(long index, String error) {
+        return BulkItemResult.builder().index(index).status(BulkItemResult.Status.FAILED).error(error).build();
+    }
+
+    /**
+     * Resultado de consultar un ID: existe, no existe o no se pudo consultar (error != null).
+     */
+    private static final class Existence {
+        private static final Existence FOUND = new Existence(true, null);
+        private static final Existence MISSING = new Existence(false, null);
+
+        private final boolean found;
+        private final String error;
+
+        private Existence(boolean found, String error) {
+            this.found = found;
+            this.error = error;
+        }
+
+        private static Existence unavailable(Throwable e) {
+            return new Existence(false, e.getMessage() != null ? e.getMessage() : e.getClass().getSimpleName());
+        }
+    }
+
+    private static BulkItemResult created(long index, Transaction transaction) {
+        return BulkItemResult.builder()
+                .index(index)
+                .status(BulkItemResult.Status.CREATED)
+                .transactionId(transaction.getId())
+                .referenceNumber(transaction.getReferenceNumber())
+                .build();
+    }
+}
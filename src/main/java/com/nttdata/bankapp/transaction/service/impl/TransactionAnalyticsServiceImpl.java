@@ -0,0 +1,79 @@
+package com.nttdata.bankapp.transaction.service.impl;
+
+import com.nttdata.bankapp.transaction.dto.CardTicketDto;
+import com.nttdata.bankapp.transaction.dto.CustomerVolumeDto;
+import com.nttdata.bankapp.transaction.dto.MonthlyFeeRevenueDto;
+import com.nttdata.bankapp.transaction.dto.TypeTotalsDto;
+import com.nttdata.bankapp.transaction.repository.TransactionRepository;
+import com.nttdata.bankapp.transaction.service.TransactionAnalyticsService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Flux;
+
+import java.time.LocalDateTime;
+import java.util.function.Supplier;
+
+/**
+ * Implementación de la analítica de transacciones: valida el rango y delega la agrupación en Mongo,
+ * de modo que solo viajan las filas del resultado.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class TransactionAnalyticsServiceImpl implements TransactionAnalyticsService {
+
+    private final TransactionRepository transactionRepository;
+
+    @Value("${app.analytics.default-limit:10}")
+    private int defaultLimit;
+
+    @Value("${app.analytics.max-limit:100}")
+    private int maxLimit;
+
+    @Override
+    public Flux<TypeTotalsDto> totalsByType(LocalDateTime startDate, LocalDateTime endDate) {
+        log.debug("Aggregating totals by type between {} and {}", startDate, endDate);
+        return inRange(startDate, endDate, () -> transactionRepository.totalsByType(startDate, endDate));
+    }
+
+    @Override
+    public Flux<CustomerVolumeDto> topCustomers(LocalDateTime startDate, LocalDateTime endDate, Integer limit) {
+        log.debug("Aggregating top customers between {} and {}", startDate, endDate);
+        return inRange(startDate, endDate, () ->
+                transactionRepository.topCustomersByVolume(startDate, endDate, resolveLimit(limit)));
+    }
+
+    @Override
+    public Flux<MonthlyFeeRevenueDto> feeRevenueByMonth(LocalDateTime startDate, LocalDateTime endDate) {
+        log.debug("Aggregating fee revenue between {} and {}", startDate, endDate);
+        return inRange(startDate, endDate, () -> transactionRepository.feeRevenueByMonth(startDate, endDate));
+    }
+
+    @Override
+    public Flux<CardTicketDto> averageTicketByCard(LocalDateTime startDate, LocalDateTime endDate, Integer limit) {
+        log.debug("Aggregating average ticket by card between {} and {}", startDate, endDate);
+        return inRange(startDate, endDate, () ->
+                transactionRepository.averageTicketByCard(startDate, endDate, resolveLimit(limit)));
+    }
+
+    private <T> Flux<T> inRange(LocalDateTime startDate, LocalDateTime endDate, Supplier<Flux<T>> query) {
+        return Flux.defer(() -> {
+            if (!startDate.isBefore(endDate)) {
+                throw new IllegalArgumentException("startDate must be before endDate");
+            }
+            return query.get();
+        });
+    }
+
+    private int resolveLimit(Integer limit) {
+        if (limit == null) {
+            return defaultLimit;
+        }
+        if (limit < 1) {
+            throw new IllegalArgumentException("Limit must be greater than 0");
+        }
+        return Math.min(limit, maxLimit);
+    }
+}
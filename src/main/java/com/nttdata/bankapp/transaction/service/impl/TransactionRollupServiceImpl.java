@@ -0,0 +1,195 @@
+package com.nttdata.bankapp.transaction.service.impl;
+
+import com.nttdata.bankapp.transaction.dto.PeriodSummaryDto;
+import com.nttdata.bankapp.transaction.dto.SummaryTotalsDto;
+import com.nttdata.bankapp.transaction.dto.TransactionSummaryDto;
+import com.nttdata.bankapp.transaction.exception.ResourceNotFoundException;
+import com.nttdata.bankapp.transaction.model.RollupGranularity;
+import com.nttdata.bankapp.transaction.model.RollupScope;
+import com.nttdata.bankapp.transaction.model.RollupTotals;
+import com.nttdata.bankapp.transaction.model.Transaction;
+import com.nttdata.bankapp.transaction.model.TransactionRollup;
+import com.nttdata.bankapp.transaction.model.TransactionType;
+import com.nttdata.bankapp.transaction.repository.TransactionRollupRepository;
+import com.nttdata.bankapp.transaction.service.TransactionRollupService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Mono;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.stream.Collectors;
+
+/**
+ * Mantiene los resúmenes de transaction_rollups: cada transacción suma su monto, su comisión y una
+ * unidad al día y al mes de su cuenta (y de la cuenta destino en transferencias), de su tarjeta y de
+ * su cliente. Los incrementos de varias transacciones sobre el mismo resumen se agrupan en memoria y
+ * se envían en un solo bulkWrite.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class TransactionRollupServiceImpl implements TransactionRollupService {
+
+    static final String TRANSFER_IN = "TRANSFER_IN";
+
+    private final TransactionRollupRepository rollupRepository;
+
+    @Value("${app.rollups.enabled:false}")
+    private boolean enabled;
+
+    @Override
+    public Mono<Void> record(List<Transaction> transactions) {
+        return apply(transactions, BigDecimal.ONE);
+    }
+
+    @Override
+    public Mono<Void> revert(Transaction transaction) {
+        return apply(Collections.singletonList(transaction), BigDecimal.ONE.negate());
+    }
+
+    @Override
+    public Mono<TransactionSummaryDto> summarize(RollupScope scope, String ownerId, RollupGranularity granularity,
+                                                 LocalDate from, LocalDate to) {
+        if (!enabled) {
+            return Mono.error(new ResourceNotFoundException("Transaction rollups are not enabled"));
+        }
+        if (from.isAfter(to)) {
+            return Mono.error(new IllegalArgumentException("'from' must not be after 'to'"));
+        }
+        if (log.isDebugEnabled()) {
+            log.debug("Summarizing {} {} by {} between {} and {}", scope, ownerId, granularity, from, to);
+        }
+        // Los resúmenes guardan periodos completos: el rango se amplía a sus límites y se informa ampliado
+        LocalDate periodFrom = granularity.periodStart(from);
+        LocalDate periodTo = granularity.periodEnd(to);
+        return rollupRepository.findPeriods(scope, ownerId, granularity, periodFrom, periodTo)
+                .map(this::toPeriod)
+                .collectList()
+                .map(periods -> {
+                    Map<String, SummaryTotalsDto> byType = new TreeMap<>();
+                    SummaryTotalsDto totals = emptyTotals();
+                    for (PeriodSummaryDto period : periods) {
+                        totals = add(totals, period.getTotals());
+                        period.getByType().forEach((type, typeTotals) ->
+                                byType.merge(type, typeTotals, TransactionRollupServiceImpl::add));
+                    }
+                    return TransactionSummaryDto.builder()
+                            .scope(scope)
+                            .ownerId(ownerId)
+                            .granularity(granularity)
+                            .from(periodFrom)
+                            .to(periodTo)
+                            .totals(totals)
+                            .byType(byType)
+                            .periods(periods)
+                            .build();
+                });
+    }
+
+    private Mono<Void> apply(List<Transaction> transactions, BigDecimal sign) {
+        if (!enabled || transactions.isEmpty()) {
+            return Mono.empty();
+        }
+        return Mono.defer(() -> rollupRepository.applyIncrements(increments(transactions, sign).values()))
+                .onErrorResume(e -> {
+                    log.warn("Could not update rollups for {} transactions: {}", transactions.size(), e.getMessage());
+                    return Mono.empty();
+                });
+    }
+
+    /**
+     * Agrupa los incrementos de las transacciones por resumen.
+     * @param transactions Transacciones guardadas
+     * @param sign 1 para sumar, -1 para restar
+     * @return Incrementos por ID de resumen
+     */
+    static Map<String, TransactionRollup> increments(List<Transaction> transactions, BigDecimal sign) {
+        Map<String, TransactionRollup> increments = new LinkedHashMap<>();
+        for (Transaction transaction : transactions) {
+            LocalDate date = transaction.getTransactionDate().toLocalDate();
+            String type = transaction.getType().name();
+            BigDecimal amount = orZero(transaction.getAmount()).multiply(sign);
+            BigDecimal fee = orZero(transaction.getFee()).multiply(sign);
+            long count = sign.signum();
+
+            addIncrement(increments, RollupScope.ACCOUNT, transaction.getAccountId(), date, type, count, amount, fee);
+            if (transaction.getType() == TransactionType.TRANSFER) {
+                addIncrement(increments, RollupScope.ACCOUNT, transaction.getDestinationAccountId(), date,
+                        TRANSFER_IN, count, amount, BigDecimal.ZERO);
+            }
+            addIncrement(increments, RollupScope.CREDIT_CARD, transaction.getCreditCardId(), date, type, count, amount, fee);
+            addIncrement(increments, RollupScope.CUSTOMER, transaction.getCustomerId(), date, type, count, amount, fee);
+        }
+        return increments;
+    }
+
+    private static void addIncrement(Map<String, TransactionRollup> increments, RollupScope scope, String ownerId,
+                                     LocalDate date, String type, long count, BigDecimal amount, BigDecimal fee) {
+        if (ownerId == null) {
+            return;
+        }
+        for (RollupGranularity granularity : RollupGranularity.values()) {
+            LocalDate periodStart = granularity.periodStart(date);
+            TransactionRollup increment = increments.computeIfAbsent(
+                    TransactionRollup.idOf(scope, ownerId, granularity, periodStart),
+                    id -> TransactionRollup.builder()
+                            .id(id)
+                            .scope(scope)
+                            .ownerId(ownerId)
+                            .granularity(granularity)
+                            .periodStart(periodStart)
+                            .totals(new RollupTotals(0, BigDecimal.ZERO, BigDecimal.ZERO))
+                            .byType(new HashMap<>())
+                            .build());
+            accumulate(increment.getTotals(), count, amount, fee);
+            accumulate(increment.getByType().computeIfAbsent(type,
+                    t -> new RollupTotals(0, BigDecimal.ZERO, BigDecimal.ZERO)), count, amount, fee);
+        }
+    }
+
+    private static void accumulate(RollupTotals totals, long count, BigDecimal amount, BigDecimal fee) {
+        totals.setCount(totals.getCount() + count);
+        totals.setAmount(totals.getAmount().add(amount));
+        totals.setFees(totals.getFees().add(fee));
+    }
+
+    private PeriodSummaryDto toPeriod(TransactionRollup rollup) {
+        Map<String, RollupTotals> byType = rollup.getByType() != null ? rollup.getByType() : Collections.emptyMap();
+        return PeriodSummaryDto.builder()
+                .periodStart(rollup.getPeriodStart())
+                .totals(toTotals(rollup.getTotals()))
+                .byType(byType.entrySet().stream()
+                        .collect(Collectors.toMap(Map.Entry::getKey, e -> toTotals(e.getValue()),
+                                (a, b) -> a, TreeMap::new)))
+                .build();
+    }
+
+    private static SummaryTotalsDto toTotals(RollupTotals totals) {
+        if (totals == null) {
+            return emptyTotals();
+        }
+        return new SummaryTotalsDto(totals.getCount(), orZero(totals.getAmount()), orZero(totals.getFees()));
+    }
+
+    private static SummaryTotalsDto emptyTotals() {
+        return new SummaryTotalsDto(0, BigDecimal.ZERO, BigDecimal.ZERO);
+    }
+
+    private static SummaryTotalsDto add(SummaryTotalsDto a, SummaryTotalsDto b) {
+        return new SummaryTotalsDto(a.getCount() + b.getCount(), a.getAmount().add(b.getAmount()),
+                a.getFees().add(b.getFees()));
+    }
+
+    private static BigDecimal orZero(BigDecimal value) {
+        return value != null ? value : BigDecimal.ZERO;
+    }
+}
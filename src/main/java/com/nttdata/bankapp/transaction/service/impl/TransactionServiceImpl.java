@@ -7,19 +7,35 @@ import com.nttdata.bankapp.transaction.client.CreditService;
 import com.nttdata.bankapp.transaction.client.CustomerService;
 import com.nttdata.bankapp.transaction.dto.*;
 import com.nttdata.bankapp.transaction.exception.ResourceNotFoundException;
+import com.nttdata.bankapp.transaction.model.OutboxState;
 import com.nttdata.bankapp.transaction.model.Transaction;
+import com.nttdata.bankapp.transaction.model.TransactionStatus;
 import com.nttdata.bankapp.transaction.model.TransactionType;
 import com.nttdata.bankapp.transaction.repository.TransactionRepository;
+import com.nttdata.bankapp.transaction.service.BalanceProjectionService;
+import com.nttdata.bankapp.transaction.service.KeyedSequencer;
+import com.nttdata.bankapp.transaction.service.TransactionRejections;
+import com.nttdata.bankapp.transaction.service.TransactionRollupService;
 import com.nttdata.bankapp.transaction.service.TransactionService;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.mongodb.core.query.Criteria;
 import org.springframework.stereotype.Service;
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
 import java.util.UUID;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+import static com.nttdata.bankapp.transaction.service.KeyedSequencer.accountKey;
+import static com.nttdata.bankapp.transaction.service.KeyedSequencer.creditCardKey;
 /**
  * Implementación de los servicios para operaciones con transacciones.
  */
@@ -33,233 +49,252 @@ public class TransactionServiceImpl implements TransactionService {
     private final CreditService creditService;
     private final CreditCardService creditCardService;
     private final CustomerService customerService;
+    private final KeyedSequencer sequencer;
+    private final BalanceProjectionService balanceProjectionService;
+    private final TransactionRollupService transactionRollupService;
+    private final TransactionRejections rejections;
+
+    @Value("${app.pagination.default-size:20}")
+    private int defaultPageSize;
+
+    @Value("${app.pagination.max-size:100}")
+    private int maxPageSize;
+
+    @Value("${app.export.batch-size:500}")
+    private int exportBatchSize;
+
+    @Value("${app.outbox.enabled:false}")
+    private boolean outboxEnabled;
+
+    @Value("${app.balance-projection.enabled:false}")
+    private boolean balanceProjectionEnabled;
 
     @Override
     public Flux<TransactionDto> findAll() {
-        log.info("Finding all transactions");
-        return transactionRepository.findAll()
-                .map(this::mapToDto);
+        log.debug("Finding all transactions");
+        return transactionRepository.streamDtos(new Criteria())
+                // Limita la demanda al cursor de Mongo a lotes de exportBatchSize documentos
+                .limitRate(exportBatchSize);
     }
 
     @Override
     public Mono<TransactionDto> findById(String id) {
-        log.info("Finding transaction by id: {}", id);
+        log.debug("Finding transaction by id: {}", id);
         return transactionRepository.findById(id)
-                .map(this::mapToDto)
+                .map(TransactionServiceImpl::mapToDto)
                 .switchIfEmpty(Mono.error(new ResourceNotFoundException("Transaction not found with id: " + id)));
     }
 
     @Override
-    public Flux<TransactionDto> findByAccountId(String accountId) {
-        log.info("Finding transactions by account id: {}", accountId);
-        return transactionRepository.findByAccountId(accountId)
-                .map(this::mapToDto);
+    public Flux<TransactionDto> findByCustomerId(String customerId) {
+        log.debug("Finding transactions by customer id: {}", customerId);
+        return transactionRepository.streamDtos(Criteria.where("customerId").is(customerId))
+                // Limita la demanda al cursor de Mongo a lotes de exportBatchSize documentos
+                .limitRate(exportBatchSize);
     }
 
     @Override
-    public Flux<TransactionDto> findByCreditId(String creditId) {
-        log.info("Finding transactions by credit id: {}", creditId);
-        return transactionRepository.findByCreditId(creditId)
-                .map(this::mapToDto);
+    public Flux<TransactionDto> findByDateRange(LocalDateTime startDate, LocalDateTime endDate) {
+        log.debug("Finding transactions between {} and {}", startDate, endDate);
+        return transactionRepository.streamDtos(Criteria.where("transactionDate").gt(startDate).lt(endDate))
+                // Limita la demanda al cursor de Mongo a lotes de exportBatchSize documentos
+                .limitRate(exportBatchSize);
     }
 
     @Override
-    public Flux<TransactionDto> findByCreditCardId(String creditCardId) {
-        log.info("Finding transactions by credit card id: {}", creditCardId);
-        return transactionRepository.findByCreditCardId(creditCardId)
-                .map(this::mapToDto);
+    public Mono<PageResponse<TransactionDto>> findPage(String cursor, Integer size) {
+        log.debug("Finding transactions page, cursor: {}", cursor);
+        return findPage(new Criteria(), cursor, size);
     }
 
     @Override
-    public Flux<TransactionDto> findByCustomerId(String customerId) {
-        log.info("Finding transactions by customer id: {}", customerId);
-        return transactionRepository.findByCustomerId(customerId)
-                .map(this::mapToDto);
+    public Mono<PageResponse<TransactionDto>> findPageByAccountId(String accountId, String cursor, Integer size) {
+        log.debug("Finding transactions page by account id: {}", accountId);
+        return findPage(Criteria.where("accountId").is(accountId), cursor, size);
     }
 
     @Override
-    public Flux<TransactionDto> findByDateRange(LocalDateTime startDate, LocalDateTime endDate) {
-        log.info("Finding transactions between {} and {}", startDate, endDate);
-        return transactionRepository.findByTransactionDateBetween(startDate, endDate)
-                .map(this::mapToDto);
+    public Mono<PageResponse<TransactionDto>> findPageByCreditId(String creditId, String cursor, Integer size) {
+        log.debug("Finding transactions page by credit id: {}", creditId);
+        return findPage(Criteria.where("creditId").is(creditId), cursor, size);
     }
 
     @Override
-    public Flux<TransactionDto> findByAccountIdAndDateRange(String accountId, LocalDateTime startDate, LocalDateTime endDate) {
-        log.info("Finding transactions for account {} between {} and {}", accountId, startDate, endDate);
-        return transactionRepository.findByAccountIdAndTransactionDateBetween(accountId, startDate, endDate)
-                .map(this::mapToDto);
+    public Mono<PageResponse<TransactionDto>> findPageByCreditCardId(String creditCardId, String cursor, Integer size) {
+        log.debug("Finding transactions page by credit card id: {}", creditCardId);
+        return findPage(Criteria.where("creditCardId").is(creditCardId), cursor, size);
     }
 
     @Override
-    public Mono<TransactionDto> deposit(DepositRequest request) {
-        log.info("Processing deposit request: {}", request);
+    public Mono<PageResponse<TransactionDto>> findPageByCustomerId(String customerId, String cursor, Integer size) {
+        log.debug("Finding transactions page by customer id: {}", customerId);
+        return findPage(Criteria.where("customerId").is(customerId), cursor, size);
+    }
 
-        // Verificar si el cliente existe
-        return customerService.customerExists(request.getCustomerId())
-                .flatMap(customerExists -> {
-                    if (!customerExists) {
-                        return Mono.error(new ResourceNotFoundException("Customer not found with id: " + request.getCustomerId()));
-                    }
+    @Override
+    public Mono<PageResponse<TransactionDto>> findPageByDateRange(LocalDateTime startDate, LocalDateTime endDate,
+                                                                  String cursor, Integer size) {
+        log.debug("Finding transactions page between {} and {}", startDate, endDate);
+        return findPage(Criteria.where("transactionDate").gt(startDate).lt(endDate), cursor, size);
+    }
 
-                    // Verificar si la cuenta existe
-                    return accountService.accountExists(request.getAccountId())
-                            .flatMap(accountExists -> {
-                                if (!accountExists) {
-                                    return Mono.error(new ResourceNotFoundException("Account not found with id: " + request.getAccountId()));
-                                }
-
-                                // Crear la transacción
-                                Transaction transaction = Transaction.builder()
-                                        .accountId(request.getAccountId())
-                                        .type(TransactionType.DEPOSIT)
-                                        .amount(request.getAmount())
-                                        .description(request.getDescription())
-                                        .transactionDate(LocalDateTime.now())
-                                        .customerId(request.getCustomerId())
-                                        .referenceNumber(generateReferenceNumber())
-                                        .build();
-
-                                // Actualizar el saldo de la cuenta
-                                return accountService.updateBalance(request.getAccountId(), request.getAmount())
-                                        .flatMap(account -> transactionRepository.save(transaction))
-                                        .map(this::mapToDto);
-                            });
-                });
+    @Override
+    public Mono<PageResponse<TransactionDto>> findPageByAccountIdAndDateRange(String accountId, LocalDateTime startDate,
+                                                                              LocalDateTime endDate, String cursor,
+                                                                              Integer size) {
+        if (log.isDebugEnabled()) {
+            log.debug("Finding transactions page for account {} between {} and {}", accountId, startDate, endDate);
+        }
+        return findPage(Criteria.where("accountId").is(accountId).and("transactionDate").gt(startDate).lt(endDate),
+                cursor, size);
     }
 
     @Override
-    public Mono<TransactionDto> withdraw(WithdrawalRequest request) {
-        log.info("Processing withdrawal request: {}", request);
+    public Mono<PageResponse<TransactionLineDto>> findLinePageByAccountId(String accountId, String cursor, Integer size) {
+        log.debug("Finding transaction lines page by account id: {}, cursor: {}", accountId, cursor);
+        return findLinePage(Criteria.where("accountId").is(accountId), cursor, size);
+    }
 
-        // Verificar si el cliente existe
-        return customerService.customerExists(request.getCustomerId())
-                .flatMap(customerExists -> {
-                    if (!customerExists) {
-                        return Mono.error(new ResourceNotFoundException("Customer not found with id: " + request.getCustomerId()));
-                    }
+    @Override
+    public Mono<PageResponse<TransactionLineDto>> findLinePageByCreditCardId(String creditCardId, String cursor,
+                                                                             Integer size) {
+        log.debug("Finding transaction lines page by credit card id: {}, cursor: {}", creditCardId, cursor);
+        return findLinePage(Criteria.where("creditCardId").is(creditCardId), cursor, size);
+    }
 
-                    // Verificar si la cuenta existe
-                    return accountService.accountExists(request.getAccountId())
-                            .flatMap(accountExists -> {
-                                if (!accountExists) {
-                                    return Mono.error(new ResourceNotFoundException("Account not found with id: " + request.getAccountId()));
-                                }
-
-                                // Verificar si hay saldo suficiente
-                                return accountService.getBalance(request.getAccountId())
-                                        .flatMap(balance -> {
-                                            if (balance.getBalance().compareTo(request.getAmount()) < 0) {
-                                                return Mono.error(new IllegalArgumentException("Insufficient funds"));
-                                            }
-
-                                            // Crear la transacción
-                                            Transaction transaction = Transaction.builder()
-                                                    .accountId(request.getAccountId())
-                                                    .type(TransactionType.WITHDRAWAL)
-                                                    .amount(request.getAmount())
-                                                    .description(request.getDescription())
-                                                    .transactionDate(LocalDateTime.now())
-                                                    .customerId(request.getCustomerId())
-                                                    .referenceNumber(generateReferenceNumber())
-                                                    .build();
-
-                                            // Actualizar el saldo de la cuenta (monto negativo para retiro)
-                                            return accountService.updateBalance(request.getAccountId(), request.getAmount().negate())
-                                                    .flatMap(account -> transactionRepository.save(transaction))
-                                                    .map(this::mapToDto);
-                                        });
-                            });
-                });
+    @Override
+    public Mono<PageResponse<TransactionLineDto>> findLinePageByCustomerId(String customerId, String cursor,
+                                                                           Integer size) {
+        log.debug("Finding transaction lines page by customer id: {}, cursor: {}", customerId, cursor);
+        return findLinePage(Criteria.where("customerId").is(customerId), cursor, size);
     }
 
     @Override
-    public Mono<TransactionDto> payCredit(PaymentRequest request) {
-        log.info("Processing credit payment request: {}", request);
+    public Mono<TransactionDto> deposit(DepositRequest request) {
+        log.debug("Processing deposit to account {}", request.getAccountId());
+
+        // Validar cliente y cuenta en paralelo, en turno con las demás operaciones de la cuenta
+        return sequencer.run(accountKey(request.getAccountId()), () -> Mono.when(
+                        requireCustomer(request.getCustomerId()),
+                        requireAccount(request.getAccountId()))
+                .then(Mono.defer(() -> {
+                    // Crear la transacción
+                    Transaction transaction = Transaction.builder()
+                            .accountId(request.getAccountId())
+                            .type(TransactionType.DEPOSIT)
+                            .amount(request.getAmount())
+                            .description(request.getDescription())
+                            .transactionDate(LocalDateTime.now())
+                            .customerId(request.getCustomerId())
+                            .referenceNumber(generateReferenceNumber())
+                            .build();
+
+                    // Actualizar el saldo de la cuenta
+                    return persist(transaction,
+                            () -> accountService.updateBalance(request.getAccountId(), request.getAmount()));
+                })));
+    }
 
-        // Verificar si el cliente existe
-        return customerService.customerExists(request.getCustomerId())
-                .flatMap(customerExists -> {
-                    if (!customerExists) {
-                        return Mono.error(new ResourceNotFoundException("Customer not found with id: " + request.getCustomerId()));
+    @Override
+    public Mono<TransactionDto> withdraw(WithdrawalRequest request) {
+        log.debug("Processing withdrawal from account {}", request.getAccountId());
+
+        // Validar cliente y cuenta en paralelo; el saldo se lee solo cuando la cuenta existe, para que una
+        // cuenta inexistente dé siempre 404 y no el error de la consulta de saldo. El turno por cuenta evita
+        // que dos retiros concurrentes lean el mismo saldo y ambos pasen la verificación de fondos.
+        return sequencer.run(accountKey(request.getAccountId()), () -> Mono.zip(
+                        requireCustomer(request.getCustomerId()),
+                        requireAccount(request.getAccountId())
+                                .then(availableBalance(request.getAccountId())))
+                .flatMap(tuple -> {
+                    // Verificar si hay saldo suficiente
+                    if (tuple.getT2().compareTo(request.getAmount()) < 0) {
+                        return rejections.reject("insufficient_funds",
+                                () -> new IllegalArgumentException("Insufficient funds"));
                     }
 
-                    // Verificar si el crédito existe
-                    return creditService.creditExists(request.getCreditId())
-                            .flatMap(creditExists -> {
-                                if (!creditExists) {
-                                    return Mono.error(new ResourceNotFoundException("Credit not found with id: " + request.getCreditId()));
-                                }
-
-                                // Crear la transacción
-                                Transaction transaction = Transaction.builder()
-                                        .creditId(request.getCreditId())
-                                        .type(TransactionType.PAYMENT)
-                                        .amount(request.getAmount())
-                                        .description(request.getDescription())
-                                        .transactionDate(LocalDateTime.now())
-                                        .customerId(request.getCustomerId())
-                                        .referenceNumber(generateReferenceNumber())
-                                        .build();
-
-                                // Realizar el pago al crédito
-                                return creditService.makePayment(request.getCreditId(), request.getAmount())
-                                        .flatMap(credit -> transactionRepository.save(transaction))
-                                        .map(this::mapToDto);
-                            });
-                });
+                    // Crear la transacción
+                    Transaction transaction = Transaction.builder()
+                            .accountId(request.getAccountId())
+                            .type(TransactionType.WITHDRAWAL)
+                            .amount(request.getAmount())
+                            .description(request.getDescription())
+                            .transactionDate(LocalDateTime.now())
+                            .customerId(request.getCustomerId())
+                            .referenceNumber(generateReferenceNumber())
+                            .build();
+
+                    // Actualizar el saldo de la cuenta (monto negativo para retiro)
+                    return persist(transaction,
+                            () -> accountService.updateBalance(request.getAccountId(), request.getAmount().negate()));
+                }));
     }
 
     @Override
-    public Mono<TransactionDto> consumeCreditCard(ConsumptionRequest request) {
-        log.info("Processing credit card consumption request: {}", request);
+    public Mono<TransactionDto> payCredit(PaymentRequest request) {
+        log.debug("Processing payment to credit {}", request.getCreditId());
+
+        // Validar cliente y crédito en paralelo
+        return Mono.when(
+                        requireCustomer(request.getCustomerId()),
+                        requireCredit(request.getCreditId()))
+                .then(Mono.defer(() -> {
+                    // Crear la transacción
+                    Transaction transaction = Transaction.builder()
+                            .creditId(request.getCreditId())
+                            .type(TransactionType.PAYMENT)
+                            .amount(request.getAmount())
+                            .description(request.getDescription())
+                            .transactionDate(LocalDateTime.now())
+                            .customerId(request.getCustomerId())
+                            .referenceNumber(generateReferenceNumber())
+                            .build();
+
+                    // Realizar el pago al crédito
+                    return persist(transaction,
+                            () -> creditService.makePayment(request.getCreditId(), request.getAmount()));
+                }));
+    }
 
-        // Verificar si el cliente existe
-        return customerService.customerExists(request.getCustomerId())
-                .flatMap(customerExists -> {
-                    if (!customerExists) {
-                        return Mono.error(new ResourceNotFoundException("Customer not found with id: " + request.getCustomerId()));
+    @Override
+    public Mono<TransactionDto> consumeCreditCard(ConsumptionRequest request) {
+        log.debug("Processing consumption on credit card {}", request.getCreditCardId());
+
+        // Validar cliente y tarjeta en paralelo, en turno por tarjeta; el límite se lee tras confirmar la tarjeta
+        return sequencer.run(creditCardKey(request.getCreditCardId()), () -> Mono.zip(
+                        requireCustomer(request.getCustomerId()),
+                        requireCreditCard(request.getCreditCardId())
+                                .then(availableCreditLimit(request.getCreditCardId())))
+                .flatMap(tuple -> {
+                    // Verificar si hay límite disponible
+                    if (tuple.getT2().compareTo(request.getAmount()) < 0) {
+                        return rejections.reject("insufficient_credit_limit",
+                                () -> new IllegalArgumentException("Insufficient credit limit"));
                     }
 
-                    // Verificar si la tarjeta de crédito existe
-                    return creditCardService.creditCardExists(request.getCreditCardId())
-                            .flatMap(cardExists -> {
-                                if (!cardExists) {
-                                    return Mono.error(new ResourceNotFoundException("Credit card not found with id: " + request.getCreditCardId()));
-                                }
-
-                                // Verificar si hay límite disponible
-                                return creditCardService.getBalance(request.getCreditCardId())
-                                        .flatMap(balance -> {
-                                            if (balance.getAvailableBalance().compareTo(request.getAmount()) < 0) {
-                                                return Mono.error(new IllegalArgumentException("Insufficient credit limit"));
-                                            }
-
-                                            // Crear la transacción
-                                            Transaction transaction = Transaction.builder()
-                                                    .creditCardId(request.getCreditCardId())
-                                                    .type(TransactionType.CONSUMPTION)
-                                                    .amount(request.getAmount())
-                                                    .description(request.getDescription())
-                                                    .transactionDate(LocalDateTime.now())
-                                                    .customerId(request.getCustomerId())
-                                                    .referenceNumber(generateReferenceNumber())
-                                                    .build();
-
-                                            // Registrar el consumo en la tarjeta
-                                            return creditCardService.registerConsumption(request.getCreditCardId(), request.getAmount())
-                                                    .flatMap(card -> transactionRepository.save(transaction))
-                                                    .map(this::mapToDto);
-                                        });
-                            });
-                });
+                    // Crear la transacción
+                    Transaction transaction = Transaction.builder()
+                            .creditCardId(request.getCreditCardId())
+                            .type(TransactionType.CONSUMPTION)
+                            .amount(request.getAmount())
+                            .description(request.getDescription())
+                            .transactionDate(LocalDateTime.now())
+                            .customerId(request.getCustomerId())
+                            .referenceNumber(generateReferenceNumber())
+                            .build();
+
+                    // Registrar el consumo en la tarjeta
+                    return persist(transaction,
+                            () -> creditCardService.registerConsumption(request.getCreditCardId(), request.getAmount()));
+                }));
     }
     /**
-     * Convierte una entidad Transaction a DTO.
+     * Convierte una entidad Transaction a DTO. Los listados no pasan por aquí: Mongo los decodifica
+     * directamente a TransactionDto con TransactionDtoReadConverter.
      * @param transaction Entidad a convertir
      * @return TransactionDto
      */
-    private TransactionDto mapToDto(Transaction transaction) {
+    static TransactionDto mapToDto(Transaction transaction) {
         return TransactionDto.builder()
                 .id(transaction.getId())
                 .accountId(transaction.getAccountId())
@@ -271,81 +306,247 @@ public class TransactionServiceImpl implements TransactionService {
                 .transactionDate(transaction.getTransactionDate())
                 .customerId(transaction.getCustomerId())
                 .referenceNumber(transaction.getReferenceNumber())
+                .status(transaction.getStatus())
                 .build();
     }
     @Override
     public Mono<TransactionDto> transfer(TransferRequest request) {
-        log.info("Processing transfer request: {}", request);
+        log.debug("Processing transfer from account {} to {}", request.getSourceAccountId(),
+                request.getDestinationAccountId());
+
+        // Validar cliente, cuenta origen, cuenta destino y comisión en paralelo, con el turno de ambas cuentas
+        List<String> keys = Arrays.asList(
+                accountKey(request.getSourceAccountId()),
+                accountKey(request.getDestinationAccountId()));
+        return sequencer.runAll(keys, () -> Mono.zip(
+                        requireCustomer(request.getCustomerId()),
+                        accountService.validateAccountForTransfer(
+                                request.getSourceAccountId(),
+                                request.getCustomerId(),
+                                request.getAmount()),
+                        requireAccount(request.getDestinationAccountId(), "Destination account"),
+                        accountService.calculateTransactionFee(request.getSourceAccountId()))
+                .flatMap(tuple -> {
+                    BigDecimal fee = tuple.getT4();
+
+                    // Crear la transacción
+                    Transaction transaction = Transaction.builder()
+                            .accountId(request.getSourceAccountId())
+                            .destinationAccountId(request.getDestinationAccountId())
+                            .type(TransactionType.TRANSFER)
+                            .amount(request.getAmount())
+                            .fee(fee)
+                            .description(request.getDescription())
+                            .transactionDate(LocalDateTime.now())
+                            .customerId(request.getCustomerId())
+                            .referenceNumber(generateReferenceNumber())
+                            .build();
+
+                    // Actualizar saldos y contadores de transacciones en ambas cuentas
+                    return persist(transaction, () -> Mono.zip(
+                            // Decrementar saldo en cuenta origen
+                            accountService.updateBalance(
+                                    request.getSourceAccountId(),
+                                    request.getAmount().negate()
+                            ),
+                            // Incrementar saldo en cuenta destino
+                            accountService.updateBalance(
+                                    request.getDestinationAccountId(),
+                                    request.getAmount()
+                            )
+                    ).flatMap(balances -> {
+                        // Si hay comisión, actualizar saldo y contador de la cuenta origen;
+                        // si no, solo actualizar contador
+                        return accountService.incrementTransactionCount(request.getSourceAccountId(),
+                                fee.compareTo(BigDecimal.ZERO) > 0 ? fee : null);
+                    }));
+                }));
+    }
 
-        // Verificar si el cliente existe
-        return customerService.customerExists(request.getCustomerId())
-                .flatMap(customerExists -> {
-                    if (!customerExists) {
-                        return Mono.error(new ResourceNotFoundException("Customer not found with id: " + request.getCustomerId()));
-                    }
+    /**
+     * Guarda la transacción. En modo outbox se guarda PENDING junto con su registro de outbox en una
+     * sola escritura y el dispatcher aplica después los cambios remotos; en modo síncrono se aplican
+     * los cambios remotos primero y se guarda COMPLETED.
+     * @param transaction Transacción a guardar
+     * @param downstream Cambios remotos del modo síncrono
+     * @return Mono<TransactionDto>
+     */
+    private Mono<TransactionDto> persist(Transaction transaction, Supplier<Mono<?>> downstream) {
+        if (outboxEnabled) {
+            transaction.setStatus(TransactionStatus.PENDING);
+            transaction.setOutbox(OutboxState.pending(transaction.getTransactionDate()));
+            return transactionRepository.save(transaction)
+                    .flatMap(this::afterSave)
+                    .map(TransactionServiceImpl::mapToDto);
+        }
+        transaction.setStatus(TransactionStatus.COMPLETED);
+        return downstream.get()
+                .then(Mono.defer(() -> transactionRepository.save(transaction)))
+                .flatMap(this::afterSave)
+                .map(TransactionServiceImpl::mapToDto);
+    }
+
+    /**
+     * Actualiza las vistas derivadas de la transacción guardada: proyección de saldos y resúmenes.
+     * @param saved Transacción guardada
+     * @return Mono con la misma transacción
+     */
+    private Mono<Transaction> afterSave(Transaction saved) {
+        return balanceProjectionService.record(saved)
+                .then(transactionRollupService.record(Collections.singletonList(saved)))
+                .thenReturn(saved);
+    }
+
+    /**
+     * Saldo disponible de la cuenta: el de la proyección local si está activa (ya incluye lo pendiente
+     * en el outbox) o el del servicio de cuentas menos los cargos aún pendientes en el outbox.
+     * @param accountId ID de la cuenta
+     * @return Mono con el saldo disponible
+     */
+    private Mono<BigDecimal> availableBalance(String accountId) {
+        if (balanceProjectionEnabled) {
+            return balanceProjectionService.currentBalance(accountId);
+        }
+        return Mono.zip(
+                accountService.getBalance(accountId).map(AccountService.BalanceDto::getBalance),
+                pendingAccountDebits(accountId),
+                BigDecimal::subtract);
+    }
+
+    /**
+     * Límite disponible de la tarjeta, descontando los consumos aún pendientes en el outbox.
+     * @param creditCardId ID de la tarjeta de crédito
+     * @return Mono con el límite disponible
+     */
+    private Mono<BigDecimal> availableCreditLimit(String creditCardId) {
+        return Mono.zip(
+                creditCardService.getBalance(creditCardId).map(CreditCardService.CreditCardBalanceDto::getAvailableBalance),
+                pendingCreditCardConsumptions(creditCardId),
+                BigDecimal::subtract);
+    }
+
+    /**
+     * Suma los retiros y transferencias salientes de la cuenta que el outbox aún no ha aplicado.
+     * @param accountId ID de la cuenta
+     * @return Mono con el total pendiente (cero fuera del modo outbox)
+     */
+    private Mono<BigDecimal> pendingAccountDebits(String accountId) {
+        if (!outboxEnabled) {
+            return Mono.just(BigDecimal.ZERO);
+        }
+        return transactionRepository.findByAccountIdAndStatus(accountId, TransactionStatus.PENDING)
+                .filter(t -> t.getType() == TransactionType.WITHDRAWAL || t.getType() == TransactionType.TRANSFER)
+                .map(t -> t.getFee() != null ? t.getAmount().add(t.getFee()) : t.getAmount())
+                .reduce(BigDecimal.ZERO, BigDecimal::add);
+    }
+
+    /**
+     * Suma los consumos de la tarjeta que el outbox aún no ha aplicado.
+     * @param creditCardId ID de la tarjeta de crédito
+     * @return Mono con el total pendiente (cero fuera del modo outbox)
+     */
+    private Mono<BigDecimal> pendingCreditCardConsumptions(String creditCardId) {
+        if (!outboxEnabled) {
+            return Mono.just(BigDecimal.ZERO);
+        }
+        return transactionRepository.findByCreditCardIdAndStatus(creditCardId, TransactionStatus.PENDING)
+                .filter(t -> t.getType() == TransactionType.CONSUMPTION)
+                .map(Transaction::getAmount)
+                .reduce(BigDecimal.ZERO, BigDecimal::add);
+    }
+
+    /**
+     * Verifica que el cliente exista; falla con ResourceNotFoundException en caso contrario.
+     * Al combinarse con Mono.zip/Mono.when, el primer error cancela las demás validaciones en curso.
+     * @param customerId ID del cliente
+     * @return Mono true si existe
+     */
+    private Mono<Boolean> requireCustomer(String customerId) {
+        return customerService.customerExists(customerId)
+                .filter(Boolean::booleanValue)
+                .switchIfEmpty(rejections.reject("customer_not_found",
+                        () -> new ResourceNotFoundException("Customer not found with id: " + customerId)));
+    }
+
+    private Mono<Boolean> requireAccount(String accountId) {
+        return requireAccount(accountId, "Account");
+    }
+
+    private Mono<Boolean> requireAccount(String accountId, String label) {
+        return accountService.accountExists(accountId)
+                .filter(Boolean::booleanValue)
+                .switchIfEmpty(rejections.reject(label.toLowerCase().replace(' ', '_') + "_not_found",
+                        () -> new ResourceNotFoundException(label + " not found with id: " + accountId)));
+    }
+
+    private Mono<Boolean> requireCredit(String creditId) {
+        return creditService.creditExists(creditId)
+                .filter(Boolean::booleanValue)
+                .switchIfEmpty(rejections.reject("credit_not_found",
+                        () -> new ResourceNotFoundException("Credit not found with id: " + creditId)));
+    }
+
+    private Mono<Boolean> requireCreditCard(String creditCardId) {
+        return creditCardService.creditCardExists(creditCardId)
+                .filter(Boolean::booleanValue)
+                .switchIfEmpty(rejections.reject("credit_card_not_found",
+                        () -> new ResourceNotFoundException("Credit card not found with id: " + creditCardId)));
+    }
+
+    /**
+     * Lee una página por keyset. Se pide una fila extra para saber si existe una página siguiente.
+     * @param criteria Filtro de la consulta
+     * @param cursor Token de continuación (puede ser null)
+     * @param size Tamaño solicitado (puede ser null)
+     * @return Mono de PageResponse
+     */
+    private Mono<PageResponse<TransactionDto>> findPage(Criteria criteria, String cursor, Integer size) {
+        return page(size, limit -> transactionRepository.findPage(criteria, PageCursor.decode(cursor), limit),
+                row -> new PageCursor(row.getTransactionDate(), row.getId()));
+    }
+
+    private Mono<PageResponse<TransactionLineDto>> findLinePage(Criteria criteria, String cursor, Integer size) {
+        return page(size, limit -> transactionRepository.findLinePage(criteria, PageCursor.decode(cursor), limit),
+                row -> new PageCursor(row.getTransactionDate(), row.getId()));
+    }
+
+    /**
+     * Lee una fila más que el tamaño de página para saber si hay continuación.
+     * @param size Tamaño solicitado (puede ser null)
+     * @param fetch Consulta con el límite de filas
+     * @param cursorOf Cursor de una fila
+     * @return Mono de PageResponse
+     */
+    private <T> Mono<PageResponse<T>> page(Integer size, Function<Integer, Flux<T>> fetch,
+                                           Function<T, PageCursor> cursorOf) {
+        return Mono.defer(() -> {
+            int pageSize = resolvePageSize(size);
+            return fetch.apply(pageSize + 1)
+                    .collectList()
+                    .map(rows -> toPage(rows, pageSize, cursorOf));
+        });
+    }
+
+    private int resolvePageSize(Integer size) {
+        if (size == null) {
+            return defaultPageSize;
+        }
+        if (size < 1) {
+            throw new IllegalArgumentException("Page size must be greater than 0");
+        }
+        return Math.min(size, maxPageSize);
+    }
 
-                    // Validar que la cuenta origen pertenezca al cliente y tenga fondos suficientes
-                    return accountService.validateAccountForTransfer(
-                            request.getSourceAccountId(),
-                            request.getCustomerId(),
-                            request.getAmount()
-                    );
-                })
-                .flatMap(valid -> {
-                    // Verificar si la cuenta destino existe
-                    return accountService.accountExists(request.getDestinationAccountId())
-                            .flatMap(exists -> {
-                                if (!exists) {
-                                    return Mono.error(new ResourceNotFoundException("Destination account not found with id: " + request.getDestinationAccountId()));
-                                }
-
-                                // Calcular comisión por transferencia (si aplica)
-                                return accountService.calculateTransactionFee(request.getSourceAccountId())
-                                        .flatMap(fee -> {
-                                            // Crear la transacción
-                                            Transaction transaction = Transaction.builder()
-                                                    .accountId(request.getSourceAccountId())
-                                                    .destinationAccountId(request.getDestinationAccountId())
-                                                    .type(TransactionType.TRANSFER)
-                                                    .amount(request.getAmount())
-                                                    .fee(fee)
-                                                    .description(request.getDescription())
-                                                    .transactionDate(LocalDateTime.now())
-                                                    .customerId(request.getCustomerId())
-                                                    .referenceNumber(generateReferenceNumber())
-                                                    .build();
-
-                                            // Actualizar saldos y contadores de transacciones en ambas cuentas
-                                            return Mono.zip(
-                                                    // Decrementar saldo en cuenta origen
-                                                    accountService.updateBalance(
-                                                            request.getSourceAccountId(),
-                                                            request.getAmount().negate()
-                                                    ),
-                                                    // Incrementar saldo en cuenta destino
-                                                    accountService.updateBalance(
-                                                            request.getDestinationAccountId(),
-                                                            request.getAmount()
-                                                    )
-                                            ).flatMap(tuple -> {
-                                                // Si hay comisión, actualizar saldo y contador de la cuenta origen
-                                                if (fee.compareTo(BigDecimal.ZERO) > 0) {
-                                                    return accountService.incrementTransactionCount(request.getSourceAccountId(), fee)
-                                                            .flatMap(account -> transactionRepository.save(transaction));
-                                                } else {
-                                                    // Si no hay comisión, solo actualizar contador
-                                                    return accountService.incrementTransactionCount(request.getSourceAccountId(), null)
-                                                            .flatMap(account -> transactionRepository.save(transaction));
-                                                }
-                                            });
-                                        });
-                            });
-                })
-                .map(this::mapToDto);
+    private static <T> PageResponse<T> toPage(List<T> rows, int pageSize, Function<T, PageCursor> cursorOf) {
+        if (rows.size() <= pageSize) {
+            return new PageResponse<>(rows, rows.size(), null);
+        }
+        List<T> content = rows.subList(0, pageSize);
+        return new PageResponse<>(content, pageSize, cursorOf.apply(content.get(pageSize - 1)).encode());
     }
 
     // Método utilitario para generar número de referencia
-    private String generateReferenceNumber() {
+    static String generateReferenceNumber() {
         return "TX-" + UUID.randomUUID().toString().substring(0, 10).toUpperCase();
     }
 }
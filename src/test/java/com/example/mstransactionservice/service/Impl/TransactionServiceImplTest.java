@@ -0,0 +1,143 @@
+package com.example.mstransactionservice.service.Impl;
+
+import com.example.mstransactionservice.config.AccountCustomer;
+import com.example.mstransactionservice.config.TransactionConfig;
+import com.example.mstransactionservice.dto.TransactionRequest;
+import com.example.mstransactionservice.model.MonthlyTransactionCounter;
+import com.example.mstransactionservice.model.Transaction;
+import com.example.mstransactionservice.model.enums.TransactionType;
+import com.example.mstransactionservice.repository.MonthlyTransactionCounterRepository;
+import com.example.mstransactionservice.repository.TransactionRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.lenient;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class TransactionServiceImplTest {
+
+    @Mock
+    private TransactionRepository transactionRepository;
+    @Mock
+    private TransactionConfig transactionConfig;
+    @Mock
+    private AccountCustomer accountCustomer;
+    @Mock
+    private MonthlyTransactionCounterRepository counterRepository;
+
+    @InjectMocks
+    private TransactionServiceImpl transactionService;
+
+    @BeforeEach
+    void setUp() {
+        lenient().when(transactionConfig.getFreeTransactionLimit()).thenReturn(20);
+        lenient().when(transactionConfig.getCommissionFee()).thenReturn(new BigDecimal("2.5"));
+        lenient().when(transactionRepository.save(any(Transaction.class)))
+                .thenAnswer(invocation -> Mono.just(invocation.getArgument(0, Transaction.class)));
+    }
+
+    @Test
+    void monthlyCountIsReadFromCounter() {
+        YearMonth month = YearMonth.of(2024, 2);
+        when(counterRepository.findById("acc-1:2024-02"))
+                .thenReturn(Mono.just(new MonthlyTransactionCounter("acc-1:2024-02", "acc-1", "2024-02", 7)));
+
+        StepVerifier.create(transactionService.getTransactionCountForMonth("acc-1", month))
+                .expectNext(7)
+                .verifyComplete();
+
+        verify(transactionRepository, never()).countByAccountIdAndTimestampBetween(anyString(), any(), any());
+    }
+
+    @Test
+    void monthlyCountFallsBackToMongoCountWithoutCounter() {
+        YearMonth month = YearMonth.of(2024, 2);
+        when(counterRepository.findById("acc-1:2024-02")).thenReturn(Mono.empty());
+        when(transactionRepository.countByAccountIdAndTimestampBetween(
+                "acc-1",
+                LocalDateTime.of(2024, 2, 1, 0, 0),
+                LocalDateTime.of(2024, 3, 1, 0, 0)))
+                .thenReturn(Mono.just(7L));
+
+        StepVerifier.create(transactionService.getTransactionCountForMonth("acc-1", month))
+                .expectNext(7)
+                .verifyComplete();
+
+        verify(transactionRepository, never()).findByAccountId(anyString());
+    }
+
+    @Test
+    void registerTransactionChargesCommissionOnceFreeLimitIsReached() {
+        when(counterRepository.getAndIncrement(eq("acc-1"), any(YearMonth.class))).thenReturn(Mono.just(20L));
+
+        TransactionRequest request = new TransactionRequest("acc-1", null, TransactionType.DEPOSIT, new BigDecimal("100"));
+
+        StepVerifier.create(transactionService.registerTransaction(request))
+                .assertNext(tx -> assertThat(tx.getAmount()).isEqualByComparingTo("102.5"))
+                .verifyComplete();
+
+        verify(transactionRepository, never()).findByAccountId(anyString());
+        verify(transactionRepository, never()).countByAccountIdAndTimestampBetween(anyString(), any(), any());
+    }
+
+    @Test
+    void registerTransactionIsFreeBelowLimit() {
+        when(counterRepository.getAndIncrement(eq("acc-1"), any(YearMonth.class))).thenReturn(Mono.just(19L));
+
+        TransactionRequest request = new TransactionRequest("acc-1", null, TransactionType.DEPOSIT, new BigDecimal("100"));
+
+        StepVerifier.create(transactionService.registerTransaction(request))
+                .assertNext(tx -> assertThat(tx.getAmount()).isEqualByComparingTo("100"))
+                .verifyComplete();
+    }
+
+    @Test
+    void firstCountedTransactionOfMonthSeedsCounterFromHistory() {
+        when(counterRepository.getAndIncrement(eq("acc-1"), any(YearMonth.class))).thenReturn(Mono.empty());
+        when(transactionRepository.countByAccountIdAndTimestampBetween(eq("acc-1"), any(), any()))
+                .thenReturn(Mono.just(25L));
+        when(counterRepository.seedAndIncrement(eq("acc-1"), any(YearMonth.class), eq(25L)))
+                .thenReturn(Mono.just(25L));
+
+        TransactionRequest request = new TransactionRequest("acc-1", null, TransactionType.DEPOSIT, new BigDecimal("100"));
+
+        StepVerifier.create(transactionService.registerTransaction(request))
+                .assertNext(tx -> assertThat(tx.getAmount()).isEqualByComparingTo("102.5"))
+                .verifyComplete();
+
+        verify(counterRepository, never()).add(anyString(), any(YearMonth.class), anyLong());
+    }
+
+    @Test
+    void failedSaveReleasesTheReservedSlot() {
+        when(counterRepository.getAndIncrement(eq("acc-1"), any(YearMonth.class))).thenReturn(Mono.just(5L));
+        when(transactionRepository.save(any(Transaction.class))).thenReturn(Mono.error(new IllegalStateException("mongo down")));
+        when(counterRepository.add(eq("acc-1"), any(YearMonth.class), eq(-1L))).thenReturn(Mono.empty());
+
+        TransactionRequest request = new TransactionRequest("acc-1", null, TransactionType.DEPOSIT, new BigDecimal("100"));
+
+        StepVerifier.create(transactionService.registerTransaction(request))
+                .expectErrorMessage("mongo down")
+                .verify();
+
+        verify(counterRepository).add(eq("acc-1"), any(YearMonth.class), eq(-1L));
+    }
+}
@@ -0,0 +1,57 @@
+package com.nttdata.bankapp.common.mongo;
+
+import org.bson.Document;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.index.Index;
+import org.springframework.data.mongodb.core.index.IndexDefinition;
+
+import java.util.Arrays;
+import java.util.Collections;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class MongoIndexProvisionerTest {
+
+    @Test
+    void detectsCollectionScanInWinningPlan() {
+        Document explain = new Document("queryPlanner", new Document("winningPlan",
+                new Document("stage", "SORT").append("inputStage", new Document("stage", "COLLSCAN"))));
+
+        assertThat(MongoIndexProvisioner.usesCollectionScan(explain)).isTrue();
+    }
+
+    @Test
+    void indexScanIsNotReported() {
+        Document explain = new Document("queryPlanner", new Document("winningPlan",
+                new Document("stage", "FETCH").append("inputStage", new Document("stage", "IXSCAN")))
+                // Los planes rechazados no cuentan
+                .append("rejectedPlans", Collections.singletonList(new Document("stage", "COLLSCAN"))));
+
+        assertThat(MongoIndexProvisioner.usesCollectionScan(explain)).isFalse();
+    }
+
+    @Test
+    void detectsCollectionScanInsideOrBranches() {
+        Document explain = new Document("queryPlanner", new Document("winningPlan",
+                new Document("stage", "SUBPLAN").append("inputStage", new Document("stage", "OR")
+                        .append("inputStages", Arrays.asList(
+                                new Document("stage", "IXSCAN"),
+                                new Document("stage", "COLLSCAN"))))));
+
+        assertThat(MongoIndexProvisioner.usesCollectionScan(explain)).isTrue();
+    }
+
+    @Test
+    void indexesAreRequestedInBackgroundKeepingTheirOptions() {
+        IndexDefinition index = new Index().on("accountId", Sort.Direction.ASC).named("account_idx").unique();
+
+        IndexDefinition background = MongoIndexProvisioner.inBackground(index);
+
+        assertThat(background.getIndexKeys()).isEqualTo(index.getIndexKeys());
+        assertThat(background.getIndexOptions())
+                .containsEntry("name", "account_idx")
+                .containsEntry("unique", true)
+                .containsEntry("background", true);
+    }
+}
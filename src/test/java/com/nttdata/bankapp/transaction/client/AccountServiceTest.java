@@ -0,0 +1,146 @@
+package com.nttdata.bankapp.transaction.client;
+
+import brave.Tracing;
+import brave.handler.MutableSpan;
+import brave.handler.SpanHandler;
+import brave.propagation.ThreadLocalCurrentTraceContext;
+import brave.propagation.TraceContext;
+import com.nttdata.bankapp.transaction.config.ExistenceCacheProperties;
+import com.nttdata.bankapp.transaction.config.MicroBatchProperties;
+import io.github.resilience4j.bulkhead.BulkheadRegistry;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerConfig;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerRegistry;
+import io.github.resilience4j.retry.RetryConfig;
+import io.github.resilience4j.retry.RetryRegistry;
+import io.github.resilience4j.timelimiter.TimeLimiterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.cloud.sleuth.Span;
+import org.springframework.cloud.sleuth.Tracer;
+import org.springframework.cloud.sleuth.brave.bridge.BraveBaggageManager;
+import org.springframework.cloud.sleuth.brave.bridge.BraveTracer;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.web.reactive.function.client.ClientRequest;
+import org.springframework.web.reactive.function.client.ClientResponse;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class AccountServiceTest {
+
+    private final List<MutableSpan> spans = new CopyOnWriteArrayList<>();
+    private CircuitBreakerRegistry circuitBreakers;
+    private Tracing tracing;
+    private Tracer tracer;
+
+    @BeforeEach
+    void setUp() {
+        circuitBreakers = CircuitBreakerRegistry.of(CircuitBreakerConfig.custom()
+                .recordException(new DownstreamFailurePredicate())
+                .build());
+        tracing = Tracing.newBuilder()
+                .currentTraceContext(ThreadLocalCurrentTraceContext.create())
+                .addSpanHandler(new SpanHandler() {
+                    @Override
+                    public boolean end(TraceContext context, MutableSpan span, Cause cause) {
+                        spans.add(span);
+                        return true;
+                    }
+                })
+                .build();
+        tracer = new BraveTracer(tracing.tracer(), new BraveBaggageManager());
+    }
+
+    @AfterEach
+    void tearDown() {
+        tracing.close();
+    }
+
+    @Test
+    void feeFallbackDoesNotHideFailuresFromTheCircuitBreaker() {
+        AccountService accountService = accountService(request ->
+                ClientResponse.create(HttpStatus.SERVICE_UNAVAILABLE).build());
+
+        StepVerifier.create(accountService.calculateTransactionFee("a1"))
+                .expectNextMatches(fee -> fee.compareTo(BigDecimal.ZERO) == 0)
+                .verifyComplete();
+
+        // Tres intentos, todos registrados como fallo por el circuito
+        assertThat(circuitBreakers.circuitBreaker("accounts").getMetrics().getNumberOfFailedCalls()).isEqualTo(3);
+    }
+
+    @Test
+    void batchedLookupsKeepTheTraceOfTheRequestThatAskedForThem() {
+        AccountService accountService = accountService(request -> request.url().getPath().endsWith("/balance")
+                ? ClientResponse.create(HttpStatus.OK)
+                        .header(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_JSON_VALUE)
+                        .body("{\"accountId\":\"a2\",\"balance\":100}")
+                        .build()
+                : ClientResponse.create(HttpStatus.OK).build());
+        Span transfer = tracer.nextSpan().name("POST /transactions/transfer").start();
+        Span withdraw = tracer.nextSpan().name("POST /transactions/withdraw").start();
+
+        // Las tres consultas caen en la misma ventana del agrupador
+        StepVerifier.create(Mono.zip(
+                        accountService.accountExists("a1")
+                                .contextWrite(context -> context.put(Span.class, transfer)),
+                        accountService.accountExists("a2")
+                                .contextWrite(context -> context.put(Span.class, withdraw)),
+                        accountService.getBalance("a2")
+                                .contextWrite(context -> context.put(Span.class, withdraw))))
+                .expectNextCount(1)
+                .verifyComplete();
+        transfer.end();
+        withdraw.end();
+
+        List<MutableSpan> exists = spans("accounts exists");
+        assertThat(exists).hasSize(2);
+        assertChildOf(exists.stream().filter(span -> span.traceId().equals(transfer.context().traceId()))
+                .findFirst().orElseThrow(), transfer);
+        assertChildOf(exists.stream().filter(span -> span.traceId().equals(withdraw.context().traceId()))
+                .findFirst().orElseThrow(), withdraw);
+        assertChildOf(spans("accounts balance").get(0), withdraw);
+    }
+
+    private List<MutableSpan> spans(String name) {
+        return spans.stream().filter(span -> name.equals(span.name())).collect(Collectors.toList());
+    }
+
+    private static void assertChildOf(MutableSpan span, Span parent) {
+        assertThat(span.traceId()).isEqualTo(parent.context().traceId());
+        assertThat(span.parentId()).isEqualTo(parent.context().spanId());
+    }
+
+    private AccountService accountService(Function<ClientRequest, ClientResponse> responder) {
+        DownstreamGuard guard = new DownstreamGuard(
+                circuitBreakers,
+                BulkheadRegistry.ofDefaults(),
+                TimeLimiterRegistry.ofDefaults(),
+                RetryRegistry.of(RetryConfig.custom()
+                        .maxAttempts(3)
+                        .waitDuration(Duration.ofMillis(1))
+                        .retryOnException(new RetryableFailurePredicate())
+                        .build()),
+                new DownstreamMetrics(new SimpleMeterRegistry()),
+                new DownstreamTracing(tracer));
+        WebClient.Builder webClientBuilder = WebClient.builder()
+                .exchangeFunction(request -> Mono.just(responder.apply(request)));
+        return new AccountService("http://accounts", webClientBuilder,
+                new ExistenceCacheFactory(new ExistenceCacheProperties(), new SimpleMeterRegistry()),
+                new MicroBatcherFactory(new MicroBatchProperties()),
+                guard);
+    }
+}
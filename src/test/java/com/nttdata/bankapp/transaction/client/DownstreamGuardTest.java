@@ -0,0 +1,251 @@
+package com.nttdata.bankapp.transaction.client;
+
+import brave.Tracing;
+import brave.handler.MutableSpan;
+import brave.handler.SpanHandler;
+import brave.propagation.ThreadLocalCurrentTraceContext;
+import brave.propagation.TraceContext;
+import com.nttdata.bankapp.transaction.exception.DownstreamUnavailableException;
+import io.github.resilience4j.bulkhead.BulkheadConfig;
+import io.github.resilience4j.bulkhead.BulkheadRegistry;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerConfig;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerRegistry;
+import io.github.resilience4j.retry.RetryConfig;
+import io.github.resilience4j.retry.RetryRegistry;
+import io.github.resilience4j.timelimiter.TimeLimiterConfig;
+import io.github.resilience4j.timelimiter.TimeLimiterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.cloud.sleuth.Span;
+import org.springframework.cloud.sleuth.Tracer;
+import org.springframework.cloud.sleuth.brave.bridge.BraveBaggageManager;
+import org.springframework.cloud.sleuth.brave.bridge.BraveTracer;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.reactive.function.client.WebClientResponseException;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+import reactor.test.StepVerifier;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class DownstreamGuardTest {
+
+    private CircuitBreakerRegistry circuitBreakers;
+    private SimpleMeterRegistry meterRegistry;
+    private DownstreamMetrics metrics;
+    private DownstreamGuard guard;
+    private final List<MutableSpan> spans = new CopyOnWriteArrayList<>();
+    private Tracing tracing;
+    private Tracer tracer;
+
+    @BeforeEach
+    void setUp() {
+        circuitBreakers = CircuitBreakerRegistry.of(CircuitBreakerConfig.custom()
+                .slidingWindowSize(4)
+                .minimumNumberOfCalls(4)
+                .failureRateThreshold(50)
+                .waitDurationInOpenState(Duration.ofMinutes(1))
+                .recordException(new DownstreamFailurePredicate())
+                .build());
+        meterRegistry = new SimpleMeterRegistry();
+        metrics = new DownstreamMetrics(meterRegistry);
+        tracing = Tracing.newBuilder()
+                .currentTraceContext(ThreadLocalCurrentTraceContext.create())
+                .addSpanHandler(new SpanHandler() {
+                    @Override
+                    public boolean end(TraceContext context, MutableSpan span, Cause cause) {
+                        spans.add(span);
+                        return true;
+                    }
+                })
+                .build();
+        tracer = new BraveTracer(tracing.tracer(), new BraveBaggageManager());
+        guard = new DownstreamGuard(
+                circuitBreakers,
+                BulkheadRegistry.of(BulkheadConfig.custom()
+                        .maxConcurrentCalls(1).maxWaitDuration(Duration.ZERO).build()),
+                TimeLimiterRegistry.of(TimeLimiterConfig.custom()
+                        .timeoutDuration(Duration.ofMillis(100)).build()),
+                RetryRegistry.of(RetryConfig.custom()
+                        .maxAttempts(3)
+                        .waitDuration(Duration.ofMillis(1))
+                        .retryOnException(new RetryableFailurePredicate())
+                        .build()),
+                metrics,
+                new DownstreamTracing(tracer));
+    }
+
+    @AfterEach
+    void tearDown() {
+        tracing.close();
+    }
+
+    @Test
+    void readsAreRetriedOnServerErrors() {
+        AtomicInteger calls = new AtomicInteger();
+        Mono<String> call = Mono.defer(() -> calls.incrementAndGet() < 3
+                ? Mono.error(response(HttpStatus.BAD_GATEWAY))
+                : Mono.just("ok"));
+
+        StepVerifier.create(guard.read("accounts", "test", call))
+                .expectNext("ok")
+                .verifyComplete();
+
+        assertThat(calls).hasValue(3);
+    }
+
+    @Test
+    void readsAreNotRetriedOnClientErrorsNorCountedAsFailures() {
+        AtomicInteger calls = new AtomicInteger();
+        Mono<String> call = Mono.defer(() -> {
+            calls.incrementAndGet();
+            return Mono.error(response(HttpStatus.NOT_FOUND));
+        });
+
+        for (int i = 0; i < 4; i++) {
+            StepVerifier.create(guard.read("accounts", "test", call))
+                    .expectError(WebClientResponseException.NotFound.class)
+                    .verify();
+        }
+
+        assertThat(calls).hasValue(4);
+        assertThat(circuitBreakers.circuitBreaker("accounts").getMetrics().getNumberOfFailedCalls()).isZero();
+    }
+
+    @Test
+    void writesAreNotRetried() {
+        AtomicInteger calls = new AtomicInteger();
+        Mono<String> call = Mono.defer(() -> {
+            calls.incrementAndGet();
+            return Mono.error(response(HttpStatus.SERVICE_UNAVAILABLE));
+        });
+
+        StepVerifier.create(guard.write("accounts", "test", call))
+                .expectError(WebClientResponseException.ServiceUnavailable.class)
+                .verify();
+
+        assertThat(calls).hasValue(1);
+    }
+
+    @Test
+    void openCircuitFailsFastAsUnavailable() {
+        AtomicInteger calls = new AtomicInteger();
+        Mono<String> failing = Mono.defer(() -> {
+            calls.incrementAndGet();
+            return Mono.error(response(HttpStatus.INTERNAL_SERVER_ERROR));
+        });
+        for (int i = 0; i < 4; i++) {
+            StepVerifier.create(guard.write("credits", "test", failing)).expectError().verify();
+        }
+        calls.set(0);
+
+        StepVerifier.create(guard.read("credits", "test", failing))
+                .expectErrorSatisfies(e -> {
+                    assertThat(e).isInstanceOf(DownstreamUnavailableException.class);
+                    assertThat(((DownstreamUnavailableException) e).getDownstream()).isEqualTo("credits");
+                })
+                .verify();
+
+        // Ni la llamada ni sus reintentos llegan al servicio con el circuito abierto
+        assertThat(calls).hasValue(0);
+    }
+
+    @Test
+    void slowReadTimesOutAsUnavailable() {
+        StepVerifier.create(guard.read("customers", "test", Mono.never()))
+                .expectError(DownstreamUnavailableException.class)
+                .verify(Duration.ofSeconds(1));
+    }
+
+    @Test
+    void slowWriteIsNotCutByTheTimeLimiter() {
+        // Más lenta que el TimeLimiter (100 ms): cortarla no desharía la mutación remota
+        StepVerifier.create(guard.write("customers", "test", Mono.delay(Duration.ofMillis(300))))
+                .expectNext(0L)
+                .verifyComplete();
+    }
+
+    @Test
+    void fullBulkheadRejectsImmediately() {
+        StepVerifier.create(Mono.zip(
+                        guard.write("credit-cards", "test", Mono.delay(Duration.ofMillis(50))),
+                        guard.write("credit-cards", "test", Mono.just(1L))))
+                .expectError(DownstreamUnavailableException.class)
+                .verify(Duration.ofSeconds(1));
+    }
+
+    @Test
+    void callsAreTimedByOperationAndOutcome() {
+        StepVerifier.create(guard.read("accounts", "balance", Mono.just("ok")))
+                .expectNext("ok")
+                .verifyComplete();
+        StepVerifier.create(guard.read("accounts", "exists", Mono.error(response(HttpStatus.NOT_FOUND))))
+                .expectError()
+                .verify();
+        StepVerifier.create(guard.read("customers", "exists", Mono.never()))
+                .expectError(DownstreamUnavailableException.class)
+                .verify(Duration.ofSeconds(1));
+
+        assertThat(timerCount("accounts", "balance", "success")).isEqualTo(1);
+        assertThat(timerCount("accounts", "exists", "client_error")).isEqualTo(1);
+        assertThat(timerCount("customers", "exists", "rejected")).isEqualTo(1);
+    }
+
+    @Test
+    void inFlightGaugeTracksOpenCalls() {
+        Sinks.One<String> pending = Sinks.one();
+        StepVerifier.create(guard.read("credits", "balance", pending.asMono()))
+                .then(() -> assertThat(meterRegistry.get("downstream.inflight").tag("downstream", "credits")
+                        .gauge().value()).isEqualTo(1.0))
+                .then(() -> pending.tryEmitValue("ok"))
+                .expectNext("ok")
+                .verifyComplete();
+
+        assertThat(metrics.inFlightCount("credits")).isZero();
+    }
+
+    @Test
+    void eachOperationIsAChildSpanOfTheRequest() {
+        Span request = tracer.nextSpan().name("POST /transactions/transfer").start();
+
+        StepVerifier.create(guard.read("accounts", "balance", Mono.just("ok"))
+                        .then(guard.write("accounts", "update-balance", Mono.error(response(HttpStatus.CONFLICT))))
+                        .contextWrite(context -> context.put(Span.class, request)))
+                .expectError(WebClientResponseException.Conflict.class)
+                .verify();
+        request.end();
+
+        assertThat(spans).hasSize(3);
+        MutableSpan balance = span("accounts balance");
+        MutableSpan update = span("accounts update-balance");
+        assertThat(balance.tags()).containsEntry("downstream", "accounts").containsEntry("operation", "balance");
+        assertThat(balance.remoteServiceName()).isEqualTo("accounts");
+        assertThat(update.error()).isInstanceOf(WebClientResponseException.Conflict.class);
+        for (MutableSpan span : List.of(balance, update)) {
+            assertThat(span.traceId()).isEqualTo(request.context().traceId());
+            assertThat(span.parentId()).isEqualTo(request.context().spanId());
+        }
+    }
+
+    private MutableSpan span(String name) {
+        return spans.stream().filter(span -> name.equals(span.name())).findFirst().orElseThrow();
+    }
+
+    private long timerCount(String downstream, String operation, String outcome) {
+        return meterRegistry.get("downstream.calls")
+                .tags("downstream", downstream, "operation", operation, "outcome", outcome)
+                .timer()
+                .count();
+    }
+
+    private static WebClientResponseException response(HttpStatus status) {
+        return WebClientResponseException.create(status.value(), status.getReasonPhrase(), null, null, null);
+    }
+}
@@ -0,0 +1,67 @@
+package com.nttdata.bankapp.transaction.client;
+
+import com.nttdata.bankapp.transaction.config.ExistenceCacheProperties;
+import org.junit.jupiter.api.Test;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ExistenceCacheTest {
+
+    private final ExistenceCache cache = new ExistenceCache(properties(Duration.ofMinutes(5), Duration.ofMillis(100)));
+
+    @Test
+    void concurrentMissesShareOneDownstreamCall() {
+        AtomicInteger calls = new AtomicInteger();
+
+        Flux<Boolean> lookups = Flux.range(0, 50)
+                .flatMap(i -> cache.get("c1", id -> Mono.fromCallable(calls::incrementAndGet)
+                        .delayElement(Duration.ofMillis(50))
+                        .thenReturn(true)));
+
+        StepVerifier.create(lookups)
+                .expectNextCount(50)
+                .verifyComplete();
+        assertThat(calls).hasValue(1);
+    }
+
+    @Test
+    void negativeResultsExpireSooner() throws InterruptedException {
+        AtomicInteger calls = new AtomicInteger();
+
+        cache.get("missing", id -> Mono.fromCallable(calls::incrementAndGet).thenReturn(false)).block();
+        cache.get("present", id -> Mono.fromCallable(calls::incrementAndGet).thenReturn(true)).block();
+        Thread.sleep(200);
+        cache.get("missing", id -> Mono.fromCallable(calls::incrementAndGet).thenReturn(false)).block();
+        cache.get("present", id -> Mono.fromCallable(calls::incrementAndGet).thenReturn(true)).block();
+
+        assertThat(calls).hasValue(3);
+    }
+
+    @Test
+    void errorsAreNotCached() {
+        AtomicInteger calls = new AtomicInteger();
+
+        StepVerifier.create(cache.get("c1", id -> Mono.fromCallable(calls::incrementAndGet)
+                        .then(Mono.error(new IllegalStateException("boom")))))
+                .expectError(IllegalStateException.class)
+                .verify();
+        StepVerifier.create(cache.get("c1", id -> Mono.fromCallable(calls::incrementAndGet).thenReturn(true)))
+                .expectNext(true)
+                .verifyComplete();
+
+        assertThat(calls).hasValue(2);
+    }
+
+    private static ExistenceCacheProperties properties(Duration ttl, Duration negativeTtl) {
+        ExistenceCacheProperties properties = new ExistenceCacheProperties();
+        properties.setTtl(ttl);
+        properties.setNegativeTtl(negativeTtl);
+        return properties;
+    }
+}
@@ -0,0 +1,77 @@
+package com.nttdata.bankapp.transaction.client;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.web.reactive.function.client.ClientResponse;
+import org.springframework.web.reactive.function.client.WebClient;
+import org.springframework.web.reactive.function.client.WebClientResponseException;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Function;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ExistenceProbeTest {
+
+    private final List<HttpMethod> methods = new CopyOnWriteArrayList<>();
+
+    @Test
+    void existingResourceIsProbedWithHead() {
+        WebClient webClient = stub(method -> ClientResponse.create(HttpStatus.OK).build());
+
+        StepVerifier.create(ExistenceProbe.exists(webClient, "/customers/{id}", "c1"))
+                .expectNext(true)
+                .verifyComplete();
+
+        assertThat(methods).containsExactly(HttpMethod.HEAD);
+    }
+
+    @Test
+    void missingResourceIsFalse() {
+        WebClient webClient = stub(method -> ClientResponse.create(HttpStatus.NOT_FOUND).build());
+
+        StepVerifier.create(ExistenceProbe.exists(webClient, "/customers/{id}", "c1"))
+                .expectNext(false)
+                .verifyComplete();
+    }
+
+    @Test
+    void fallsBackToGetWhenHeadIsNotAllowed() {
+        WebClient webClient = stub(method -> method == HttpMethod.HEAD
+                ? ClientResponse.create(HttpStatus.METHOD_NOT_ALLOWED).build()
+                : ClientResponse.create(HttpStatus.OK)
+                        .header(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_JSON_VALUE)
+                        .body("{\"id\":\"c1\",\"name\":\"Ana\"}")
+                        .build());
+
+        StepVerifier.create(ExistenceProbe.exists(webClient, "/customers/{id}", "c1"))
+                .expectNext(true)
+                .verifyComplete();
+
+        assertThat(methods).containsExactly(HttpMethod.HEAD, HttpMethod.GET);
+    }
+
+    @Test
+    void serverErrorsArePropagated() {
+        WebClient webClient = stub(method -> ClientResponse.create(HttpStatus.BAD_GATEWAY).build());
+
+        StepVerifier.create(ExistenceProbe.exists(webClient, "/customers/{id}", "c1"))
+                .expectError(WebClientResponseException.BadGateway.class)
+                .verify();
+    }
+
+    private WebClient stub(Function<HttpMethod, ClientResponse> responder) {
+        return WebClient.builder()
+                .exchangeFunction(request -> {
+                    methods.add(request.method());
+                    return Mono.just(responder.apply(request.method()));
+                })
+                .build();
+    }
+}
@@ -0,0 +1,116 @@
+package com.nttdata.bankapp.transaction.client;
+
+import org.junit.jupiter.api.Test;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class MicroBatcherTest {
+
+    @Test
+    void repeatedIdsWithinWindowShareOneCall() {
+        List<String> calls = new CopyOnWriteArrayList<>();
+        MicroBatcher<String, Integer> batcher = MicroBatcher.parallel(Duration.ofMillis(50), 100, 4, id -> {
+            calls.add(id);
+            return id.equals("missing") ? Mono.empty() : Mono.just(id.length());
+        });
+
+        Mono<List<Integer>> results = Flux.just("a", "bb", "a", "ccc", "missing")
+                .flatMapSequential(id -> batcher.load(id).defaultIfEmpty(-1))
+                .collectList();
+
+        StepVerifier.create(results)
+                .expectNext(List.of(1, 2, 1, 3, -1))
+                .verifyComplete();
+        assertThat(calls).containsExactlyInAnyOrder("a", "bb", "ccc", "missing");
+        assertThat(batcher.pendingCount()).isZero();
+    }
+
+    @Test
+    void fullBatchIsDispatchedWithoutWaitingForWindow() {
+        AtomicInteger calls = new AtomicInteger();
+        MicroBatcher<String, String> batcher = MicroBatcher.parallel(Duration.ofSeconds(30), 2, 4, id -> {
+            calls.incrementAndGet();
+            return Mono.just(id.toUpperCase());
+        });
+
+        StepVerifier.create(Mono.zip(batcher.load("x"), batcher.load("y")))
+                .assertNext(tuple -> assertThat(tuple.getT1() + tuple.getT2()).isEqualTo("XY"))
+                .expectComplete()
+                .verify(Duration.ofSeconds(1));
+        assertThat(calls).hasValue(2);
+    }
+
+    @Test
+    void parallelFallbackIsolatesErrorsAndBoundsConcurrency() {
+        AtomicInteger active = new AtomicInteger();
+        AtomicInteger maxActive = new AtomicInteger();
+        MicroBatcher<Integer, Integer> batcher = MicroBatcher.parallel(Duration.ofMillis(10), 100, 3, id -> {
+            if (id == 7) {
+                return Mono.error(new IllegalArgumentException("bad id"));
+            }
+            return Mono.just(id * 10)
+                    .doOnSubscribe(s -> maxActive.accumulateAndGet(active.incrementAndGet(), Math::max))
+                    .delayElement(Duration.ofMillis(20))
+                    .doOnTerminate(active::decrementAndGet);
+        });
+
+        List<Integer> ids = new ArrayList<>();
+        for (int i = 0; i < 12; i++) {
+            ids.add(i);
+        }
+
+        StepVerifier.create(Flux.fromIterable(ids)
+                        .flatMap(id -> batcher.load(id).onErrorReturn(-1))
+                        .collectList())
+                .assertNext(values -> {
+                    assertThat(values).hasSize(12).contains(-1, 0, 60, 110);
+                    assertThat(Collections.frequency(values, -1)).isEqualTo(1);
+                })
+                .verifyComplete();
+        assertThat(maxActive.get()).isLessThanOrEqualTo(3);
+    }
+
+    @Test
+    void concurrencyIsBoundedAcrossWindows() {
+        AtomicInteger active = new AtomicInteger();
+        AtomicInteger maxActive = new AtomicInteger();
+        MicroBatcher<Integer, Integer> batcher = MicroBatcher.parallel(Duration.ofMillis(1), 100, 2, id ->
+                Mono.just(id)
+                        .doOnSubscribe(s -> maxActive.accumulateAndGet(active.incrementAndGet(), Math::max))
+                        .delayElement(Duration.ofMillis(30))
+                        .doOnTerminate(active::decrementAndGet));
+
+        // Una consulta cada 5 ms: cada una abre su propia ventana mientras las anteriores siguen en curso
+        StepVerifier.create(Flux.range(0, 8)
+                        .delayElements(Duration.ofMillis(5))
+                        .flatMap(batcher::load)
+                        .collectList())
+                .assertNext(values -> assertThat(values).hasSize(8))
+                .verifyComplete();
+        assertThat(maxActive.get()).isEqualTo(2);
+    }
+
+    @Test
+    void lateLookupsOpenANewWindow() {
+        AtomicInteger calls = new AtomicInteger();
+        MicroBatcher<String, String> batcher = MicroBatcher.parallel(Duration.ofMillis(5), 100, 4, id -> {
+            calls.incrementAndGet();
+            return Mono.just(id);
+        });
+
+        StepVerifier.create(batcher.load("a")).expectNext("a").verifyComplete();
+        StepVerifier.create(batcher.load("a")).expectNext("a").verifyComplete();
+
+        assertThat(calls).hasValue(2);
+    }
+}
@@ -0,0 +1,86 @@
+package com.nttdata.bankapp.transaction.client;
+
+import org.junit.jupiter.api.Test;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+import reactor.test.StepVerifier;
+
+import java.time.Duration;
+import java.util.Collections;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class SingleFlightTest {
+
+    private final SingleFlight<String, Integer> singleFlight = new SingleFlight<>();
+
+    @Test
+    void concurrentCallsForSameKeyShareOneCall() {
+        AtomicInteger calls = new AtomicInteger();
+
+        Flux<Integer> results = Flux.range(0, 20)
+                .flatMap(i -> singleFlight.execute("a1", () -> Mono.fromCallable(calls::incrementAndGet)
+                        .delayElement(Duration.ofMillis(50))));
+
+        StepVerifier.create(results)
+                .expectNextSequence(Collections.nCopies(20, 1))
+                .verifyComplete();
+        assertThat(calls).hasValue(1);
+        assertThat(singleFlight.inFlightCount()).isZero();
+    }
+
+    @Test
+    void resultIsNotReusedAfterCompletion() {
+        AtomicInteger calls = new AtomicInteger();
+
+        Integer first = singleFlight.execute("a1", () -> Mono.fromCallable(calls::incrementAndGet)).block();
+        Integer second = singleFlight.execute("a1", () -> Mono.fromCallable(calls::incrementAndGet)).block();
+
+        assertThat(first).isEqualTo(1);
+        assertThat(second).isEqualTo(2);
+    }
+
+    @Test
+    void callerArrivingAsResultIsPublishedStartsFreshCall() {
+        AtomicInteger calls = new AtomicInteger();
+        AtomicReference<Integer> late = new AtomicReference<>();
+
+        Integer first = singleFlight.execute("a1", () -> Mono.fromCallable(calls::incrementAndGet))
+                .doOnNext(value -> singleFlight.execute("a1", () -> Mono.fromCallable(calls::incrementAndGet))
+                        .subscribe(late::set))
+                .block();
+
+        assertThat(first).isEqualTo(1);
+        assertThat(late).hasValue(2);
+    }
+
+    @Test
+    void finishedCallDoesNotEvictNewerCallForSameKey() {
+        AtomicInteger calls = new AtomicInteger();
+        Sinks.One<Integer> slow = Sinks.one();
+
+        singleFlight.execute("a1", () -> Mono.fromCallable(calls::incrementAndGet))
+                .doOnNext(value -> singleFlight.execute("a1", slow::asMono).subscribe())
+                .block();
+
+        // La llamada nueva sigue en curso y debe poder compartirse
+        assertThat(singleFlight.inFlightCount()).isEqualTo(1);
+        slow.tryEmitValue(2);
+        assertThat(singleFlight.inFlightCount()).isZero();
+    }
+
+    @Test
+    void differentKeysDoNotShare() {
+        AtomicInteger calls = new AtomicInteger();
+
+        StepVerifier.create(Flux.merge(
+                        singleFlight.execute("a1", () -> Mono.fromCallable(calls::incrementAndGet).delayElement(Duration.ofMillis(20))),
+                        singleFlight.execute("a2", () -> Mono.fromCallable(calls::incrementAndGet).delayElement(Duration.ofMillis(20)))))
+                .expectNextCount(2)
+                .verifyComplete();
+        assertThat(calls).hasValue(2);
+    }
+}
@@ -0,0 +1,38 @@
+package com.nttdata.bankapp.transaction.controller;
+
+import com.nttdata.bankapp.transaction.dto.TransactionDto;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferUtils;
+import org.springframework.core.io.buffer.DefaultDataBufferFactory;
+import org.springframework.http.codec.ServerCodecConfigurer;
+import reactor.core.publisher.Flux;
+import reactor.test.StepVerifier;
+
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class NdjsonBatchWriterTest {
+
+    private final NdjsonBatchWriter writer = new NdjsonBatchWriter(ServerCodecConfigurer.create());
+
+    @Test
+    void writesOneBufferPerBatchWithOneLinePerRow() {
+        Flux<TransactionDto> rows = Flux.range(1, 5)
+                .map(i -> TransactionDto.builder().id("t" + i).amount(BigDecimal.valueOf(i)).build());
+
+        StepVerifier.create(writer.write(rows, 2, DefaultDataBufferFactory.sharedInstance).map(this::asString))
+                .assertNext(batch -> assertThat(batch.split("\n")).hasSize(2).allMatch(line -> line.startsWith("{\"id\":\"t")))
+                .assertNext(batch -> assertThat(batch).startsWith("{\"id\":\"t3\"").endsWith("}\n"))
+                .assertNext(batch -> assertThat(batch.split("\n")).hasSize(1))
+                .verifyComplete();
+    }
+
+    private String asString(DataBuffer buffer) {
+        String value = buffer.toString(StandardCharsets.UTF_8);
+        DataBufferUtils.release(buffer);
+        return value;
+    }
+}
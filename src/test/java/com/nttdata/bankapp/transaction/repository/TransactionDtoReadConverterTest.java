@@ -0,0 +1,88 @@
+package com.nttdata.bankapp.transaction.repository;
+
+import com.nttdata.bankapp.transaction.dto.TransactionDto;
+import com.nttdata.bankapp.transaction.model.Transaction;
+import com.nttdata.bankapp.transaction.model.TransactionStatus;
+import com.nttdata.bankapp.transaction.model.TransactionType;
+import org.bson.Document;
+import org.bson.types.Decimal128;
+import org.bson.types.ObjectId;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.mongodb.core.convert.MappingMongoConverter;
+import org.springframework.data.mongodb.core.convert.MongoCustomConversions;
+import org.springframework.data.mongodb.core.convert.NoOpDbRefResolver;
+import org.springframework.data.mongodb.core.mapping.MongoMappingContext;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.Collections;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Comprueba que la lectura directa a TransactionDto da los mismos valores que leer la entidad.
+ */
+class TransactionDtoReadConverterTest {
+
+    private final TransactionDtoReadConverter reader = new TransactionDtoReadConverter();
+    private MappingMongoConverter converter;
+
+    @BeforeEach
+    void setUp() {
+        MongoCustomConversions conversions = new MongoCustomConversions(Collections.emptyList());
+        MongoMappingContext mappingContext = new MongoMappingContext();
+        mappingContext.setSimpleTypeHolder(conversions.getSimpleTypeHolder());
+        converter = new MappingMongoConverter(NoOpDbRefResolver.INSTANCE, mappingContext);
+        converter.setCustomConversions(conversions);
+        converter.afterPropertiesSet();
+    }
+
+    @Test
+    void directReadMatchesEntityRead() {
+        Transaction transaction = Transaction.builder()
+                .id(new ObjectId().toHexString())
+                .accountId("a1")
+                .customerId("c1")
+                .type(TransactionType.WITHDRAWAL)
+                .amount(new BigDecimal("125.50"))
+                .fee(new BigDecimal("2.50"))
+                .description("ATM")
+                .transactionDate(LocalDateTime.of(2024, 5, 1, 10, 15, 30))
+                .referenceNumber("TX-ABC")
+                .status(TransactionStatus.COMPLETED)
+                .build();
+        Document document = new Document();
+        converter.write(transaction, document);
+
+        TransactionDto direct = reader.convert(document);
+        Transaction entity = converter.read(Transaction.class, document);
+
+        assertThat(direct.getTransactionDate()).isEqualTo(entity.getTransactionDate());
+        assertThat(direct).isEqualTo(TransactionDto.builder()
+                .id(transaction.getId())
+                .accountId("a1")
+                .customerId("c1")
+                .type(TransactionType.WITHDRAWAL)
+                .amount(new BigDecimal("125.50"))
+                .description("ATM")
+                .transactionDate(LocalDateTime.of(2024, 5, 1, 10, 15, 30))
+                .referenceNumber("TX-ABC")
+                .status(TransactionStatus.COMPLETED)
+                .build());
+    }
+
+    @Test
+    void readsDecimal128AmountsAndMissingFields() {
+        Document document = new Document("_id", "legacy-1")
+                .append("type", "DEPOSIT")
+                .append("amount", new Decimal128(new BigDecimal("10.00")));
+
+        TransactionDto dto = reader.convert(document);
+
+        assertThat(dto.getId()).isEqualTo("legacy-1");
+        assertThat(dto.getAmount()).isEqualByComparingTo("10");
+        assertThat(dto.getTransactionDate()).isNull();
+        assertThat(dto.getStatus()).isNull();
+    }
+}
@@ -0,0 +1,168 @@
+package com.nttdata.bankapp.transaction.repository;
+
+import com.mongodb.reactivestreams.client.FindPublisher;
+import com.mongodb.reactivestreams.client.MongoCollection;
+import com.nttdata.bankapp.transaction.dto.PageCursor;
+import com.nttdata.bankapp.transaction.dto.TransactionLineDto;
+import com.nttdata.bankapp.transaction.model.Transaction;
+import org.bson.Document;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.data.mongodb.core.ReactiveMongoTemplate;
+import org.springframework.data.mongodb.core.aggregation.TypeBasedAggregationOperationContext;
+import org.springframework.data.mongodb.core.aggregation.TypedAggregation;
+import org.springframework.data.mongodb.core.convert.MappingMongoConverter;
+import org.springframework.data.mongodb.core.convert.MongoCustomConversions;
+import org.springframework.data.mongodb.core.convert.NoOpDbRefResolver;
+import org.springframework.data.mongodb.core.convert.QueryMapper;
+import org.springframework.data.mongodb.core.mapping.MongoMappingContext;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.Collections;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Comprueba los pipelines de agregación y las proyecciones de las consultas tal como se envían a Mongo.
+ */
+class TransactionRepositoryCustomImplTest {
+
+    private static final LocalDateTime START = LocalDateTime.of(2024, 1, 1, 0, 0);
+    private static final LocalDateTime END = LocalDateTime.of(2024, 7, 1, 0, 0);
+
+    private final MongoMappingContext mappingContext = new MongoMappingContext();
+    private MappingMongoConverter converter;
+    private QueryMapper queryMapper;
+
+    @BeforeEach
+    void setUp() {
+        MongoCustomConversions conversions = new MongoCustomConversions(Collections.emptyList());
+        mappingContext.setSimpleTypeHolder(conversions.getSimpleTypeHolder());
+        converter = new MappingMongoConverter(NoOpDbRefResolver.INSTANCE, mappingContext);
+        converter.setCustomConversions(conversions);
+        converter.afterPropertiesSet();
+        queryMapper = new QueryMapper(converter);
+    }
+
+    @Test
+    void totalsByTypeGroupsInsideMongoOverDecimalAmounts() {
+        List<Document> pipeline = render(TransactionRepositoryCustomImpl.totalsByTypePipeline(START, END));
+
+        assertThat(pipeline).extracting(stage -> stage.keySet().iterator().next())
+                .containsExactly("$match", "$group", "$project", "$sort");
+        Document match = pipeline.get(0).get("$match", Document.class);
+        assertThat(match.get("status", Document.class).get("$ne")).isEqualTo("FAILED");
+        Document group = pipeline.get(1).get("$group", Document.class);
+        assertThat(group.get("_id")).isEqualTo("$type");
+        // Los montos se guardan como texto: sin $toDecimal la suma daría 0
+        assertThat(group.get("amount", Document.class).get("$sum", Document.class).get("$toDecimal"))
+                .isEqualTo("$amount");
+        assertThat(pipeline.get(2).get("$project", Document.class).get("type")).isEqualTo("$_id");
+    }
+
+    @Test
+    void topCustomersAreSortedAndLimitedBeforeLeavingMongo() {
+        List<Document> pipeline = render(TransactionRepositoryCustomImpl.topCustomersPipeline(START, END, 5));
+
+        assertThat(pipeline).extracting(stage -> stage.keySet().iterator().next())
+                .containsExactly("$match", "$group", "$sort", "$limit", "$project");
+        assertThat(pipeline.get(2).get("$sort", Document.class).get("volume")).isEqualTo(-1);
+        assertThat(pipeline.get(3).get("$limit")).isEqualTo(5L);
+    }
+
+    @Test
+    void feeRevenueGroupsByMonthInServiceTimezone() {
+        List<Document> pipeline = render(TransactionRepositoryCustomImpl.feeRevenuePipeline(
+                START, END, ZoneId.of("America/Lima")));
+
+        Document month = pipeline.get(1).get("$project", Document.class).get("month", Document.class);
+        assertThat(month.get("$month", Document.class).get("timezone")).isEqualTo("America/Lima");
+        assertThat(pipeline.get(2).get("$group", Document.class).get("_id"))
+                .isEqualTo(new Document("year", "$year").append("month", "$month"));
+        assertThat(pipeline.get(4).get("$project", Document.class))
+                .containsEntry("year", "$_id.year")
+                .containsEntry("month", "$_id.month");
+    }
+
+    @Test
+    void averageTicketOnlyCountsCardConsumptions() {
+        List<Document> pipeline = render(TransactionRepositoryCustomImpl.averageTicketPipeline(START, END, 10));
+
+        Document match = pipeline.get(0).get("$match", Document.class);
+        assertThat(match.get("type")).isEqualTo("CONSUMPTION");
+        Document group = pipeline.get(1).get("$group", Document.class);
+        assertThat(group.get("_id")).isEqualTo("$creditCardId");
+        assertThat(group.get("averageTicket", Document.class)).containsKey("$avg");
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void pageReadsOnlyDtoFieldsThroughDriver() {
+        ReactiveMongoTemplate template = mock(ReactiveMongoTemplate.class);
+        MongoCollection<Document> collection = mock(MongoCollection.class);
+        FindPublisher<Document> find = mock(FindPublisher.class);
+        when(template.getConverter()).thenReturn(converter);
+        when(template.getCollectionName(Transaction.class)).thenReturn("transactions");
+        when(template.getCollection("transactions")).thenReturn(Mono.just(collection));
+        when(collection.find(any(Document.class))).thenReturn(find);
+        when(find.projection(any())).thenReturn(find);
+        when(find.sort(any())).thenReturn(find);
+        when(find.limit(anyInt())).thenReturn(find);
+
+        new TransactionRepositoryCustomImpl(template)
+                .findPage(Criteria.where("accountId").is("a1"), new PageCursor(START, "t9"), 21)
+                .subscribe()
+                .dispose();
+
+        ArgumentCaptor<Document> filter = ArgumentCaptor.forClass(Document.class);
+        ArgumentCaptor<Document> fields = ArgumentCaptor.forClass(Document.class);
+        ArgumentCaptor<Document> sort = ArgumentCaptor.forClass(Document.class);
+        verify(collection).find(filter.capture());
+        verify(find).projection(fields.capture());
+        verify(find).sort(sort.capture());
+        verify(find).limit(21);
+        assertThat(filter.getValue()).containsKeys("accountId", "$or");
+        assertThat(sort.getValue()).containsEntry("transactionDate", -1).containsEntry("_id", -1);
+        assertThat(fields.getValue().keySet())
+                .contains("amount", "transactionDate", "referenceNumber")
+                .doesNotContain("outbox", "fee", "debitCardId", "thirdPartyProductId", "destinationAccountId");
+    }
+
+    @Test
+    void linePageReadsFourFieldsStraightIntoDto() {
+        ReactiveMongoTemplate template = mock(ReactiveMongoTemplate.class);
+        when(template.getCollectionName(Transaction.class)).thenReturn("transactions");
+        when(template.find(any(Query.class), eq(TransactionLineDto.class), eq("transactions")))
+                .thenReturn(Flux.empty());
+        PageCursor after = new PageCursor(START, "t9");
+
+        new TransactionRepositoryCustomImpl(template).findLinePage(Criteria.where("customerId").is("c1"), after, 51)
+                .blockLast();
+
+        ArgumentCaptor<Query> query = ArgumentCaptor.forClass(Query.class);
+        verify(template).find(query.capture(), eq(TransactionLineDto.class), eq("transactions"));
+        // _id se incluye siempre
+        assertThat(query.getValue().getFieldsObject().keySet())
+                .containsExactlyInAnyOrder("type", "amount", "transactionDate");
+        assertThat(query.getValue().getQueryObject()).containsKeys("customerId", "$or");
+        assertThat(query.getValue().getLimit()).isEqualTo(51);
+    }
+
+    private List<Document> render(TypedAggregation<?> aggregation) {
+        return aggregation.toPipeline(new TypeBasedAggregationOperationContext(
+                aggregation.getInputType(), mappingContext, queryMapper));
+    }
+}
@@ -0,0 +1,158 @@
+package com.nttdata.bankapp.transaction.service;
+
+import org.junit.jupiter.api.Test;
+import reactor.core.Disposable;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+import reactor.test.StepVerifier;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Prueba de estrés del secuenciador: cada operación hace lectura-espera-escritura sobre un contador
+ * sin sincronizar, por lo que cualquier solapamiento con la misma clave perdería actualizaciones.
+ */
+class KeyedSequencerTest {
+
+    private static final int KEYS = 20;
+    private static final int OPS_PER_KEY = 50;
+    private static final Duration STEP = Duration.ofMillis(2);
+
+    private final KeyedSequencer sequencer = new KeyedSequencer();
+
+    @Test
+    void sameKeyOperationsNeverOverlapAndNoUpdateIsLost() {
+        Map<String, Integer> counters = new ConcurrentHashMap<>();
+        Map<String, AtomicInteger> inside = new ConcurrentHashMap<>();
+        AtomicInteger overlaps = new AtomicInteger();
+
+        Flux<Integer> ops = Flux.range(0, KEYS * OPS_PER_KEY)
+                .flatMap(i -> {
+                    String key = "acc-" + (i % KEYS);
+                    return sequencer.run(key, () -> readModifyWrite(key, counters, inside, overlaps));
+                }, KEYS * OPS_PER_KEY);
+
+        StepVerifier.create(ops)
+                .expectNextCount(KEYS * OPS_PER_KEY)
+                .verifyComplete();
+
+        assertThat(overlaps).hasValue(0);
+        assertThat(counters).hasSize(KEYS);
+        assertThat(counters.values()).allMatch(count -> count == OPS_PER_KEY);
+        assertThat(sequencer.pendingKeys()).isZero();
+    }
+
+    @Test
+    void distinctKeysRunInParallel() {
+        Duration hop = Duration.ofMillis(200);
+
+        // Serializadas costarían KEYS * hop; en paralelo, un solo salto
+        Duration elapsed = StepVerifier.create(Flux.range(0, KEYS)
+                        .flatMap(i -> sequencer.run("acc-" + i, () -> Mono.just(i).delayElement(hop))))
+                .expectNextCount(KEYS)
+                .verifyComplete();
+
+        assertThat(elapsed).isLessThan(hop.multipliedBy(3));
+    }
+
+    @Test
+    void failedOrCancelledOperationReleasesTheTurn() {
+        StepVerifier.create(sequencer.run("acc-1", () -> Mono.error(new IllegalStateException("boom"))))
+                .expectError(IllegalStateException.class)
+                .verify();
+
+        StepVerifier.create(sequencer.run("acc-1", Mono::never))
+                .thenCancel()
+                .verify();
+
+        StepVerifier.create(sequencer.run("acc-1", () -> Mono.just("next")))
+                .expectNext("next")
+                .verifyComplete();
+        assertThat(sequencer.pendingKeys()).isZero();
+    }
+
+    @Test
+    void cancelledQueuedOperationDoesNotReleaseItsSuccessorEarly() {
+        Sinks.Empty<Void> first = Sinks.empty();
+        AtomicBoolean thirdStarted = new AtomicBoolean();
+
+        Disposable running = sequencer.run("acc-1", first::asMono).subscribe();
+        Disposable queued = sequencer.run("acc-1", () -> Mono.just("second")).subscribe();
+        StepVerifier.FirstStep<String> third = StepVerifier.create(sequencer.run("acc-1", () -> {
+            thirdStarted.set(true);
+            return Mono.just("third");
+        }));
+
+        queued.dispose();
+        third.then(() -> assertThat(thirdStarted).isFalse())
+                .then(first::tryEmitEmpty)
+                .expectNext("third")
+                .verifyComplete();
+
+        assertThat(running.isDisposed()).isTrue();
+        assertThat(sequencer.pendingKeys()).isZero();
+    }
+
+    @Test
+    void resubscribedMultiKeyOperationTakesEveryTurnAgain() {
+        Sinks.Empty<Void> destinationBusy = Sinks.empty();
+        AtomicInteger attempts = new AtomicInteger();
+
+        Mono<Integer> transfer = sequencer.runAll(Arrays.asList("acc-1", "acc-2"), () -> {
+            int attempt = attempts.incrementAndGet();
+            if (attempt == 1) {
+                // Otra operación se encola en la cuenta destino mientras el primer intento la tiene
+                sequencer.run("acc-2", destinationBusy::asMono).subscribe();
+                return Mono.error(new IllegalStateException("retry"));
+            }
+            return Mono.just(attempt);
+        });
+
+        // El reintento vuelve a esperar el turno de acc-2, ocupado por la operación encolada
+        StepVerifier.create(transfer.retry(1))
+                .then(() -> assertThat(attempts).hasValue(1))
+                .then(destinationBusy::tryEmitEmpty)
+                .expectNext(2)
+                .verifyComplete();
+        assertThat(sequencer.pendingKeys()).isZero();
+    }
+
+    @Test
+    void crossedMultiKeyOperationsDoNotDeadlock() {
+        Flux<Integer> transfers = Flux.range(0, 200)
+                .flatMap(i -> {
+                    String from = "acc-" + (i % 2);
+                    String to = "acc-" + ((i + 1) % 2);
+                    return sequencer.runAll(Arrays.asList(from, to), () -> Mono.just(i).delayElement(Duration.ofMillis(1)));
+                }, 200);
+
+        StepVerifier.create(transfers)
+                .expectNextCount(200)
+                .expectComplete()
+                .verify(Duration.ofSeconds(10));
+    }
+
+    private Mono<Integer> readModifyWrite(String key, Map<String, Integer> counters,
+                                          Map<String, AtomicInteger> inside, AtomicInteger overlaps) {
+        return Mono.defer(() -> {
+            if (inside.computeIfAbsent(key, k -> new AtomicInteger()).incrementAndGet() > 1) {
+                overlaps.incrementAndGet();
+            }
+            int current = counters.getOrDefault(key, 0);
+            return Mono.delay(STEP)
+                    .map(tick -> {
+                        counters.put(key, current + 1);
+                        inside.get(key).decrementAndGet();
+                        return current + 1;
+                    });
+        });
+    }
+}
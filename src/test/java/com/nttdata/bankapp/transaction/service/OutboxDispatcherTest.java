@@ -0,0 +1,182 @@
+package com.nttdata.bankapp.transaction.service;
+
+import com.nttdata.bankapp.transaction.client.AccountService;
+import com.nttdata.bankapp.transaction.client.CreditCardService;
+import com.nttdata.bankapp.transaction.client.CreditService;
+import com.nttdata.bankapp.transaction.config.OutboxProperties;
+import com.nttdata.bankapp.transaction.model.OutboxState;
+import com.nttdata.bankapp.transaction.model.Transaction;
+import com.nttdata.bankapp.transaction.model.TransactionStatus;
+import com.nttdata.bankapp.transaction.model.TransactionType;
+import com.nttdata.bankapp.transaction.repository.TransactionRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Spy;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.reactive.function.client.WebClientResponseException;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Collections;
+import java.util.HashSet;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.lenient;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class OutboxDispatcherTest {
+
+    @Mock
+    private TransactionRepository transactionRepository;
+    @Mock
+    private AccountService accountService;
+    @Mock
+    private CreditService creditService;
+    @Mock
+    private CreditCardService creditCardService;
+    @Spy
+    private OutboxProperties properties = new OutboxProperties();
+    @Mock
+    private BalanceProjectionService balanceProjectionService;
+    @Mock
+    private TransactionRollupService transactionRollupService;
+
+    @InjectMocks
+    private OutboxDispatcher dispatcher;
+
+    @BeforeEach
+    void setUp() {
+        lenient().when(transactionRepository.markOutboxStep(anyString(), anyString())).thenReturn(Mono.empty());
+        lenient().when(transactionRepository.completeOutbox(anyString())).thenReturn(Mono.empty());
+        lenient().when(transactionRepository.rescheduleOutbox(anyString(), any(), any())).thenReturn(Mono.empty());
+        lenient().when(transactionRepository.failOutbox(anyString(), any())).thenReturn(Mono.empty());
+        lenient().when(transactionRepository.reviewOutbox(anyString(), any())).thenReturn(Mono.empty());
+        lenient().when(balanceProjectionService.revert(any(), any())).thenReturn(Mono.empty());
+        lenient().when(transactionRollupService.revert(any())).thenReturn(Mono.empty());
+    }
+
+    @Test
+    void disabledOutboxDoesNotStartPolling() throws InterruptedException {
+        properties.setPollInterval(Duration.ofMillis(10));
+
+        dispatcher.start();
+        Thread.sleep(50);
+        dispatcher.stop();
+
+        verify(transactionRepository, never()).claimNextOutbox(any(), any());
+    }
+
+    @Test
+    void transferRetrySkipsStepsAlreadyApplied() {
+        Transaction transfer = pending(TransactionType.TRANSFER, 2, "debit");
+        when(accountService.updateBalance("a2", new BigDecimal("50"), "REF-1:credit"))
+                .thenReturn(Mono.just(new AccountService.AccountDto()));
+        when(accountService.incrementTransactionCount("a1", BigDecimal.ONE, "REF-1:count"))
+                .thenReturn(Mono.just(new AccountService.AccountDto()));
+
+        StepVerifier.create(dispatcher.dispatch(transfer)).verifyComplete();
+
+        verify(accountService, never()).updateBalance(eq("a1"), any(), anyString());
+        verify(transactionRepository).markOutboxStep("t1", "credit");
+        verify(transactionRepository).markOutboxStep("t1", "count");
+        verify(transactionRepository).completeOutbox("t1");
+    }
+
+    @Test
+    void transientFailureIsRescheduled() {
+        Transaction withdrawal = pending(TransactionType.WITHDRAWAL, 1);
+        when(accountService.updateBalance(eq("a1"), any(), eq("REF-1:debit")))
+                .thenReturn(Mono.error(new RuntimeException("Error updating account balance",
+                        WebClientResponseException.create(503, "Unavailable", null, null, null))));
+
+        StepVerifier.create(dispatcher.dispatch(withdrawal)).verifyComplete();
+
+        verify(transactionRepository).rescheduleOutbox(eq("t1"), any(LocalDateTime.class), anyString());
+        verify(transactionRepository, never()).completeOutbox(anyString());
+        verify(transactionRepository, never()).failOutbox(anyString(), any());
+    }
+
+    @Test
+    void clientErrorFailsWithoutRetry() {
+        Transaction withdrawal = pending(TransactionType.WITHDRAWAL, 1);
+        when(accountService.updateBalance(eq("a1"), any(), eq("REF-1:debit")))
+                .thenReturn(Mono.error(new RuntimeException("Error updating account balance",
+                        WebClientResponseException.create(HttpStatus.BAD_REQUEST.value(), "Bad Request",
+                                null, null, null))));
+
+        StepVerifier.create(dispatcher.dispatch(withdrawal)).verifyComplete();
+
+        verify(transactionRepository).failOutbox(eq("t1"), anyString());
+        verify(transactionRepository, never()).rescheduleOutbox(anyString(), any(), any());
+    }
+
+    @Test
+    void partiallyAppliedTransferIsParkedForReviewInsteadOfFailed() {
+        Transaction transfer = pending(TransactionType.TRANSFER, 2, "debit");
+        when(accountService.updateBalance("a2", new BigDecimal("50"), "REF-1:credit"))
+                .thenReturn(Mono.error(new RuntimeException("Error updating account balance",
+                        WebClientResponseException.create(HttpStatus.NOT_FOUND.value(), "Not Found",
+                                null, null, null))));
+
+        StepVerifier.create(dispatcher.dispatch(transfer)).verifyComplete();
+
+        verify(transactionRepository).reviewOutbox(eq("t1"), anyString());
+        verify(transactionRepository, never()).failOutbox(anyString(), any());
+        verify(balanceProjectionService).revert(transfer, Collections.singleton("debit"));
+        verify(transactionRollupService, never()).revert(any());
+    }
+
+    @Test
+    void drainStopsWhenNoDueTransactionsRemain() {
+        when(transactionRepository.claimNextOutbox(any(), any()))
+                .thenReturn(Mono.just(pending(TransactionType.DEPOSIT, 1)))
+                .thenReturn(Mono.empty());
+        when(accountService.updateBalance(eq("a1"), any(), eq("REF-1:credit")))
+                .thenReturn(Mono.just(new AccountService.AccountDto()));
+
+        StepVerifier.create(dispatcher.drain())
+                .expectNext(1L)
+                .verifyComplete();
+
+        verify(transactionRepository).completeOutbox("t1");
+    }
+
+    @Test
+    void backoffGrowsAndIsCapped() {
+        properties.setInitialBackoff(Duration.ofSeconds(1));
+        properties.setMaxBackoff(Duration.ofSeconds(10));
+
+        assertThat(dispatcher.backoff(1)).isBetween(Duration.ofMillis(500), Duration.ofSeconds(1));
+        assertThat(dispatcher.backoff(3)).isBetween(Duration.ofSeconds(2), Duration.ofSeconds(4));
+        assertThat(dispatcher.backoff(20)).isBetween(Duration.ofSeconds(5), Duration.ofSeconds(10));
+    }
+
+    private Transaction pending(TransactionType type, int attempts, String... completedSteps) {
+        HashSet<String> completed = new HashSet<>();
+        Collections.addAll(completed, completedSteps);
+        return Transaction.builder()
+                .id("t1")
+                .accountId("a1")
+                .destinationAccountId("a2")
+                .type(type)
+                .amount(new BigDecimal("50"))
+                .fee(BigDecimal.ONE)
+                .referenceNumber("REF-1")
+                .status(TransactionStatus.PENDING)
+                .outbox(OutboxState.builder().attempts(attempts).completedSteps(completed).build())
+                .build();
+    }
+}
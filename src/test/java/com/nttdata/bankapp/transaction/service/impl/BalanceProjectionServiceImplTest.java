@@ -0,0 +1,180 @@
+package com.nttdata.bankapp.transaction.service.impl;
+
+import com.nttdata.bankapp.transaction.client.AccountService;
+import com.nttdata.bankapp.transaction.config.BalanceProjectionProperties;
+import com.nttdata.bankapp.transaction.model.BalanceDelta;
+import com.nttdata.bankapp.transaction.model.BalanceSnapshot;
+import com.nttdata.bankapp.transaction.model.OutboxState;
+import com.nttdata.bankapp.transaction.model.Transaction;
+import com.nttdata.bankapp.transaction.model.TransactionStatus;
+import com.nttdata.bankapp.transaction.model.TransactionType;
+import com.nttdata.bankapp.transaction.repository.BalanceDeltaRepository;
+import com.nttdata.bankapp.transaction.repository.BalanceSnapshotRepository;
+import com.nttdata.bankapp.transaction.repository.TransactionRepository;
+import com.nttdata.bankapp.transaction.service.KeyedSequencer;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Spy;
+import org.mockito.junit.jupiter.MockitoExtension;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.tuple;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.lenient;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class BalanceProjectionServiceImplTest {
+
+    @Mock
+    private BalanceSnapshotRepository snapshotRepository;
+    @Mock
+    private BalanceDeltaRepository deltaRepository;
+    @Mock
+    private TransactionRepository transactionRepository;
+    @Mock
+    private AccountService accountService;
+    @Spy
+    private KeyedSequencer sequencer = new KeyedSequencer();
+    @Spy
+    private BalanceProjectionProperties properties = new BalanceProjectionProperties();
+
+    @InjectMocks
+    private BalanceProjectionServiceImpl balanceProjectionService;
+
+    @BeforeEach
+    void setUp() {
+        properties.setEnabled(true);
+        properties.setSnapshotEvery(3);
+        AtomicLong seq = new AtomicLong();
+        lenient().when(snapshotRepository.reserveSeq(anyString()))
+                .thenAnswer(invocation -> Mono.just(seq.incrementAndGet()));
+        lenient().when(deltaRepository.insert(any(BalanceDelta.class)))
+                .thenAnswer(invocation -> Mono.just(invocation.getArgument(0, BalanceDelta.class)));
+        lenient().when(deltaRepository.deleteByAccountIdAndSeqLessThanEqual(anyString(), anyLong()))
+                .thenReturn(Mono.just(0L));
+        lenient().when(transactionRepository.findByAccountIdAndStatus(anyString(), any())).thenReturn(Flux.empty());
+        lenient().when(transactionRepository.findByDestinationAccountIdAndStatus(anyString(), any()))
+                .thenReturn(Flux.empty());
+    }
+
+    @Test
+    void transferRecordsSignedDeltasForBothAccounts() {
+        Transaction transfer = Transaction.builder()
+                .id("t1").type(TransactionType.TRANSFER).accountId("a1").destinationAccountId("a2")
+                .amount(new BigDecimal("50")).fee(new BigDecimal("2")).build();
+
+        StepVerifier.create(balanceProjectionService.record(transfer)).verifyComplete();
+
+        ArgumentCaptor<BalanceDelta> deltas = ArgumentCaptor.forClass(BalanceDelta.class);
+        verify(deltaRepository, times(2)).insert(deltas.capture());
+        assertThat(deltas.getAllValues()).extracting("id", "accountId", "amount", "seq").containsExactly(
+                tuple("t1:a1", "a1", new BigDecimal("-52"), 1L),
+                tuple("t1:a2", "a2", new BigDecimal("50"), 2L));
+    }
+
+    @Test
+    void revertOnlyUndoesStepsNotAppliedDownstream() {
+        Transaction transfer = Transaction.builder()
+                .id("t1").type(TransactionType.TRANSFER).accountId("a1").destinationAccountId("a2")
+                .amount(new BigDecimal("50")).build();
+
+        StepVerifier.create(balanceProjectionService.revert(transfer, Collections.singleton("debit")))
+                .verifyComplete();
+
+        ArgumentCaptor<BalanceDelta> deltas = ArgumentCaptor.forClass(BalanceDelta.class);
+        verify(deltaRepository).insert(deltas.capture());
+        assertThat(deltas.getValue().getId()).isEqualTo("t1:a2:revert");
+        assertThat(deltas.getValue().getAmount()).isEqualByComparingTo("-50");
+    }
+
+    @Test
+    void firstReadSeedsFromAccountServicePlusPendingOutboxSteps() {
+        AccountService.BalanceDto remote = new AccountService.BalanceDto();
+        remote.setBalance(new BigDecimal("100"));
+        when(snapshotRepository.findById("a1")).thenReturn(Mono.empty());
+        when(accountService.getBalance("a1")).thenReturn(Mono.just(remote));
+        when(transactionRepository.findByAccountIdAndStatus("a1", TransactionStatus.PENDING)).thenReturn(Flux.just(
+                Transaction.builder().id("p1").type(TransactionType.WITHDRAWAL).accountId("a1")
+                        .amount(new BigDecimal("30")).outbox(OutboxState.pending(LocalDateTime.now())).build(),
+                // Transferencia cuyo cargo ya llegó al servicio de cuentas: no se descuenta otra vez
+                Transaction.builder().id("p2").type(TransactionType.TRANSFER).accountId("a1")
+                        .destinationAccountId("a2").amount(new BigDecimal("20"))
+                        .outbox(OutboxState.builder().completedSteps(new HashSet<>(Arrays.asList("debit"))).build())
+                        .build()));
+        when(snapshotRepository.seed(eq("a1"), any(), eq(0L), any())).thenAnswer(invocation -> Mono.just(
+                BalanceSnapshot.builder().id("a1").balance(invocation.getArgument(1)).seeded(true).build()));
+        when(deltaRepository.findByAccountIdAndSeqGreaterThan("a1", 0L)).thenReturn(Flux.empty());
+
+        StepVerifier.create(balanceProjectionService.getBalance("a1"))
+                .assertNext(balance -> assertThat(balance.getBalance()).isEqualByComparingTo("70"))
+                .verifyComplete();
+    }
+
+    @Test
+    void readAddsDeltasSinceSnapshotAndCompactsOldOnes() {
+        LocalDateTime old = LocalDateTime.now().minusMinutes(5);
+        when(snapshotRepository.findById("a1")).thenReturn(Mono.just(BalanceSnapshot.builder()
+                .id("a1").balance(new BigDecimal("100")).throughSeq(4).nextSeq(7).seeded(true).build()));
+        when(deltaRepository.findByAccountIdAndSeqGreaterThan("a1", 4L)).thenReturn(Flux.just(
+                delta(5, "10", old), delta(6, "-5", old), delta(7, "20", LocalDateTime.now())));
+        when(snapshotRepository.fold(eq("a1"), eq(4L), eq(6L), any(), any()))
+                .thenReturn(Mono.just(new BalanceSnapshot()));
+
+        StepVerifier.create(balanceProjectionService.currentBalance("a1"))
+                .assertNext(balance -> assertThat(balance).isEqualByComparingTo("125"))
+                .verifyComplete();
+
+        // El delta reciente queda fuera del snapshot por si hay secuencias menores aún en vuelo
+        verify(snapshotRepository).fold(eq("a1"), eq(4L), eq(6L),
+                argThat(b -> b.compareTo(new BigDecimal("105")) == 0), any());
+        verify(deltaRepository).deleteByAccountIdAndSeqLessThanEqual("a1", 6L);
+    }
+
+    @Test
+    void reconcileReseedsProjectionThatDrifted() {
+        AccountService.BalanceDto remote = new AccountService.BalanceDto();
+        remote.setBalance(new BigDecimal("80"));
+        when(snapshotRepository.findById("a1")).thenReturn(Mono.just(BalanceSnapshot.builder()
+                .id("a1").balance(new BigDecimal("100")).throughSeq(2).nextSeq(2).seeded(true).build()));
+        when(deltaRepository.findByAccountIdAndSeqGreaterThan("a1", 2L)).thenReturn(Flux.empty());
+        when(accountService.getBalance("a1")).thenReturn(Mono.just(remote));
+        when(snapshotRepository.seed(eq("a1"), any(), eq(2L), any())).thenReturn(Mono.just(
+                BalanceSnapshot.builder().id("a1").balance(new BigDecimal("80")).throughSeq(2).seeded(true).build()));
+
+        StepVerifier.create(balanceProjectionService.reconcile("a1"))
+                .expectNext(true)
+                .verifyComplete();
+
+        verify(snapshotRepository).seed(eq("a1"),
+                argThat(b -> b.compareTo(new BigDecimal("80")) == 0), eq(2L), any());
+        verify(snapshotRepository, never()).markReconciled(anyString(), any());
+    }
+
+    private static BalanceDelta delta(long seq, String amount, LocalDateTime createdAt) {
+        return BalanceDelta.builder()
+                .id("t" + seq + ":a1").accountId("a1").seq(seq).amount(new BigDecimal(amount)).createdAt(createdAt)
+                .build();
+    }
+}
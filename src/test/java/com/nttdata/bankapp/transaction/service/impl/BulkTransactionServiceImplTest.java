@@ -0,0 +1,176 @@
+package com.nttdata.bankapp.transaction.service.impl;
+
+import com.nttdata.bankapp.transaction.client.AccountService;
+import com.nttdata.bankapp.transaction.client.CreditService;
+import com.nttdata.bankapp.transaction.client.CustomerService;
+import com.nttdata.bankapp.transaction.dto.BulkItemResult;
+import com.nttdata.bankapp.transaction.dto.BulkTransactionRequest;
+import com.nttdata.bankapp.transaction.exception.DownstreamUnavailableException;
+import com.nttdata.bankapp.transaction.model.Transaction;
+import com.nttdata.bankapp.transaction.model.TransactionStatus;
+import com.nttdata.bankapp.transaction.model.TransactionType;
+import com.nttdata.bankapp.transaction.repository.TransactionRepository;
+import com.nttdata.bankapp.transaction.service.BalanceProjectionService;
+import com.nttdata.bankapp.transaction.service.TransactionRejections;
+import com.nttdata.bankapp.transaction.service.TransactionRollupService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Spy;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+import javax.validation.Validation;
+import javax.validation.Validator;
+import java.math.BigDecimal;
+import java.util.Collections;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.lenient;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class BulkTransactionServiceImplTest {
+
+    @Mock
+    private TransactionRepository transactionRepository;
+    @Mock
+    private AccountService accountService;
+    @Mock
+    private CreditService creditService;
+    @Mock
+    private CustomerService customerService;
+    @Mock
+    private BalanceProjectionService balanceProjectionService;
+    @Mock
+    private TransactionRollupService transactionRollupService;
+    @Spy
+    private Validator validator = Validation.buildDefaultValidatorFactory().getValidator();
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    @Spy
+    private TransactionRejections rejections = new TransactionRejections(meterRegistry);
+
+    @InjectMocks
+    private BulkTransactionServiceImpl bulkTransactionService;
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(bulkTransactionService, "chunkSize", 3);
+        ReflectionTestUtils.setField(bulkTransactionService, "concurrency", 2);
+        ReflectionTestUtils.setField(bulkTransactionService, "lookupConcurrency", 4);
+        lenient().when(balanceProjectionService.record(any())).thenReturn(Mono.empty());
+        lenient().when(transactionRollupService.record(any())).thenReturn(Mono.empty());
+    }
+
+    @Test
+    void streamsOneResultPerLineInInputOrder() {
+        when(customerService.customerExists("c1")).thenReturn(Mono.just(true));
+        when(customerService.customerExists("c2")).thenReturn(Mono.just(false));
+        when(accountService.accountExists("a1")).thenReturn(Mono.just(true));
+        when(creditService.creditExists("cr1")).thenReturn(Mono.just(true));
+        // Segundo bloque: su única línea válida choca con un error de escritura
+        when(transactionRepository.insertUnordered(anyList()))
+                .thenReturn(Mono.just(Collections.emptyMap()))
+                .thenReturn(Mono.just(Collections.singletonMap(0, "E11000 duplicate key")));
+
+        Flux<BulkTransactionRequest> lines = Flux.just(
+                deposit("a1", "c1", "100"),
+                deposit("a1", "c1", "-5"),
+                deposit("a1", "c2", "10"),
+                payment("cr1", "c1", "50"),
+                BulkTransactionRequest.builder().type(TransactionType.WITHDRAWAL).accountId("a1")
+                        .customerId("c1").amount(BigDecimal.TEN).build());
+
+        StepVerifier.create(bulkTransactionService.ingest(lines))
+                .assertNext(r -> assertResult(r, 0, BulkItemResult.Status.CREATED))
+                .assertNext(r -> assertResult(r, 1, BulkItemResult.Status.REJECTED))
+                .assertNext(r -> assertResult(r, 2, BulkItemResult.Status.REJECTED))
+                .assertNext(r -> assertResult(r, 3, BulkItemResult.Status.FAILED))
+                .assertNext(r -> assertResult(r, 4, BulkItemResult.Status.REJECTED))
+                .verifyComplete();
+
+        assertThat(meterRegistry.counter("transaction.rejections", "reason", "invalid_bulk_line").count())
+                .isEqualTo(2.0);
+        assertThat(meterRegistry.counter("transaction.rejections", "reason", "customer_not_found").count())
+                .isEqualTo(1.0);
+
+        // Un lookup por ID distinto de cada bloque, no por línea
+        verify(customerService, times(2)).customerExists("c1");
+        verify(accountService, times(1)).accountExists("a1");
+    }
+
+    @Test
+    void insertedTransactionsArePendingOutboxRecords() {
+        when(customerService.customerExists("c1")).thenReturn(Mono.just(true));
+        when(accountService.accountExists("a1")).thenReturn(Mono.just(true));
+        @SuppressWarnings("unchecked")
+        ArgumentCaptor<List<Transaction>> inserted = ArgumentCaptor.forClass(List.class);
+        when(transactionRepository.insertUnordered(inserted.capture())).thenReturn(Mono.just(Collections.emptyMap()));
+
+        StepVerifier.create(bulkTransactionService.ingest(Flux.just(deposit("a1", "c1", "100"))))
+                .assertNext(r -> assertThat(r.getTransactionId()).isNotNull())
+                .verifyComplete();
+
+        Transaction transaction = inserted.getValue().get(0);
+        assertThat(transaction.getStatus()).isEqualTo(TransactionStatus.PENDING);
+        assertThat(transaction.getOutbox().getNextAttemptAt()).isNotNull();
+        assertThat(transaction.getReferenceNumber()).startsWith("TX-");
+    }
+
+    @Test
+    void failedLookupOnlyFailsTheLinesOfThatId() {
+        when(customerService.customerExists("c1")).thenReturn(Mono.just(true));
+        when(accountService.accountExists("a1")).thenReturn(Mono.just(true));
+        when(accountService.accountExists("a2"))
+                .thenReturn(Mono.error(new DownstreamUnavailableException("accounts", new RuntimeException())));
+        when(creditService.creditExists("cr1")).thenReturn(Mono.just(true));
+        when(transactionRepository.insertUnordered(anyList())).thenReturn(Mono.just(Collections.emptyMap()));
+
+        Flux<BulkTransactionRequest> lines = Flux.just(
+                deposit("a1", "c1", "100"),
+                deposit("a2", "c1", "100"),
+                payment("cr1", "c1", "50"),
+                deposit("a1", "c1", "20"));
+
+        StepVerifier.create(bulkTransactionService.ingest(lines))
+                .assertNext(r -> assertResult(r, 0, BulkItemResult.Status.CREATED))
+                .assertNext(r -> {
+                    assertResult(r, 1, BulkItemResult.Status.FAILED);
+                    assertThat(r.getError()).startsWith("Account lookup failed for id: a2");
+                })
+                .assertNext(r -> assertResult(r, 2, BulkItemResult.Status.CREATED))
+                // El bloque siguiente se procesa igual
+                .assertNext(r -> assertResult(r, 3, BulkItemResult.Status.CREATED))
+                .verifyComplete();
+
+        verify(transactionRepository, times(2)).insertUnordered(anyList());
+    }
+
+    private static void assertResult(BulkItemResult result, long index, BulkItemResult.Status status) {
+        assertThat(result.getIndex()).isEqualTo(index);
+        assertThat(result.getStatus()).isEqualTo(status);
+    }
+
+    private static BulkTransactionRequest deposit(String accountId, String customerId, String amount) {
+        return BulkTransactionRequest.builder().type(TransactionType.DEPOSIT)
+                .accountId(accountId).customerId(customerId).amount(new BigDecimal(amount)).build();
+    }
+
+    private static BulkTransactionRequest payment(String creditId, String customerId, String amount) {
+        return BulkTransactionRequest.builder().type(TransactionType.PAYMENT)
+                .creditId(creditId).customerId(customerId).amount(new BigDecimal(amount)).build();
+    }
+}
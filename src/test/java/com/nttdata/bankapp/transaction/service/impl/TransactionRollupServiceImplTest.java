@@ -0,0 +1,121 @@
+package com.nttdata.bankapp.transaction.service.impl;
+
+import com.nttdata.bankapp.transaction.model.RollupGranularity;
+import com.nttdata.bankapp.transaction.model.RollupScope;
+import com.nttdata.bankapp.transaction.model.RollupTotals;
+import com.nttdata.bankapp.transaction.model.Transaction;
+import com.nttdata.bankapp.transaction.model.TransactionRollup;
+import com.nttdata.bankapp.transaction.model.TransactionType;
+import com.nttdata.bankapp.transaction.repository.TransactionRollupRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+import reactor.core.publisher.Flux;
+import reactor.test.StepVerifier;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class TransactionRollupServiceImplTest {
+
+    private static final LocalDateTime MAY_3 = LocalDateTime.of(2024, 5, 3, 10, 0);
+
+    @Mock
+    private TransactionRollupRepository rollupRepository;
+
+    @InjectMocks
+    private TransactionRollupServiceImpl rollupService;
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(rollupService, "enabled", true);
+    }
+
+    @Test
+    void transactionsOnSamePeriodAreMergedIntoOneIncrement() {
+        Transaction transfer = Transaction.builder()
+                .type(TransactionType.TRANSFER).accountId("a1").destinationAccountId("a2").customerId("c1")
+                .amount(new BigDecimal("50")).fee(new BigDecimal("2")).transactionDate(MAY_3).build();
+        Transaction deposit = Transaction.builder()
+                .type(TransactionType.DEPOSIT).accountId("a1").customerId("c1")
+                .amount(new BigDecimal("100")).transactionDate(MAY_3.plusHours(1)).build();
+
+        Map<String, TransactionRollup> increments = TransactionRollupServiceImpl.increments(
+                Arrays.asList(transfer, deposit), BigDecimal.ONE);
+
+        // a1, a2 y c1, cada uno por día y por mes
+        assertThat(increments).hasSize(6);
+        TransactionRollup a1Day = increments.get("ACCOUNT:a1:DAY:2024-05-03");
+        assertThat(a1Day.getTotals().getCount()).isEqualTo(2);
+        assertThat(a1Day.getTotals().getAmount()).isEqualByComparingTo("150");
+        assertThat(a1Day.getTotals().getFees()).isEqualByComparingTo("2");
+        assertThat(a1Day.getByType()).containsOnlyKeys("TRANSFER", "DEPOSIT");
+        TransactionRollup a2Month = increments.get("ACCOUNT:a2:MONTH:2024-05-01");
+        assertThat(a2Month.getByType()).containsOnlyKeys(TransactionRollupServiceImpl.TRANSFER_IN);
+        assertThat(a2Month.getTotals().getFees()).isEqualByComparingTo("0");
+    }
+
+    @Test
+    void revertSubtractsTheTransaction() {
+        Transaction consumption = Transaction.builder()
+                .type(TransactionType.CONSUMPTION).creditCardId("cc1")
+                .amount(new BigDecimal("30")).transactionDate(MAY_3).build();
+
+        TransactionRollup increment = TransactionRollupServiceImpl.increments(
+                        Collections.singletonList(consumption), BigDecimal.ONE.negate())
+                .get("CREDIT_CARD:cc1:MONTH:2024-05-01");
+
+        assertThat(increment.getTotals().getCount()).isEqualTo(-1);
+        assertThat(increment.getTotals().getAmount()).isEqualByComparingTo("-30");
+    }
+
+    @Test
+    void summaryAddsUpStoredPeriods() {
+        when(rollupRepository.findPeriods(RollupScope.ACCOUNT, "a1", RollupGranularity.MONTH,
+                LocalDate.of(2024, 4, 1), LocalDate.of(2024, 5, 31))).thenReturn(Flux.just(
+                rollup(LocalDate.of(2024, 4, 1), 3, "300", "5"),
+                rollup(LocalDate.of(2024, 5, 1), 2, "50", "0")));
+
+        StepVerifier.create(rollupService.summarize(RollupScope.ACCOUNT, "a1", RollupGranularity.MONTH,
+                        LocalDate.of(2024, 4, 15), LocalDate.of(2024, 5, 20)))
+                .assertNext(summary -> {
+                    // El rango informado es el realmente sumado: meses completos
+                    assertThat(summary.getFrom()).isEqualTo(LocalDate.of(2024, 4, 1));
+                    assertThat(summary.getTo()).isEqualTo(LocalDate.of(2024, 5, 31));
+                    assertThat(summary.getPeriods()).hasSize(2);
+                    assertThat(summary.getTotals().getCount()).isEqualTo(5);
+                    assertThat(summary.getTotals().getAmount()).isEqualByComparingTo("350");
+                    assertThat(summary.getByType().get("DEPOSIT").getFees()).isEqualByComparingTo("5");
+                })
+                .verifyComplete();
+    }
+
+    @Test
+    void invertedRangeIsRejected() {
+        StepVerifier.create(rollupService.summarize(RollupScope.CUSTOMER, "c1", RollupGranularity.DAY,
+                        LocalDate.of(2024, 5, 2), LocalDate.of(2024, 5, 1)))
+                .expectError(IllegalArgumentException.class)
+                .verify();
+    }
+
+    private static TransactionRollup rollup(LocalDate periodStart, long count, String amount, String fees) {
+        RollupTotals totals = new RollupTotals(count, new BigDecimal(amount), new BigDecimal(fees));
+        return TransactionRollup.builder()
+                .periodStart(periodStart)
+                .totals(totals)
+                .byType(Collections.singletonMap("DEPOSIT", totals))
+                .build();
+    }
+}
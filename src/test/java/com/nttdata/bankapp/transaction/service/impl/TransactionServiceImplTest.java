@@ -0,0 +1,312 @@
+package com.nttdata.bankapp.transaction.service.impl;
+
+import com.nttdata.bankapp.transaction.client.AccountService;
+import com.nttdata.bankapp.transaction.client.CreditCardService;
+import com.nttdata.bankapp.transaction.client.CreditService;
+import com.nttdata.bankapp.transaction.client.CustomerService;
+import com.nttdata.bankapp.transaction.dto.ConsumptionRequest;
+import com.nttdata.bankapp.transaction.dto.PageCursor;
+import com.nttdata.bankapp.transaction.dto.TransactionDto;
+import com.nttdata.bankapp.transaction.dto.TransactionLineDto;
+import com.nttdata.bankapp.transaction.dto.TransferRequest;
+import com.nttdata.bankapp.transaction.dto.WithdrawalRequest;
+import com.nttdata.bankapp.transaction.exception.ResourceNotFoundException;
+import com.nttdata.bankapp.transaction.model.Transaction;
+import com.nttdata.bankapp.transaction.model.TransactionStatus;
+import com.nttdata.bankapp.transaction.model.TransactionType;
+import com.nttdata.bankapp.transaction.repository.TransactionRepository;
+import com.nttdata.bankapp.transaction.service.BalanceProjectionService;
+import com.nttdata.bankapp.transaction.service.TransactionRejections;
+import com.nttdata.bankapp.transaction.service.TransactionRollupService;
+import com.nttdata.bankapp.transaction.service.KeyedSequencer;
+import org.junit.jupiter.api.BeforeAll;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Spy;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.lenient;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Pruebas de la etapa de validación de TransactionServiceImpl contra servicios remotos simulados.
+ * Cada llamada remota simulada tarda HOP; las validaciones independientes deben costar un solo salto.
+ */
+@ExtendWith(MockitoExtension.class)
+class TransactionServiceImplTest {
+
+    private static final Duration HOP = Duration.ofMillis(250);
+
+    @Mock
+    private TransactionRepository transactionRepository;
+    @Mock
+    private AccountService accountService;
+    @Mock
+    private CreditService creditService;
+    @Mock
+    private CreditCardService creditCardService;
+    @Mock
+    private CustomerService customerService;
+    @Spy
+    private KeyedSequencer sequencer = new KeyedSequencer();
+    @Mock
+    private BalanceProjectionService balanceProjectionService;
+    @Mock
+    private TransactionRollupService transactionRollupService;
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    @Spy
+    private TransactionRejections rejections = new TransactionRejections(meterRegistry);
+
+    @InjectMocks
+    private TransactionServiceImpl transactionService;
+
+    @BeforeAll
+    static void warmUp() {
+        // Evita que la carga de clases de Reactor/StepVerifier cuente en la primera medición
+        StepVerifier.create(Mono.just(true).delayElement(Duration.ofMillis(1)))
+                .expectNext(true)
+                .verifyComplete();
+    }
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(transactionService, "defaultPageSize", 2);
+        ReflectionTestUtils.setField(transactionService, "maxPageSize", 3);
+        lenient().when(transactionRepository.save(any(Transaction.class)))
+                .thenAnswer(invocation -> Mono.just(invocation.getArgument(0, Transaction.class)));
+        lenient().when(balanceProjectionService.record(any())).thenReturn(Mono.empty());
+        lenient().when(transactionRollupService.record(any())).thenReturn(Mono.empty());
+    }
+
+    @Test
+    void withdrawRunsValidationLookupsInParallel() {
+        AccountService.BalanceDto balance = new AccountService.BalanceDto();
+        balance.setBalance(new BigDecimal("500"));
+        when(customerService.customerExists("c1")).thenReturn(Mono.just(true).delayElement(HOP));
+        when(accountService.accountExists("a1")).thenReturn(Mono.just(true).delayElement(HOP));
+        when(accountService.getBalance("a1")).thenReturn(Mono.just(balance).delayElement(HOP));
+        when(accountService.updateBalance(eq("a1"), any()))
+                .thenReturn(Mono.just(new AccountService.AccountDto()).delayElement(HOP));
+
+        WithdrawalRequest request = WithdrawalRequest.builder()
+                .accountId("a1").customerId("c1").amount(new BigDecimal("100")).build();
+
+        // Secuencial: 4 saltos (cliente, cuenta, saldo, actualización). El cliente se valida en paralelo
+        // con cuenta y saldo, que van en serie: 3 saltos.
+        Duration elapsed = StepVerifier.create(transactionService.withdraw(request))
+                .assertNext(dto -> assertThat(dto.getAmount()).isEqualByComparingTo("100"))
+                .verifyComplete();
+
+        assertThat(elapsed).isLessThan(HOP.multipliedBy(4));
+    }
+
+    @Test
+    void withdrawFromMissingAccountIsNotFoundEvenIfBalanceLookupFails() {
+        when(customerService.customerExists("c1")).thenReturn(Mono.just(true));
+        when(accountService.accountExists("a1")).thenReturn(Mono.just(false).delayElement(HOP));
+        when(accountService.getBalance("a1")).thenReturn(Mono.error(new IllegalStateException("404 from accounts")));
+
+        WithdrawalRequest request = WithdrawalRequest.builder()
+                .accountId("a1").customerId("c1").amount(new BigDecimal("100")).build();
+
+        StepVerifier.create(transactionService.withdraw(request))
+                .expectError(ResourceNotFoundException.class)
+                .verify();
+    }
+
+    @Test
+    void consumptionOnMissingCardIsNotFoundEvenIfBalanceLookupFails() {
+        when(customerService.customerExists("c1")).thenReturn(Mono.just(true));
+        when(creditCardService.creditCardExists("cc1")).thenReturn(Mono.just(false).delayElement(HOP));
+        when(creditCardService.getBalance("cc1")).thenReturn(Mono.error(new IllegalStateException("404 from cards")));
+
+        ConsumptionRequest request = ConsumptionRequest.builder()
+                .creditCardId("cc1").customerId("c1").amount(new BigDecimal("100")).build();
+
+        StepVerifier.create(transactionService.consumeCreditCard(request))
+                .expectError(ResourceNotFoundException.class)
+                .verify();
+    }
+
+    @Test
+    void transferRunsValidationLookupsInParallel() {
+        when(customerService.customerExists("c1")).thenReturn(Mono.just(true).delayElement(HOP));
+        when(accountService.validateAccountForTransfer(eq("a1"), eq("c1"), any()))
+                .thenReturn(Mono.just(true).delayElement(HOP));
+        when(accountService.accountExists("a2")).thenReturn(Mono.just(true).delayElement(HOP));
+        when(accountService.calculateTransactionFee("a1")).thenReturn(Mono.just(BigDecimal.ZERO).delayElement(HOP));
+        when(accountService.updateBalance(anyString(), any())).thenReturn(Mono.just(new AccountService.AccountDto()));
+        when(accountService.incrementTransactionCount("a1", null)).thenReturn(Mono.just(new AccountService.AccountDto()));
+
+        TransferRequest request = TransferRequest.builder()
+                .sourceAccountId("a1").destinationAccountId("a2").customerId("c1")
+                .amount(new BigDecimal("50")).build();
+
+        // Secuencial: 4 saltos de validación. Paralelo: 1 salto.
+        Duration elapsed = StepVerifier.create(transactionService.transfer(request))
+                .expectNextCount(1)
+                .verifyComplete();
+
+        assertThat(elapsed).isLessThan(HOP.multipliedBy(3));
+    }
+
+    @Test
+    void withdrawShortCircuitsOnFirstFailedCheck() {
+        when(customerService.customerExists("c1")).thenReturn(Mono.just(false));
+        when(accountService.accountExists("a1")).thenReturn(Mono.just(true).delayElement(Duration.ofSeconds(5)));
+        when(accountService.getBalance("a1")).thenReturn(Mono.<AccountService.BalanceDto>never());
+
+        WithdrawalRequest request = WithdrawalRequest.builder()
+                .accountId("a1").customerId("c1").amount(new BigDecimal("100")).build();
+
+        StepVerifier.create(transactionService.withdraw(request))
+                .expectError(ResourceNotFoundException.class)
+                .verify(Duration.ofSeconds(1));
+
+        verify(accountService, never()).updateBalance(anyString(), any());
+        verify(transactionRepository, never()).save(any());
+        assertThat(meterRegistry.counter("transaction.rejections", "reason", "customer_not_found").count())
+                .isEqualTo(1.0);
+    }
+
+    @Test
+    void concurrentWithdrawalsOnSameAccountCannotOverdraw() {
+        // Cuenta remota simulada: lectura y escritura de saldo no atómicas, con latencia
+        AtomicReference<BigDecimal> remoteBalance = new AtomicReference<>(new BigDecimal("100"));
+        when(customerService.customerExists("c1")).thenReturn(Mono.just(true));
+        when(accountService.accountExists("a1")).thenReturn(Mono.just(true));
+        when(accountService.getBalance("a1")).thenAnswer(invocation -> Mono.fromSupplier(() -> {
+            AccountService.BalanceDto balance = new AccountService.BalanceDto();
+            balance.setBalance(remoteBalance.get());
+            return balance;
+        }).delayElement(Duration.ofMillis(20)));
+        when(accountService.updateBalance(eq("a1"), any())).thenAnswer(invocation -> {
+            BigDecimal delta = invocation.getArgument(1);
+            return Mono.delay(Duration.ofMillis(20))
+                    .map(tick -> {
+                        remoteBalance.set(remoteBalance.get().add(delta));
+                        return new AccountService.AccountDto();
+                    });
+        });
+
+        WithdrawalRequest request = WithdrawalRequest.builder()
+                .accountId("a1").customerId("c1").amount(new BigDecimal("30")).build();
+
+        StepVerifier.create(Flux.range(0, 10)
+                        .flatMap(i -> transactionService.withdraw(request)
+                                .map(dto -> true)
+                                .onErrorReturn(IllegalArgumentException.class, false))
+                        .filter(Boolean::booleanValue)
+                        .count())
+                .expectNext(3L)
+                .verifyComplete();
+
+        assertThat(remoteBalance.get()).isEqualByComparingTo("10");
+    }
+
+    @Test
+    void outboxModeSavesPendingTransactionWithoutCallingDownstream() {
+        ReflectionTestUtils.setField(transactionService, "outboxEnabled", true);
+        AccountService.BalanceDto balance = new AccountService.BalanceDto();
+        balance.setBalance(new BigDecimal("100"));
+        when(customerService.customerExists("c1")).thenReturn(Mono.just(true));
+        when(accountService.accountExists("a1")).thenReturn(Mono.just(true));
+        when(accountService.getBalance("a1")).thenReturn(Mono.just(balance));
+        when(transactionRepository.findByAccountIdAndStatus("a1", TransactionStatus.PENDING)).thenReturn(Flux.just(
+                Transaction.builder().type(TransactionType.WITHDRAWAL).amount(new BigDecimal("60")).build()));
+
+        WithdrawalRequest small = WithdrawalRequest.builder()
+                .accountId("a1").customerId("c1").amount(new BigDecimal("30")).build();
+        WithdrawalRequest large = WithdrawalRequest.builder()
+                .accountId("a1").customerId("c1").amount(new BigDecimal("50")).build();
+
+        StepVerifier.create(transactionService.withdraw(small))
+                .assertNext(dto -> assertThat(dto.getStatus()).isEqualTo(TransactionStatus.PENDING))
+                .verifyComplete();
+        // 100 de saldo menos 60 pendientes no alcanza para 50
+        StepVerifier.create(transactionService.withdraw(large))
+                .expectError(IllegalArgumentException.class)
+                .verify();
+
+        verify(accountService, never()).updateBalance(anyString(), any());
+        verify(transactionRepository).save(argThat(tx -> tx.getStatus() == TransactionStatus.PENDING
+                && tx.getOutbox() != null && tx.getOutbox().getNextAttemptAt() != null));
+    }
+
+    @Test
+    void pageReturnsContinuationCursorWhenMoreRowsExist() {
+        LocalDateTime now = LocalDateTime.of(2024, 5, 1, 10, 0);
+        when(transactionRepository.findPage(any(), any(), eq(3))).thenReturn(Flux.just(
+                TransactionDto.builder().id("t3").transactionDate(now).build(),
+                TransactionDto.builder().id("t2").transactionDate(now.minusMinutes(1)).build(),
+                TransactionDto.builder().id("t1").transactionDate(now.minusMinutes(2)).build()));
+
+        StepVerifier.create(transactionService.findPageByAccountId("a1", null, null))
+                .assertNext(page -> {
+                    assertThat(page.getContent()).extracting("id").containsExactly("t3", "t2");
+                    PageCursor next = PageCursor.decode(page.getNextCursor());
+                    assertThat(next.getId()).isEqualTo("t2");
+                    assertThat(next.getTransactionDate()).isEqualTo(now.minusMinutes(1));
+                })
+                .verifyComplete();
+    }
+
+    @Test
+    void pageSizeIsCappedAndLastPageHasNoCursor() {
+        when(transactionRepository.findPage(any(), any(), anyInt())).thenReturn(Flux.just(
+                TransactionDto.builder().id("t1").transactionDate(LocalDateTime.now()).build()));
+
+        StepVerifier.create(transactionService.findPageByCustomerId("c1", null, 1000))
+                .assertNext(page -> assertThat(page.getNextCursor()).isNull())
+                .verifyComplete();
+
+        verify(transactionRepository).findPage(any(), any(), eq(4));
+    }
+
+    @Test
+    void linePageUsesLeanProjectionAndSameCursor() {
+        LocalDateTime now = LocalDateTime.of(2024, 5, 1, 10, 0);
+        when(transactionRepository.findLinePage(any(), any(), eq(3))).thenReturn(Flux.just(
+                TransactionLineDto.builder().id("t3").transactionDate(now).build(),
+                TransactionLineDto.builder().id("t2").transactionDate(now.minusMinutes(1)).build(),
+                TransactionLineDto.builder().id("t1").transactionDate(now.minusMinutes(2)).build()));
+
+        StepVerifier.create(transactionService.findLinePageByAccountId("a1", null, null))
+                .assertNext(page -> {
+                    assertThat(page.getContent()).extracting("id").containsExactly("t3", "t2");
+                    assertThat(PageCursor.decode(page.getNextCursor()).getId()).isEqualTo("t2");
+                })
+                .verifyComplete();
+
+        verify(transactionRepository, never()).findPage(any(), any(), anyInt());
+    }
+
+    @Test
+    void invalidCursorIsRejected() {
+        StepVerifier.create(transactionService.findPage("not-a-cursor", null))
+                .expectError(IllegalArgumentException.class)
+                .verify();
+    }
+}